@@ -0,0 +1,139 @@
+package com.documentmaster.app.utils.word;
+
+import android.content.Context;
+import android.util.Base64;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.junit.Assert.*;
+
+/**
+ * Resimli HTML'in sıralı ve paralel hazırlanarak DOCX'e yazılmasını karşılaştırır: çıktı aynı olmalı,
+ * süreler logcat'e ("ParallelImageBench") yazılır. Hızlanma cihazın çekirdek sayısına bağlıdır.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ParallelImageBenchmarkTest {
+
+    private static final String TAG = "ParallelImageBench";
+    private static final int IMAGES = 72;
+    private static final int IMAGE_KB = 256;
+    private static final int ROUNDS = 3;
+
+    private File sequentialFile;
+    private File parallelFile;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        sequentialFile = new File(context.getCacheDir(), "bench-sequential.docx");
+        parallelFile = new File(context.getCacheDir(), "bench-parallel.docx");
+    }
+
+    @After
+    public void tearDown() {
+        DocumentConverter.setParallelImages(true);
+        sequentialFile.delete();
+        parallelFile.delete();
+    }
+
+    @Test
+    public void parallelImagesProduceIdenticalDocument() throws IOException {
+        String html = buildHtml();
+        long sequentialBest = Long.MAX_VALUE;
+        long parallelBest = Long.MAX_VALUE;
+
+        for (int round = 0; round < ROUNDS; round++) {
+            sequentialBest = Math.min(sequentialBest, write(sequentialFile, html, false));
+            parallelBest = Math.min(parallelBest, write(parallelFile, html, true));
+
+            // docProps/core.xml kayıt zamanını içerdiği için yalnızca gövde ve resimler karşılaştırılır
+            Map<String, byte[]> sequential = readParts(sequentialFile);
+            Map<String, byte[]> parallel = readParts(parallelFile);
+            assertEquals(sequential.keySet(), parallel.keySet());
+            for (String name : sequential.keySet()) {
+                assertArrayEquals(name, sequential.get(name), parallel.get(name));
+            }
+        }
+
+        Log.i(TAG, "📊 " + IMAGES + " resim, " + Runtime.getRuntime().availableProcessors() + " çekirdek - sıralı: "
+                + sequentialBest / 1_000_000 + " ms, paralel: " + parallelBest / 1_000_000 + " ms");
+    }
+
+    private static long write(File target, String html, boolean parallel) throws IOException {
+        DocumentConverter.setParallelImages(parallel);
+        long start = System.nanoTime();
+        WordDocumentWriter.writeHtmlToDocx(target.getAbsolutePath(), html, null);
+        return System.nanoTime() - start;
+    }
+
+    // Sabit tohumlu rastgele PNG başlıklı resimler; her beşinci paragrafta satır içi ikinci bir resim
+    private static String buildHtml() {
+        Random random = new Random(42);
+        StringBuilder html = new StringBuilder();
+        for (int i = 0; i < IMAGES; i++) {
+            byte[] image = new byte[IMAGE_KB * 1024];
+            random.nextBytes(image);
+            image[0] = (byte) 0x89;
+            image[1] = 'P';
+            image[2] = 'N';
+            image[3] = 'G';
+            html.append("<p>Paragraf ").append(i).append(" <b>kalın</b> metin</p>");
+            html.append("<p><img src=\"data:image/png;base64,")
+                    .append(Base64.encodeToString(image, Base64.NO_WRAP)).append("\"></p>");
+            if (i % 5 == 0) {
+                html.append("<p>satır içi <img src=\"data:image/png;base64,")
+                        .append(Base64.encodeToString(Arrays.copyOf(image, 2048), Base64.NO_WRAP))
+                        .append("\"> resim</p>");
+            }
+        }
+        return html.toString();
+    }
+
+    private static Map<String, byte[]> readParts(File docx) throws IOException {
+        Map<String, byte[]> parts = new TreeMap<>();
+        try (ZipFile zip = new ZipFile(docx)) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String name = entry.getName();
+                if (name.equals("word/document.xml") || name.startsWith("word/media/")) {
+                    try (InputStream in = zip.getInputStream(entry)) {
+                        parts.put(name, readAll(in));
+                    }
+                }
+            }
+        }
+        assertTrue("word/document.xml bulunamadı", parts.containsKey("word/document.xml"));
+        assertEquals(IMAGES + (IMAGES + 4) / 5, parts.size() - 1);
+        return parts;
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+}
@@ -5,11 +5,14 @@ import android.os.Bundle;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.app.AppCompatDelegate;
 
+import com.documentmaster.app.utils.word.WordDocumentWriter;
+
 public abstract class BaseActivity extends AppCompatActivity {
 
     protected SharedPreferences preferences;
     public static final String PREFS_NAME = "DocumentMasterPrefs";
     public static final String PREF_DARK_MODE = "dark_mode";
+    public static final String PREF_KEEP_BACKUP = "keep_backup";
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -44,4 +47,15 @@ public abstract class BaseActivity extends AppCompatActivity {
     protected boolean isDarkModeEnabled() {
         return preferences.getBoolean(PREF_DARK_MODE, false);
     }
+
+    // Açıksa her kaydetmede önceki sürüm "belge.docx.bak" olarak saklanır
+    protected void toggleKeepBackup() {
+        boolean enabled = !preferences.getBoolean(PREF_KEEP_BACKUP, false);
+        preferences.edit().putBoolean(PREF_KEEP_BACKUP, enabled).apply();
+        WordDocumentWriter.setKeepBackup(enabled);
+    }
+
+    protected boolean isKeepBackupEnabled() {
+        return preferences.getBoolean(PREF_KEEP_BACKUP, false);
+    }
 }
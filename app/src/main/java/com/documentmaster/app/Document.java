@@ -25,6 +25,17 @@ public class Document {
         this.isFavorite = false;
     }
 
+    // Dizinden gelen belgeler için: dosya sistemine tekrar sorulmaz
+    public Document(String path, long size, long lastModified, String type) {
+        this.path = path;
+        this.name = new File(path).getName();
+        this.size = size;
+        this.lastModified = new Date(lastModified);
+        this.type = type;
+        this.isEncrypted = false;
+        this.isFavorite = false;
+    }
+
     // Constructor for new documents
     public Document(String name, String type) {
         this.name = name;
@@ -35,7 +46,7 @@ public class Document {
         this.isFavorite = false;
     }
 
-    private String getFileType(String fileName) {
+    public static String getFileType(String fileName) {
         if (fileName.contains(".")) {
             String extension = fileName.substring(fileName.lastIndexOf(".") + 1).toLowerCase();
             switch (extension) {
@@ -7,22 +7,37 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.util.List;
+public class DocumentAdapter extends ListAdapter<Document, DocumentAdapter.DocumentViewHolder> {
 
-public class DocumentAdapter extends RecyclerView.Adapter<DocumentAdapter.DocumentViewHolder> {
-
-    private List<Document> documentList;
     private OnDocumentClickListener listener;
 
+    // Satırlar yola göre eşlenir; yalnızca adı, boyutu veya tarihi değişen satırlar yeniden bağlanır
+    private static final DiffUtil.ItemCallback<Document> DIFF_CALLBACK = new DiffUtil.ItemCallback<Document>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Document oldItem, @NonNull Document newItem) {
+            return oldItem.getPath() != null && oldItem.getPath().equals(newItem.getPath());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Document oldItem, @NonNull Document newItem) {
+            return oldItem.getName().equals(newItem.getName())
+                    && oldItem.getSize() == newItem.getSize()
+                    && oldItem.getLastModified().equals(newItem.getLastModified())
+                    && oldItem.getType().equals(newItem.getType());
+        }
+    };
+
     public interface OnDocumentClickListener {
         void onDocumentClick(Document document);
         void onDocumentLongClick(Document document);
     }
 
-    public DocumentAdapter(List<Document> documentList, OnDocumentClickListener listener) {
-        this.documentList = documentList;
+    public DocumentAdapter(OnDocumentClickListener listener) {
+        super(DIFF_CALLBACK);
         this.listener = listener;
     }
 
@@ -36,15 +51,10 @@ public class DocumentAdapter extends RecyclerView.Adapter<DocumentAdapter.Docume
 
     @Override
     public void onBindViewHolder(@NonNull DocumentViewHolder holder, int position) {
-        Document document = documentList.get(position);
+        Document document = getItem(position);
         holder.bind(document);
     }
 
-    @Override
-    public int getItemCount() {
-        return documentList.size();
-    }
-
     class DocumentViewHolder extends RecyclerView.ViewHolder {
         private ImageView imageIcon;
         private TextView textName, textSize, textDate, textType;
@@ -58,14 +68,16 @@ public class DocumentAdapter extends RecyclerView.Adapter<DocumentAdapter.Docume
             textType = itemView.findViewById(R.id.textType);
 
             itemView.setOnClickListener(v -> {
-                if (listener != null) {
-                    listener.onDocumentClick(documentList.get(getAdapterPosition()));
+                int position = getBindingAdapterPosition();
+                if (listener != null && position != RecyclerView.NO_POSITION) {
+                    listener.onDocumentClick(getItem(position));
                 }
             });
 
             itemView.setOnLongClickListener(v -> {
-                if (listener != null) {
-                    listener.onDocumentLongClick(documentList.get(getAdapterPosition()));
+                int position = getBindingAdapterPosition();
+                if (listener != null && position != RecyclerView.NO_POSITION) {
+                    listener.onDocumentLongClick(getItem(position));
                 }
                 return true;
             });
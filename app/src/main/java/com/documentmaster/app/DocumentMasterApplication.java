@@ -2,11 +2,26 @@ package com.documentmaster.app;
 
 import androidx.multidex.MultiDexApplication;
 
+import com.documentmaster.app.image.ImageStore;
+import com.documentmaster.app.utils.word.ConversionCache;
+import com.documentmaster.app.utils.word.HtmlDiskCache;
+import com.documentmaster.app.utils.word.WordDocumentWriter;
+
 public class DocumentMasterApplication extends MultiDexApplication {
 
     @Override
     public void onCreate() {
         super.onCreate();
         // Apache POI kütüphanesi için gerekli initialization
+        ImageStore.init(this);
+        HtmlDiskCache.init(this);
+        WordDocumentWriter.setKeepBackup(getSharedPreferences(BaseActivity.PREFS_NAME, MODE_PRIVATE)
+                .getBoolean(BaseActivity.PREF_KEEP_BACKUP, false));
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        ConversionCache.onTrimMemory(level);
     }
 }
\ No newline at end of file
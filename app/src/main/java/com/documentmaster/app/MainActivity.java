@@ -16,20 +16,30 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.documentmaster.app.document.CreateDocument;
+import com.documentmaster.app.document.DocumentIndex;
 import com.documentmaster.app.document.DocumentMenuOperations;
 import com.documentmaster.app.document.LoadDocument;
 import com.documentmaster.app.document.OpenDocument;
 
 import com.documentmaster.app.permission.PermissionManager;
+import com.documentmaster.app.search.SearchDialog;
 import com.documentmaster.app.utils.ActionDialog;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class MainActivity extends BaseActivity implements DocumentMenuOperations.DocumentOperationCallback, CreateDocument.CreateDocumentCallback, LoadDocument.LoadDocumentCallback,
         OpenDocument.OpenDocumentCallback, PermissionManager.PermissionCallback{
+    private static final Comparator<Document> NEWEST_FIRST =
+            (a, b) -> b.getLastModified().compareTo(a.getLastModified());
+
     private Toolbar toolbar;
     private MaterialButton btnCreate, btnOpenFile, btnViewAll;
     private FloatingActionButton fab;
@@ -42,7 +52,9 @@ public class MainActivity extends BaseActivity implements DocumentMenuOperations
     private OpenDocument openDocument;
     private PermissionManager permissionManager;
     private ActionDialog actionDialog;
+    private SearchDialog searchDialog;
     private List<Document> documentList;
+    private ExecutorService executorService;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -54,20 +66,29 @@ public class MainActivity extends BaseActivity implements DocumentMenuOperations
         setupListeners();
         documentOperations = new DocumentMenuOperations(this, this);
         createDocument = new CreateDocument(this, this);
-        loadDocument = new LoadDocument(this, this);
+        executorService = Executors.newSingleThreadExecutor();
+        loadDocument = new LoadDocument(this, this, executorService);
         openDocument = new OpenDocument(this, this);
         permissionManager = new PermissionManager(this, this);
         permissionManager.checkPermissions();
         actionDialog = new ActionDialog(this, createDocument, openDocument, loadDocument);
+        searchDialog = new SearchDialog(this, openDocument);
     }
     @Override
     protected void onDestroy() {
         super.onDestroy();
         documentOperations = null;
         createDocument = null;
+        if (loadDocument != null) {
+            // Süren tarama iptal edilir ve klasör izleme bırakılır
+            loadDocument.stopWatching();
+        }
         loadDocument = null;
         openDocument = null;
         permissionManager = null;
+        if (executorService != null) {
+            executorService.shutdownNow();
+        }
         if (documentList != null) {
             documentList.clear();
         }
@@ -98,7 +119,7 @@ public class MainActivity extends BaseActivity implements DocumentMenuOperations
     }
 
     private void setupRecyclerView() {
-        documentAdapter = new DocumentAdapter(documentList, new DocumentAdapter.OnDocumentClickListener() {
+        documentAdapter = new DocumentAdapter(new DocumentAdapter.OnDocumentClickListener() {
             @Override
             public void onDocumentClick(Document document) {
                 documentOperations.openDocument(document);
@@ -138,9 +159,9 @@ public class MainActivity extends BaseActivity implements DocumentMenuOperations
     }
 
     //-----------create---------------//
+    // Yeni dosya izlenen Documents klasörüne yazılır; liste klasör izleyicisinden güncellenir
     @Override
     public void onDocumentCreated() {
-        loadDocument.loadDocuments();
     }
 
     //-------menuOperation-------//
@@ -148,13 +169,16 @@ public class MainActivity extends BaseActivity implements DocumentMenuOperations
     @Override
     public void onDocumentDeleted(Document document) {
         documentList.remove(document);
-        documentAdapter.notifyDataSetChanged();
         updateUI();
     }
 
     @Override
-    public void onDocumentRenamed(Document document) {
-        documentAdapter.notifyDataSetChanged();
+    public void onDocumentRenamed(Document oldDocument, Document renamedDocument) {
+        int position = documentList.indexOf(oldDocument);
+        if (position >= 0) {
+            documentList.set(position, renamedDocument);
+        }
+        updateUI();
     }
 
     @Override
@@ -168,7 +192,7 @@ public class MainActivity extends BaseActivity implements DocumentMenuOperations
         int id = item.getItemId();
 
         if (id == R.id.action_search) {
-            Toast.makeText(this, "Arama özelliği yakında!", Toast.LENGTH_SHORT).show();
+            searchDialog.show();
             return true;
         } else if (id == R.id.action_dark_mode) {
             toggleDarkMode();
@@ -195,15 +219,12 @@ public class MainActivity extends BaseActivity implements DocumentMenuOperations
         }
     }
 
+    // ListAdapter listeyi değiştirilemez kabul eder; her seferinde kopyası verilir
     private void updateUI() {
-        if (documentList.isEmpty()) {
-            emptyState.setVisibility(View.VISIBLE);
-            recyclerViewDocuments.setVisibility(View.GONE);
-        } else {
-            emptyState.setVisibility(View.GONE);
-            recyclerViewDocuments.setVisibility(View.VISIBLE);
-            documentAdapter.notifyDataSetChanged();
-        }
+        boolean isEmpty = documentList.isEmpty();
+        emptyState.setVisibility(isEmpty ? View.VISIBLE : View.GONE);
+        recyclerViewDocuments.setVisibility(isEmpty ? View.GONE : View.VISIBLE);
+        documentAdapter.submitList(new ArrayList<>(documentList));
     }
 
     @Override
@@ -213,6 +234,47 @@ public class MainActivity extends BaseActivity implements DocumentMenuOperations
         updateUI();
     }
 
+    @Override
+    public void onDocumentsPageLoaded(List<Document> documents) {
+        documentList.addAll(documents);
+        updateUI();
+    }
+
+    // Tarama ve klasör izleyicisinden gelen farklar; DiffUtil yalnızca etkilenen satırları yeniden bağlar.
+    // Liste en yeni belge başta olacak şekilde sıralı tutulur: etkilenen yollar tek geçişte çıkarılır,
+    // gelen belgeler tarihe göre sıralanıp mevcut listeyle birleştirilir. Maliyet belge başına değil,
+    // fark başına bir liste geçişidir.
+    @Override
+    public void onDocumentsChanged(DocumentIndex.Diff diff) {
+        Set<String> changedPaths = new HashSet<>(diff.removedPaths);
+        List<Document> incoming = new ArrayList<>(diff.updated.size() + diff.added.size());
+        incoming.addAll(diff.updated);
+        incoming.addAll(diff.added);
+        for (Document document : incoming) {
+            changedPaths.add(document.getPath());
+        }
+        incoming.sort(NEWEST_FIRST);
+
+        List<Document> merged = new ArrayList<>(documentList.size() + incoming.size());
+        int next = 0;
+        for (Document document : documentList) {
+            if (changedPaths.contains(document.getPath())) {
+                continue;
+            }
+            // Aynı tarihte mevcut belge önde kalır
+            while (next < incoming.size() && NEWEST_FIRST.compare(incoming.get(next), document) < 0) {
+                merged.add(incoming.get(next++));
+            }
+            merged.add(document);
+        }
+        while (next < incoming.size()) {
+            merged.add(incoming.get(next++));
+        }
+        documentList.clear();
+        documentList.addAll(merged);
+        updateUI();
+    }
+
     @Override
     public void onDocumentLoadFailed(String error) {
         Toast.makeText(this, "Belgeler yüklenemedi: " + error, Toast.LENGTH_SHORT).show();
@@ -220,7 +282,7 @@ public class MainActivity extends BaseActivity implements DocumentMenuOperations
 
     @Override
     public void onDocumentOpened(String filePath) {
-        loadDocument.loadDocuments();
+        loadDocument.notifyDocumentChanged(filePath);
     }
 
 }
\ No newline at end of file
@@ -17,11 +17,14 @@ import androidx.appcompat.widget.Toolbar;
 import com.documentmaster.app.BaseActivity;
 import com.documentmaster.app.R;
 import com.documentmaster.app.image.ImageManager;
+import com.documentmaster.app.utils.AutosaveManager;
 import com.documentmaster.app.utils.DocumentLoadManager;
 import com.documentmaster.app.utils.DocumentSaveManager;
 import com.documentmaster.app.utils.EditorDialogs;
 import com.documentmaster.app.utils.HtmlUtils;
+import com.documentmaster.app.utils.word.SaveProgress;
 import com.documentmaster.app.utils.word.WordDocumentHelper;
+import com.documentmaster.app.web.EditorChangeTracker;
 import com.documentmaster.app.web.WebAppCallback;
 import com.documentmaster.app.web.WebViewBridge;
 import com.documentmaster.app.web.WebViewManager;
@@ -33,7 +36,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 public class WordEditorActivity extends BaseActivity implements WebAppCallback, ImageManager.ImageOperationCallback , DocumentSaveManager.SaveCallback
-, DocumentLoadManager.LoadCallback{
+, DocumentLoadManager.LoadCallback, EditorChangeTracker.ChangeCallback {
 
     // UI Components
     private Toolbar toolbar;
@@ -67,6 +70,8 @@ public class WordEditorActivity extends BaseActivity implements WebAppCallback,
     private EditorDialogs editorDialogs;
     private DocumentSaveManager saveManager;
     private DocumentLoadManager loadManager;
+    private AutosaveManager autosaveManager;
+    private EditorChangeTracker changeTracker;
 
 
     @Override
@@ -85,14 +90,22 @@ public class WordEditorActivity extends BaseActivity implements WebAppCallback,
         editorDialogs = new EditorDialogs(this, webViewBridge);
         webViewManager.setup(() -> {
             webViewBridge.setEditorLoaded(true);
+            webViewBridge.openMessageChannel();
             isWebViewLoaded = true;
+            loadManager.onEditorReady();
             if (!TextUtils.isEmpty(originalContent)) {
-                loadManager.setEditorContent(originalContent, isWebViewLoaded);
+                loadManager.setEditorContent(originalContent, isWebViewLoaded, webViewBridge::resetChangeBaseline);
+            }
+            if (isNewDocument) {
+                webViewBridge.resetChangeBaseline();
+                autosaveManager.checkForRecovery(null, this::onAutosaveRecovered);
             }
         });
         executorService = Executors.newFixedThreadPool(2);
         saveManager = new DocumentSaveManager(this, webViewBridge, executorService, this);
         loadManager = new DocumentLoadManager(this, webViewBridge, executorService, this);
+        autosaveManager = new AutosaveManager(this);
+        changeTracker = new EditorChangeTracker(this, this);
         handleIntent();
 
     }
@@ -135,22 +148,47 @@ public class WordEditorActivity extends BaseActivity implements WebAppCallback,
     }
 
     @Override
-    public void onHtmlChanged(String newHtml) {
-        if (!isContentChanged && !newHtml.equals(originalContent)) {
-            isContentChanged = true;
+    public void onContentDelta(String deltaJson) {
+        changeTracker.applyDelta(deltaJson);
+    }
+
+    @Override
+    public void onDirtyStateChanged(boolean isDirty) {
+        if (isContentChanged != isDirty) {
+            isContentChanged = isDirty;
             updateTitle();
         }
     }
 
+    @Override
+    public void onDirtyContent(String html) {
+        autosaveManager.onContentChanged(html);
+    }
+
+    private void onAutosaveRecovered(String html) {
+        loadManager.setRecoveredContent(html);
+        isContentChanged = true;
+        updateTitle();
+        Toast.makeText(this, "Otomatik kaydedilen değişiklikler geri yüklendi", Toast.LENGTH_SHORT).show();
+    }
+
     @Override
     public void onLoadCompleted(boolean success, String content, String fileName, String errorMessage) {
         showProgress(false);
         if (success) {
-            originalContent = content;
-            if (isWebViewLoaded) {
-                loadManager.setEditorContent(originalContent, isWebViewLoaded);
+            // Parçalı yüklemede içerik editöre zaten aktarılmıştır
+            if (content != null) {
+                originalContent = content;
+            }
+            if (isWebViewLoaded && content != null) {
+                loadManager.setEditorContent(originalContent, isWebViewLoaded, webViewBridge::resetChangeBaseline);
+            } else {
+                webViewBridge.resetChangeBaseline();
             }
             getSupportActionBar().setTitle(fileName);
+            saveManager.setBlockIdsSource(currentFilePath, loadManager.getLoadedSourceKey());
+            autosaveManager.checkForRecovery(currentFilePath, this::onAutosaveRecovered);
+            autosaveManager.start(currentFilePath);
         } else {
             finish();
         }
@@ -227,8 +265,9 @@ public class WordEditorActivity extends BaseActivity implements WebAppCallback,
         if (isNewDocument) {
             getSupportActionBar().setTitle("Yeni Word Belgesi");
             originalContent = "";
+            autosaveManager.start(null);
         } else if (!TextUtils.isEmpty(currentFilePath)) {
-            loadManager.loadDocument(currentFilePath);
+            loadManager.loadDocumentIncrementally(currentFilePath);
         } else {
             Toast.makeText(this, "Dosya yolu bulunamadı", Toast.LENGTH_SHORT).show();
             finish();
@@ -267,6 +306,7 @@ public class WordEditorActivity extends BaseActivity implements WebAppCallback,
     @Override
     public boolean onCreateOptionsMenu(Menu menu) {
         getMenuInflater().inflate(R.menu.word_editor_menu, menu);
+        menu.findItem(R.id.action_keep_backup).setChecked(isKeepBackupEnabled());
         return true;
     }
 
@@ -283,6 +323,13 @@ public class WordEditorActivity extends BaseActivity implements WebAppCallback,
         } else if (id == R.id.action_word_count) {
             showWordCount();
             return true;
+        } else if (id == R.id.action_keep_backup) {
+            toggleKeepBackup();
+            item.setChecked(isKeepBackupEnabled());
+            Toast.makeText(this, item.isChecked()
+                    ? "Kaydederken önceki sürüm .bak olarak saklanacak"
+                    : "Önceki sürüm yedeği kapatıldı", Toast.LENGTH_SHORT).show();
+            return true;
         }
         return super.onOptionsItemSelected(item);
     }
@@ -330,7 +377,10 @@ public class WordEditorActivity extends BaseActivity implements WebAppCallback,
                         saveManager.saveDocument(currentFilePath, isNewDocument);
                         finish();
                     })
-                    .setNegativeButton("Kaydetme", (dialog, which) -> super.onBackPressed())
+                    .setNegativeButton("Kaydetme", (dialog, which) -> {
+                        autosaveManager.clear();
+                        super.onBackPressed();
+                    })
                     .setNeutralButton("İptal", null)
                     .show();
         } else {
@@ -341,6 +391,7 @@ public class WordEditorActivity extends BaseActivity implements WebAppCallback,
     @Override
     protected void onPause() {
         super.onPause();
+        autosaveManager.flush();
         if (isContentChanged && !isNewDocument && currentFilePath != null) {
             saveManager.saveDocument(currentFilePath, false);
         }
@@ -348,6 +399,10 @@ public class WordEditorActivity extends BaseActivity implements WebAppCallback,
 
     @Override
     protected void onDestroy() {
+        // Yükleyici UI thread'inin bırakacağı izinleri bekliyor olabilir; aşağıdaki beklemeden önce durdurulur
+        if (loadManager != null) {
+            loadManager.cancel();
+        }
         if (executorService != null && !executorService.isShutdown()) {
             try {
                 executorService.shutdown();
@@ -359,6 +414,8 @@ public class WordEditorActivity extends BaseActivity implements WebAppCallback,
                 Thread.currentThread().interrupt();
             }
         }
+        autosaveManager.shutdown();
+        changeTracker.shutdown();
         webViewBridge.destroyWebView();
         saveManager = null;
         loadManager = null;
@@ -368,10 +425,38 @@ public class WordEditorActivity extends BaseActivity implements WebAppCallback,
     @Override
     public void onSaveStarted() {
         showProgress(true);
+        // Kaydetme sürerken araç çubuğuna (ilerleme alt başlığına) dokunmak kaydetmeyi iptal eder
+        toolbar.setOnClickListener(v -> {
+            if (saveManager != null) {
+                saveManager.cancelSave();
+            }
+        });
+    }
+    @Override
+    public void onSaveProgress(SaveProgress.Stage stage) {
+        switch (stage) {
+            case PARSE:
+                getSupportActionBar().setSubtitle("Kaydediliyor: içerik hazırlanıyor… (iptal için dokunun)");
+                break;
+            case BUILD:
+                getSupportActionBar().setSubtitle("Kaydediliyor: belge oluşturuluyor… (iptal için dokunun)");
+                break;
+            case ZIP:
+                getSupportActionBar().setSubtitle("Kaydediliyor: dosya yazılıyor… (iptal için dokunun)");
+                break;
+            case FLUSH:
+                getSupportActionBar().setSubtitle("Kaydediliyor: diske aktarılıyor…");
+                break;
+        }
     }
     @Override
     public void onSaveCompleted(boolean success, String message) {
         showProgress(false);
+        getSupportActionBar().setSubtitle(null);
+        toolbar.setOnClickListener(null);
+        if (success) {
+            autosaveManager.clear();
+        }
         Toast.makeText(this, message, success ? Toast.LENGTH_SHORT : Toast.LENGTH_LONG).show();
     }
 
@@ -379,11 +464,15 @@ public class WordEditorActivity extends BaseActivity implements WebAppCallback,
     public void onContentChanged(boolean isChanged) {
         this.isContentChanged = isChanged;
         updateTitle();
+        if (!isChanged) {
+            webViewBridge.resetChangeBaseline();
+        }
     }
     @Override
     public void onFilePathChanged(String newFilePath, String fileName) {
         this.currentFilePath = newFilePath;
         this.isNewDocument = false;
         getSupportActionBar().setTitle(fileName);
+        autosaveManager.start(newFilePath);
     }
 }
\ No newline at end of file
@@ -0,0 +1,363 @@
+package com.documentmaster.app.document;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.documentmaster.app.Document;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Taranan klasörlerdeki belgelerin kalıcı dizini (yol -> boyut, tarih, tür, son açılma). Açılışta
+// diskten okunur; tarama yalnızca son taramadan beri değişiklik zamanı (mtime) değişen klasörleri listeler.
+public class DocumentIndex {
+
+    private static final String TAG = "DocumentIndex";
+    private static final String FILE_NAME = "document_index.bin";
+    private static final int VERSION = 2;
+
+    private static DocumentIndex instance;
+
+    static final class Entry {
+        final String path;
+        final String directory;
+        final long size;
+        final long lastModified;
+        final String type;
+
+        Entry(String path, String directory, long size, long lastModified, String type) {
+            this.path = path;
+            this.directory = directory;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.type = type;
+        }
+
+        Document toDocument() {
+            return new Document(path, size, lastModified, type);
+        }
+    }
+
+    // Bir taramanın liste üzerindeki etkisi
+    public static final class Diff {
+        public final List<Document> added = new ArrayList<>();
+        public final List<Document> updated = new ArrayList<>();
+        public final List<String> removedPaths = new ArrayList<>();
+
+        public boolean isEmpty() {
+            return added.isEmpty() && updated.isEmpty() && removedPaths.isEmpty();
+        }
+    }
+
+    public interface FileFilter {
+        boolean accept(String fileName);
+    }
+
+    private final File indexFile;
+    private final Map<String, Long> directoryMtimes = new HashMap<>();
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+    // Uygulamada açılan belgelerin son açılma zamanı
+    private final Map<String, Long> lastOpened = new HashMap<>();
+    private final ExecutorService saveExecutor = Executors.newSingleThreadExecutor();
+    private boolean loaded;
+    private boolean dirty;
+
+    private DocumentIndex(File indexFile) {
+        this.indexFile = indexFile;
+    }
+
+    public static synchronized DocumentIndex getInstance(Context context) {
+        if (instance == null) {
+            instance = new DocumentIndex(new File(context.getApplicationContext().getFilesDir(), FILE_NAME));
+        }
+        return instance;
+    }
+
+    // Verilen klasörlerdeki dizinlenmiş belgeler; dosya sistemine dokunmaz
+    public synchronized List<Document> getDocuments(Collection<File> directories) {
+        ensureLoaded();
+        Set<String> directoryPaths = new HashSet<>();
+        for (File directory : directories) {
+            directoryPaths.add(directory.getAbsolutePath());
+        }
+        List<Document> documents = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (directoryPaths.contains(entry.directory)) {
+                documents.add(entry.toDocument());
+            }
+        }
+        return documents;
+    }
+
+    // Belgenin yakınlığı: son değişiklik ile son açılmadan hangisi daha yeniyse
+    private long recency(Entry entry) {
+        Long opened = lastOpened.get(entry.path);
+        return opened != null ? Math.max(opened, entry.lastModified) : entry.lastModified;
+    }
+
+    // En yakın tarihli count belge, en yenisi başta. count boyutlu min-yığın ile O(n log k);
+    // yalnızca sonuca giren kayıtlar için Document oluşturulur.
+    public synchronized List<Document> getRecentDocuments(Collection<File> directories, int count) {
+        ensureLoaded();
+        List<Document> documents = new ArrayList<>();
+        if (count <= 0) {
+            return documents;
+        }
+        Set<String> directoryPaths = new HashSet<>();
+        for (File directory : directories) {
+            directoryPaths.add(directory.getAbsolutePath());
+        }
+        PriorityQueue<Entry> heap = new PriorityQueue<>(count + 1,
+                (first, second) -> Long.compare(recency(first), recency(second)));
+        for (Entry entry : entries.values()) {
+            if (!directoryPaths.contains(entry.directory)) {
+                continue;
+            }
+            if (heap.size() < count) {
+                heap.add(entry);
+            } else if (recency(entry) > recency(heap.peek())) {
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+        while (!heap.isEmpty()) {
+            documents.add(heap.poll().toDocument());
+        }
+        Collections.reverse(documents);
+        return documents;
+    }
+
+    // Belge açıldığında UI thread'den çağrılır. Kilit, dizin okunurken ya da bir tarama klasör
+    // listelerken uzun süre tutulabildiği için güncelleme ve kayıt arka planda yapılır.
+    public void recordOpened(String path) {
+        if (path == null) {
+            return;
+        }
+        String absolutePath = new File(path).getAbsolutePath();
+        long openedAt = System.currentTimeMillis();
+        saveExecutor.execute(() -> {
+            synchronized (this) {
+                ensureLoaded();
+                lastOpened.put(absolutePath, openedAt);
+                dirty = true;
+            }
+            save();
+        });
+    }
+
+    // Klasörleri dizinle karşılaştırır. mtime'ı değişmeyen klasörler listelenmez; alwaysRescan
+    // klasörlerinde ise dosyalar yerinde de güncellenebildiği için her seferinde tarama yapılır.
+    public synchronized Diff reconcile(Collection<File> directories, Collection<File> alwaysRescan, FileFilter filter) {
+        ensureLoaded();
+        Diff diff = new Diff();
+        Set<String> rescanPaths = new HashSet<>();
+        for (File directory : alwaysRescan) {
+            rescanPaths.add(directory.getAbsolutePath());
+        }
+
+        int scanned = 0;
+        for (File directory : directories) {
+            String directoryPath = directory.getAbsolutePath();
+            long mtime = directory.lastModified();
+            if (mtime == 0) {
+                // Klasör artık yok ya da erişilemiyor
+                if (directoryMtimes.remove(directoryPath) != null) {
+                    removeEntriesOutside(directoryPath, null, diff);
+                }
+                continue;
+            }
+            Long indexedMtime = directoryMtimes.get(directoryPath);
+            if (indexedMtime != null && indexedMtime == mtime && !rescanPaths.contains(directoryPath)) {
+                continue;
+            }
+            scanDirectory(directory, directoryPath, filter, diff);
+            directoryMtimes.put(directoryPath, mtime);
+            scanned++;
+        }
+
+        if (!diff.isEmpty() || scanned > 0) {
+            dirty = true;
+        }
+        Log.d(TAG, "Dizin güncellendi: " + scanned + " klasör tarandı, " + diff.added.size() + " eklendi, "
+                + diff.updated.size() + " değişti, " + diff.removedPaths.size() + " silindi");
+        return diff;
+    }
+
+    // İzleyicinin bildirdiği tek tek yollar için: yalnızca bu dosyalar yeniden okunur
+    public synchronized Diff refresh(Collection<String> paths, FileFilter filter) {
+        ensureLoaded();
+        Diff diff = new Diff();
+        for (String path : paths) {
+            File file = new File(path);
+            Entry existing = entries.get(path);
+            String directoryPath = file.getParentFile() != null ? file.getParentFile().getAbsolutePath() : null;
+            if (existing == null && !directoryMtimes.containsKey(directoryPath)) {
+                // Taranan klasörlerin dışındaki dosyalar dizine alınmaz
+                continue;
+            }
+            if (file.isFile() && filter.accept(file.getName())) {
+                long size = file.length();
+                long lastModified = file.lastModified();
+                if (existing != null && existing.size == size && existing.lastModified == lastModified) {
+                    continue;
+                }
+                Entry entry = new Entry(path, directoryPath, size, lastModified,
+                        Document.getFileType(file.getName()));
+                entries.put(path, entry);
+                if (existing == null) {
+                    diff.added.add(entry.toDocument());
+                } else {
+                    diff.updated.add(entry.toDocument());
+                }
+            } else if (existing != null) {
+                entries.remove(path);
+                lastOpened.remove(path);
+                diff.removedPaths.add(path);
+            }
+        }
+        if (!diff.isEmpty()) {
+            dirty = true;
+        }
+        return diff;
+    }
+
+    private void scanDirectory(File directory, String directoryPath, FileFilter filter, Diff diff) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        Set<String> present = new HashSet<>();
+        for (File file : files) {
+            String name = file.getName();
+            if (!filter.accept(name) || !file.isFile()) {
+                continue;
+            }
+            String path = file.getAbsolutePath();
+            present.add(path);
+            long size = file.length();
+            long lastModified = file.lastModified();
+            Entry existing = entries.get(path);
+            if (existing != null && existing.size == size && existing.lastModified == lastModified) {
+                continue;
+            }
+            Entry entry = new Entry(path, directoryPath, size, lastModified, Document.getFileType(name));
+            entries.put(path, entry);
+            if (existing == null) {
+                diff.added.add(entry.toDocument());
+            } else {
+                diff.updated.add(entry.toDocument());
+            }
+        }
+        removeEntriesOutside(directoryPath, present, diff);
+    }
+
+    // Klasöre ait olup present içinde olmayan kayıtları siler (present null ise hepsini)
+    private void removeEntriesOutside(String directoryPath, Set<String> present, Diff diff) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.directory.equals(directoryPath) && (present == null || !present.contains(entry.path))) {
+                iterator.remove();
+                lastOpened.remove(entry.path);
+                diff.removedPaths.add(entry.path);
+            }
+        }
+    }
+
+    public synchronized void save() {
+        if (!dirty) {
+            return;
+        }
+        File temp = new File(indexFile.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(VERSION);
+            out.writeInt(directoryMtimes.size());
+            for (Map.Entry<String, Long> directory : directoryMtimes.entrySet()) {
+                out.writeUTF(directory.getKey());
+                out.writeLong(directory.getValue());
+            }
+            out.writeInt(entries.size());
+            for (Entry entry : entries.values()) {
+                out.writeUTF(entry.path);
+                out.writeUTF(entry.directory);
+                out.writeLong(entry.size);
+                out.writeLong(entry.lastModified);
+                out.writeUTF(entry.type);
+            }
+            out.writeInt(lastOpened.size());
+            for (Map.Entry<String, Long> opened : lastOpened.entrySet()) {
+                out.writeUTF(opened.getKey());
+                out.writeLong(opened.getValue());
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Dizin kaydedilemedi: " + e.getMessage());
+            temp.delete();
+            return;
+        }
+        if (temp.renameTo(indexFile)) {
+            dirty = false;
+        } else {
+            temp.delete();
+            Log.e(TAG, "Dizin dosyası değiştirilemedi: " + indexFile.getAbsolutePath());
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!indexFile.exists()) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            // Sürüm 1 dosyalarında son açılma bilgisi yoktur
+            int version = in.readInt();
+            if (version != 1 && version != VERSION) {
+                return;
+            }
+            int directoryCount = in.readInt();
+            for (int i = 0; i < directoryCount; i++) {
+                directoryMtimes.put(in.readUTF(), in.readLong());
+            }
+            int entryCount = in.readInt();
+            for (int i = 0; i < entryCount; i++) {
+                Entry entry = new Entry(in.readUTF(), in.readUTF(), in.readLong(), in.readLong(), in.readUTF());
+                entries.put(entry.path, entry);
+            }
+            if (version >= 2) {
+                int openedCount = in.readInt();
+                for (int i = 0; i < openedCount; i++) {
+                    lastOpened.put(in.readUTF(), in.readLong());
+                }
+            }
+            Log.d(TAG, "Dizin okundu: " + entries.size() + " belge, " + (System.currentTimeMillis() - startTime) + " ms");
+        } catch (IOException e) {
+            // Bozuk dizin: baştan taranır
+            Log.e(TAG, "Dizin okunamadı: " + e.getMessage());
+            directoryMtimes.clear();
+            entries.clear();
+            lastOpened.clear();
+        }
+    }
+}
@@ -27,7 +27,7 @@ public class DocumentMenuOperations {
     public interface DocumentOperationCallback {
 
         void onDocumentDeleted(Document document);
-        void onDocumentRenamed(Document document);
+        void onDocumentRenamed(Document oldDocument, Document renamedDocument);
 
     }
 
@@ -50,10 +50,12 @@ public class DocumentMenuOperations {
                     fileName.endsWith(".html") || fileName.endsWith(".htm") || fileName.endsWith(".txt")) {
 
                 if (WordDocumentHelper.isValidWordDocument(filePath)) {
+                    WordDocumentHelper.prefetchForEditor(filePath);
                     Intent intent = new Intent(context, WordEditorActivity.class);
                     intent.putExtra(WordEditorActivity.EXTRA_FILE_PATH, filePath);
                     intent.putExtra(WordEditorActivity.EXTRA_IS_NEW_DOCUMENT, false);
                     context.startActivity(intent);
+                    DocumentIndex.getInstance(context).recordOpened(filePath);
                 } else {
                     showToast("Belge açılamadı - dosya bozulmuş olabilir");
                 }
@@ -276,12 +278,12 @@ public class DocumentMenuOperations {
             }
 
             if (oldFile.renameTo(newFile)) {
-                document.setName(newName + extension);
-                document.setPath(newFile.getAbsolutePath());
+                // Listedeki nesne değiştirilmez; DiffUtil eski ve yeni satırı karşılaştırabilsin
+                Document renamedDocument = new Document(newFile.getAbsolutePath());
                 showToast("✅ Dosya adı değiştirildi: " + newName + extension);
 
                 if (callback != null) {
-                    callback.onDocumentRenamed(document);
+                    callback.onDocumentRenamed(document, renamedDocument);
                 }
             } else {
                 showToast("❌ Dosya adı değiştirilemedi");
@@ -298,6 +300,7 @@ public class DocumentMenuOperations {
             intent.setDataAndType(Uri.fromFile(new File(document.getPath())), "*/*");
             intent.addFlags(Intent.FLAG_GRANT_READ_URI_PERMISSION);
             context.startActivity(intent);
+            DocumentIndex.getInstance(context).recordOpened(document.getPath());
         } catch (Exception e) {
             Log.e(TAG, "Sistem editörü açma hatası: " + e.getMessage());
             showToast("Dosya açılamadı");
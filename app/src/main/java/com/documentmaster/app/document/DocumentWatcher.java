@@ -0,0 +1,157 @@
+package com.documentmaster.app.document;
+
+import android.os.FileObserver;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+// Taranan klasörleri FileObserver ile izler. Gelen olaylar kısa bir süre biriktirilir, ardından
+// yalnızca etkilenen dosyalar dizinde güncellenip fark olarak bildirilir.
+public class DocumentWatcher {
+
+    private static final String TAG = "DocumentWatcher";
+    // Son olaydan sonra bu kadar sessizlik olunca birikmiş değişiklikler işlenir
+    private static final long DEBOUNCE_MS = 500;
+    private static final int EVENT_MASK = FileObserver.CREATE | FileObserver.CLOSE_WRITE
+            | FileObserver.MOVED_FROM | FileObserver.MOVED_TO | FileObserver.DELETE
+            | FileObserver.DELETE_SELF | FileObserver.MOVE_SELF;
+
+    private final DocumentIndex documentIndex;
+    private final ExecutorService executorService;
+    private final DocumentIndex.FileFilter fileFilter;
+    private final WatcherCallback callback;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final List<FileObserver> observers = new ArrayList<>();
+    private final Runnable flushRunnable = this::flush;
+
+    // FileObserver thread'inden doldurulur, flush ile boşaltılır
+    private final Set<String> pendingPaths = new HashSet<>();
+    private final Set<File> pendingDirectories = new HashSet<>();
+
+    public interface WatcherCallback {
+        // UI thread'de, yalnızca fark boş değilse çağrılır
+        void onDocumentsChanged(DocumentIndex.Diff diff);
+    }
+
+    public DocumentWatcher(DocumentIndex documentIndex, ExecutorService executorService,
+                           DocumentIndex.FileFilter fileFilter, WatcherCallback callback) {
+        this.documentIndex = documentIndex;
+        this.executorService = executorService;
+        this.fileFilter = fileFilter;
+        this.callback = callback;
+    }
+
+    // UI thread'den çağrılır; önceki izlemeler bırakılır
+    public void watch(List<File> directories) {
+        stopObservers();
+        for (File directory : directories) {
+            if (!directory.isDirectory()) {
+                continue;
+            }
+            FileObserver observer = createObserver(directory);
+            observer.startWatching();
+            observers.add(observer);
+        }
+        Log.d(TAG, "👀 " + observers.size() + " klasör izleniyor");
+    }
+
+    // Uygulamanın kendi yaptığı değişiklikler için olay beklemeden bildirim
+    public void notifyPathChanged(String path) {
+        synchronized (pendingPaths) {
+            pendingPaths.add(path);
+        }
+        scheduleFlush();
+    }
+
+    public void stop() {
+        stopObservers();
+        mainHandler.removeCallbacks(flushRunnable);
+        synchronized (pendingPaths) {
+            pendingPaths.clear();
+            pendingDirectories.clear();
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private FileObserver createObserver(File directory) {
+        // File alan kurucu API 29 ile geldi; minSdk 26 için yol alan kurucu kullanılır
+        return new FileObserver(directory.getAbsolutePath(), EVENT_MASK) {
+            @Override
+            public void onEvent(int event, String path) {
+                int type = event & FileObserver.ALL_EVENTS;
+                synchronized (pendingPaths) {
+                    if ((type & (FileObserver.DELETE_SELF | FileObserver.MOVE_SELF)) != 0) {
+                        pendingDirectories.add(directory);
+                    } else if (path != null) {
+                        pendingPaths.add(new File(directory, path).getAbsolutePath());
+                    } else {
+                        return;
+                    }
+                }
+                scheduleFlush();
+            }
+        };
+    }
+
+    private void scheduleFlush() {
+        mainHandler.removeCallbacks(flushRunnable);
+        mainHandler.postDelayed(flushRunnable, DEBOUNCE_MS);
+    }
+
+    private void flush() {
+        List<String> paths;
+        List<File> directories;
+        synchronized (pendingPaths) {
+            if (pendingPaths.isEmpty() && pendingDirectories.isEmpty()) {
+                return;
+            }
+            paths = new ArrayList<>(pendingPaths);
+            directories = new ArrayList<>(pendingDirectories);
+            pendingPaths.clear();
+            pendingDirectories.clear();
+        }
+        if (executorService.isShutdown()) {
+            return;
+        }
+
+        executorService.execute(() -> {
+            try {
+                DocumentIndex.Diff diff = documentIndex.refresh(paths, fileFilter);
+                if (!directories.isEmpty()) {
+                    // Klasörün kendisi silindi/taşındı: kayıtları klasör taramasıyla temizlenir
+                    DocumentIndex.Diff directoryDiff = documentIndex.reconcile(directories, directories, fileFilter);
+                    diff.added.addAll(directoryDiff.added);
+                    diff.updated.addAll(directoryDiff.updated);
+                    diff.removedPaths.addAll(directoryDiff.removedPaths);
+                }
+                if (diff.isEmpty()) {
+                    return;
+                }
+                documentIndex.save();
+                Log.d(TAG, "📂 Klasör değişikliği: " + diff.added.size() + " eklendi, "
+                        + diff.updated.size() + " değişti, " + diff.removedPaths.size() + " silindi");
+                mainHandler.post(() -> {
+                    if (callback != null) {
+                        callback.onDocumentsChanged(diff);
+                    }
+                });
+            } catch (Exception e) {
+                Log.e(TAG, "❌ Klasör değişikliği işlenemedi: " + e.getMessage());
+            }
+        });
+    }
+
+    private void stopObservers() {
+        for (FileObserver observer : observers) {
+            observer.stopWatching();
+        }
+        observers.clear();
+    }
+}
@@ -5,112 +5,225 @@ import android.os.Environment;
 import android.util.Log;
 
 import com.documentmaster.app.Document;
+import com.documentmaster.app.search.SearchIndex;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 public class LoadDocument {
 
     private static final String TAG = "LoadDocument";
+    // İlk sayfa hemen gösterilir; kalan belgeler bu boyutta sayfalarla eklenir
+    private static final int FIRST_PAGE_SIZE = 50;
+    private static final int PAGE_SIZE = 200;
+    private static final Comparator<Document> MOST_RECENT_FIRST =
+            (first, second) -> second.getLastModified().compareTo(first.getLastModified());
 
     private final Context context;
     private final LoadDocumentCallback callback;
+    private final ExecutorService executorService;
+    private final DocumentIndex documentIndex;
+    private final DocumentWatcher documentWatcher;
+    private final SearchIndex searchIndex;
+    // Son yüklemede taranan klasörler; izleyici farkları arama dizinine bunlarla yansıtılır
+    private volatile List<File> currentDirectories = Collections.emptyList();
+    // Her yükleme yeni bir nesil başlatır; eski neslin sonuçları UI'a uygulanmaz
+    private final AtomicInteger loadGeneration = new AtomicInteger();
 
     public interface LoadDocumentCallback {
         void onDocumentsLoaded(List<Document> documents);
+        void onDocumentsPageLoaded(List<Document> documents);
+        void onDocumentsChanged(DocumentIndex.Diff diff);
         void onDocumentLoadFailed(String error);
     }
 
-    public LoadDocument(Context context, LoadDocumentCallback callback) {
+    public interface RecentDocumentsCallback {
+        void onRecentDocumentsLoaded(List<Document> documents);
+    }
+
+    public LoadDocument(Context context, LoadDocumentCallback callback, ExecutorService executorService) {
         this.context = context;
         this.callback = callback;
+        this.executorService = executorService;
+        this.documentIndex = DocumentIndex.getInstance(context);
+        this.searchIndex = SearchIndex.getInstance(context);
+        this.documentWatcher = new DocumentWatcher(documentIndex, executorService, LoadDocument::isSupportedFile,
+                diff -> {
+                    if (callback != null) {
+                        callback.onDocumentsChanged(diff);
+                    }
+                    updateSearchIndex();
+                });
     }
 
+    // Önce dizindeki liste hemen verilir, ardından değişen klasörler arka planda taranıp fark bildirilir
     public void loadDocuments() {
-        List<Document> documentList = new ArrayList<>();
+        loadFromIndex(getScanDirectories(true));
+    }
 
-        try {
-            loadInternalDocuments(documentList);
-            loadDownloadsDocuments(documentList);
-            loadDocumentsFromFolder(documentList);
+    public void loadInternalDocuments() {
+        loadFromIndex(getScanDirectories(false));
+    }
 
-            if (callback != null) {
-                callback.onDocumentsLoaded(documentList);
-            }
+    // Uygulamanın kendi oluşturduğu/kopyaladığı dosya; klasör olayı beklenmeden listeye yansır
+    public void notifyDocumentChanged(String filePath) {
+        documentWatcher.notifyPathChanged(filePath);
+    }
 
-            Log.d(TAG, "Toplam " + documentList.size() + " belge yüklendi");
+    // Süren taramayı durdurur; henüz UI'a ulaşmamış sayfalar da atılır
+    public void cancel() {
+        loadGeneration.incrementAndGet();
+    }
 
-        } catch (Exception e) {
-            Log.e(TAG, "Belge yükleme hatası: " + e.getMessage());
-            if (callback != null) {
-                callback.onDocumentLoadFailed("Belge yükleme hatası: " + e.getMessage());
-            }
-        }
+    public void stopWatching() {
+        cancel();
+        documentWatcher.stop();
     }
 
-    public void loadInternalDocuments() {
-        List<Document> documentList = new ArrayList<>();
-        loadInternalDocuments(documentList);
+    // ========== PRIVATE HELPER METHODS ==========
 
-        if (callback != null) {
-            callback.onDocumentsLoaded(documentList);
+    // Arama dizini kendi thread'inde yalnızca değişen belgeleri yeniden okur
+    private void updateSearchIndex() {
+        List<File> directories = currentDirectories;
+        if (executorService.isShutdown()) {
+            return;
         }
+        executorService.execute(() -> searchIndex.update(documentIndex.getDocuments(directories)));
     }
 
-    // ========== PRIVATE HELPER METHODS ==========
+    private void loadFromIndex(List<File> directories) {
+        int generation = loadGeneration.incrementAndGet();
+        currentDirectories = directories;
+        // İzleme taramadan önce başlar; arada oluşan dosyalar kaçmaz
+        documentWatcher.watch(directories);
+        executorService.execute(() -> {
+            if (generation != loadGeneration.get()) {
+                return;
+            }
+            try {
+                long startTime = System.currentTimeMillis();
+                List<Document> indexed = documentIndex.getDocuments(directories);
+                // İlk açılışta (ya da dizin silinmişse) gösterilecek bir şey yoktur; liste tarama bitince
+                // aynı sayfalarla verilir, klasör başına tek büyük fark olarak değil
+                boolean coldStart = indexed.isEmpty();
+                if (!coldStart) {
+                    Collections.sort(indexed, MOST_RECENT_FIRST);
+                    postPages(generation, indexed);
+                    Log.d(TAG, "Dizinden " + indexed.size() + " belge yüklendi: "
+                            + (System.currentTimeMillis() - startTime) + " ms");
+                }
+
+                // Klasörler tek tek taranır; her klasörün farkı hazır olunca gönderilir
+                List<File> alwaysRescan = Collections.singletonList(getInternalDirectory());
+                for (File directory : directories) {
+                    if (generation != loadGeneration.get()) {
+                        Log.d(TAG, "Belge taraması iptal edildi");
+                        documentIndex.save();
+                        return;
+                    }
+                    DocumentIndex.Diff diff = documentIndex.reconcile(Collections.singletonList(directory),
+                            alwaysRescan, LoadDocument::isSupportedFile);
+                    if (!coldStart && !diff.isEmpty()) {
+                        postDiffPages(generation, diff);
+                    }
+                }
+                if (coldStart) {
+                    List<Document> scanned = documentIndex.getDocuments(directories);
+                    Collections.sort(scanned, MOST_RECENT_FIRST);
+                    postPages(generation, scanned);
+                }
+                documentIndex.save();
+                searchIndex.update(documentIndex.getDocuments(directories));
+                Log.d(TAG, "Belge taraması tamamlandı: " + (System.currentTimeMillis() - startTime) + " ms");
+
+            } catch (Exception e) {
+                Log.e(TAG, "Belge yükleme hatası: " + e.getMessage());
+                postToUi(generation, () -> callback.onDocumentLoadFailed("Belge yükleme hatası: " + e.getMessage()));
+            }
+        });
+    }
 
-    private void loadInternalDocuments(List<Document> documentList) {
-        File internalDir = new File(context.getFilesDir(), "Documents");
-        if (internalDir.exists()) {
-            loadDocumentsFromDirectory(internalDir, documentList);
-            Log.d(TAG, "Internal documents yüklendi: " + internalDir.getAbsolutePath());
+    // İlk sayfa listeyi değiştirir, sonrakiler sona eklenir
+    private void postPages(int generation, List<Document> documents) {
+        int firstEnd = Math.min(FIRST_PAGE_SIZE, documents.size());
+        List<Document> firstPage = new ArrayList<>(documents.subList(0, firstEnd));
+        postToUi(generation, () -> callback.onDocumentsLoaded(firstPage));
+        for (int start = firstEnd; start < documents.size(); start += PAGE_SIZE) {
+            if (generation != loadGeneration.get()) {
+                return;
+            }
+            List<Document> page = new ArrayList<>(documents.subList(start, Math.min(documents.size(), start + PAGE_SIZE)));
+            postToUi(generation, () -> callback.onDocumentsPageLoaded(page));
         }
     }
 
-    private void loadDownloadsDocuments(List<Document> documentList) {
-        try {
-            File downloadsDir = Environment.getExternalStoragePublicDirectory(Environment.DIRECTORY_DOWNLOADS);
-            if (downloadsDir != null && downloadsDir.exists()) {
-                loadDocumentsFromDirectory(downloadsDir, documentList);
-                Log.d(TAG, "Downloads klasörü tarandı: " + downloadsDir.getAbsolutePath());
+    // Eskimiş dizinde bir klasörün taraması çok sayıda yeni belge getirebilir: silinen ve değişenlerle
+    // birlikte en yeni FIRST_PAGE_SIZE belge önce, kalan eklemeler PAGE_SIZE'lık farklarla gönderilir
+    private void postDiffPages(int generation, DocumentIndex.Diff diff) {
+        Collections.sort(diff.added, MOST_RECENT_FIRST);
+        if (diff.added.size() <= FIRST_PAGE_SIZE) {
+            postToUi(generation, () -> callback.onDocumentsChanged(diff));
+            return;
+        }
+        DocumentIndex.Diff first = new DocumentIndex.Diff();
+        first.removedPaths.addAll(diff.removedPaths);
+        first.updated.addAll(diff.updated);
+        first.added.addAll(diff.added.subList(0, FIRST_PAGE_SIZE));
+        postToUi(generation, () -> callback.onDocumentsChanged(first));
+        for (int start = FIRST_PAGE_SIZE; start < diff.added.size(); start += PAGE_SIZE) {
+            if (generation != loadGeneration.get()) {
+                return;
             }
-        } catch (Exception e) {
-            Log.e(TAG, "Downloads klasörü yüklenemedi: " + e.getMessage());
+            DocumentIndex.Diff page = new DocumentIndex.Diff();
+            page.added.addAll(diff.added.subList(start, Math.min(diff.added.size(), start + PAGE_SIZE)));
+            postToUi(generation, () -> callback.onDocumentsChanged(page));
         }
     }
 
-    private void loadDocumentsFromFolder(List<Document> documentList) {
-        try {
-            File documentsDir = Environment.getExternalStoragePublicDirectory(Environment.DIRECTORY_DOCUMENTS);
-            if (documentsDir != null && documentsDir.exists()) {
-                loadDocumentsFromDirectory(documentsDir, documentList);
-                Log.d(TAG, "Documents klasörü tarandı: " + documentsDir.getAbsolutePath());
+    private void postToUi(int generation, Runnable action) {
+        runOnUiThread(() -> {
+            if (callback != null && generation == loadGeneration.get()) {
+                action.run();
             }
-        } catch (Exception e) {
-            Log.e(TAG, "Documents klasörü yüklenemedi: " + e.getMessage());
+        });
+    }
+
+    private List<File> getScanDirectories(boolean includeExternal) {
+        List<File> directories = new ArrayList<>();
+        directories.add(getInternalDirectory());
+        if (includeExternal) {
+            addExternalDirectory(directories, Environment.DIRECTORY_DOWNLOADS);
+            addExternalDirectory(directories, Environment.DIRECTORY_DOCUMENTS);
         }
+        return directories;
+    }
+
+    private File getInternalDirectory() {
+        return new File(context.getFilesDir(), "Documents");
     }
 
-    private void loadDocumentsFromDirectory(File directory, List<Document> documentList) {
+    private void addExternalDirectory(List<File> directories, String type) {
         try {
-            File[] files = directory.listFiles();
-            if (files != null) {
-                for (File file : files) {
-                    if (file.isFile() && isSupportedFile(file.getName())) {
-                        Document document = new Document(file.getAbsolutePath());
-                        documentList.add(document);
-                        Log.d(TAG, "Belge eklendi: " + file.getName());
-                    }
-                }
+            File directory = Environment.getExternalStoragePublicDirectory(type);
+            if (directory != null) {
+                directories.add(directory);
             }
         } catch (Exception e) {
-            Log.e(TAG, "Dizin tarama hatası: " + e.getMessage() + " - Dizin: " + directory.getAbsolutePath());
+            Log.e(TAG, type + " klasörü alınamadı: " + e.getMessage());
         }
     }
 
-    private boolean isSupportedFile(String fileName) {
+    private void runOnUiThread(Runnable action) {
+        ((android.app.Activity) context).runOnUiThread(action);
+    }
+
+    static boolean isSupportedFile(String fileName) {
         if (fileName == null) return false;
 
         String[] supportedExtensions = {
@@ -130,20 +243,13 @@ public class LoadDocument {
 
     // ========== PUBLIC UTILITY METHODS ==========
 
-    public void loadRecentDocuments(int count) {
-        List<Document> allDocuments = new ArrayList<>();
-        loadInternalDocuments(allDocuments);
-        loadDownloadsDocuments(allDocuments);
-        loadDocumentsFromFolder(allDocuments);
-
-        List<Document> recentDocuments = new ArrayList<>();
-        for (int i = 0; i < Math.min(count, allDocuments.size()); i++) {
-            recentDocuments.add(allDocuments.get(i));
-        }
-
-        if (callback != null) {
-            callback.onDocumentsLoaded(recentDocuments);
-        }
+    // Son değiştirilen veya açılan belgeler; ana liste değiştirilmez
+    public void loadRecentDocuments(int count, RecentDocumentsCallback recentCallback) {
+        List<File> directories = getScanDirectories(true);
+        executorService.execute(() -> {
+            List<Document> recentDocuments = documentIndex.getRecentDocuments(directories, count);
+            runOnUiThread(() -> recentCallback.onRecentDocumentsLoaded(recentDocuments));
+        });
     }
 
 }
\ No newline at end of file
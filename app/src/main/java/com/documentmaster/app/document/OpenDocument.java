@@ -127,12 +127,14 @@ public class OpenDocument {
 
                 if (WordDocumentHelper.isValidWordDocument(filePath)) {
                     Log.d(TAG, "✅ Geçerli belge, editör açılıyor...");
+                    WordDocumentHelper.prefetchForEditor(filePath);
 
                     Intent intent = new Intent(context, WordEditorActivity.class);
                     intent.putExtra(WordEditorActivity.EXTRA_FILE_PATH, filePath);
                     intent.putExtra(WordEditorActivity.EXTRA_IS_NEW_DOCUMENT, false);
                     intent.putExtra("DISPLAY_NAME", displayName);
                     context.startActivity(intent);
+                    DocumentIndex.getInstance(context).recordOpened(filePath);
 
                     if (callback != null) {
                         callback.onDocumentOpened(filePath);
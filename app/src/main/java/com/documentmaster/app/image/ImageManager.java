@@ -5,6 +5,7 @@ import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.net.Uri;
 import android.provider.MediaStore;
+import android.util.Base64;
 import android.util.Log;
 import android.widget.Toast;
 import com.documentmaster.app.image.ImageProcessor;
@@ -116,13 +117,10 @@ public class ImageManager {
                     // Resmi optimize et
                     Bitmap optimizedBitmap = ImageProcessor.optimize(bitmap, 800, 600);
 
-                    // Base64'e çevir
-                    String base64Data = ImageProcessor.toBase64(optimizedBitmap, "PNG");
+                    byte[] imageBytes = ImageProcessor.toBytes(optimizedBitmap, "PNG");
                     String mimeType = "image/png";
 
-                    activity.runOnUiThread(() -> {
-                        insertImageToEditor(base64Data, mimeType, imageName);
-                    });
+                    insertImageToEditor(imageBytes, mimeType, imageName);
 
                     Log.d(TAG, "✅ Resim başarıyla işlendi ve eklendi");
                 } else {
@@ -149,13 +147,10 @@ public class ImageManager {
                 // Resmi optimize et
                 Bitmap optimizedBitmap = ImageProcessor.optimize(bitmap, 800, 600);
 
-                // Base64'e çevir
-                String base64Data = ImageProcessor.toBase64(optimizedBitmap, "JPEG");
+                byte[] imageBytes = ImageProcessor.toBytes(optimizedBitmap, "JPEG");
                 String mimeType = "image/jpeg";
 
-                activity.runOnUiThread(() -> {
-                    insertImageToEditor(base64Data, mimeType, "Kamera resmi");
-                });
+                insertImageToEditor(imageBytes, mimeType, "Kamera resmi");
 
                 Log.d(TAG, "✅ Kamera resmi başarıyla eklendi");
 
@@ -168,16 +163,31 @@ public class ImageManager {
         }).start();
     }
 
-    private void insertImageToEditor(String base64Data, String mimeType, String imageName) {
-        webViewBridge.insertImage(base64Data, mimeType, imageName,
-                () -> {
-                    showSuccessToast(imageName + " eklendi");
-                    if (callback != null) {
-                        callback.onImageInserted();
-                    }
-                },
-                () -> showErrorToast("Resim eklenemedi")
-        );
+    // Arka plan thread'inden çağrılır: resim önbelleğe yazılır, editöre yalnızca adresi gönderilir
+    private void insertImageToEditor(byte[] imageBytes, String mimeType, String imageName) {
+        Runnable onSuccess = () -> {
+            showSuccessToast(imageName + " eklendi");
+            if (callback != null) {
+                callback.onImageInserted();
+            }
+        };
+        Runnable onError = () -> showErrorToast("Resim eklenemedi");
+
+        ImageStore store = ImageStore.getInstance();
+        if (store != null) {
+            try {
+                String imageUrl = store.put(imageBytes, mimeType);
+                activity.runOnUiThread(() ->
+                        webViewBridge.insertImageUrl(imageUrl, imageName, onSuccess, onError));
+                return;
+            } catch (Exception e) {
+                Log.e(TAG, "❌ Resim önbelleğe yazılamadı, base64 kullanılacak: " + e.getMessage());
+            }
+        }
+
+        String base64Data = Base64.encodeToString(imageBytes, Base64.NO_WRAP);
+        activity.runOnUiThread(() ->
+                webViewBridge.insertImage(base64Data, mimeType, imageName, onSuccess, onError));
     }
 
 
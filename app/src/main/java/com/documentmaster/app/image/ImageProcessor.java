@@ -22,6 +22,10 @@ public class ImageProcessor {
     }
 
     public static String toBase64(Bitmap bitmap, String format) {
+        return Base64.encodeToString(toBytes(bitmap, format), Base64.NO_WRAP);
+    }
+
+    public static byte[] toBytes(Bitmap bitmap, String format) {
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
 
         Bitmap.CompressFormat compressFormat;
@@ -34,8 +38,6 @@ public class ImageProcessor {
         }
 
         bitmap.compress(compressFormat, 80, outputStream);
-        byte[] byteArray = outputStream.toByteArray();
-
-        return Base64.encodeToString(byteArray, Base64.NO_WRAP);
+        return outputStream.toByteArray();
     }
 }
\ No newline at end of file
@@ -0,0 +1,225 @@
+package com.documentmaster.app.image;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class ImageStore {
+
+    private static final String TAG = "ImageStore";
+    public static final String URL_PREFIX = "docmaster-img://";
+    private static final String DIRECTORY_NAME = "images";
+    // Önbellek bu boyutu aşarsa en eski resimler uygulama açılışında silinir
+    private static final long MAX_CACHE_BYTES = 64L * 1024 * 1024;
+    private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+    private static final Pattern URL_PATTERN = Pattern.compile(Pattern.quote(URL_PREFIX) + "([0-9a-f]{64})");
+    private static final String[][] EXTENSIONS = {
+            {"png", "image/png"},
+            {"jpg", "image/jpeg"},
+            {"gif", "image/gif"},
+            {"bmp", "image/bmp"},
+            {"bin", "application/octet-stream"}
+    };
+
+    private static volatile ImageStore instance;
+
+    private final File directory;
+
+    private ImageStore(File directory) {
+        this.directory = directory;
+    }
+
+    public static void init(Context context) {
+        File directory = new File(context.getCacheDir(), DIRECTORY_NAME);
+        if (!directory.exists() && !directory.mkdirs()) {
+            Log.e(TAG, "❌ Resim önbellek klasörü oluşturulamadı: " + directory);
+            return;
+        }
+        ImageStore store = new ImageStore(directory);
+        store.trimToSize(MAX_CACHE_BYTES);
+        instance = store;
+    }
+
+    // Başlatılmamışsa null döner; çağıranlar data: URI'ye geri düşer
+    public static ImageStore getInstance() {
+        return instance;
+    }
+
+    public static boolean isStoreUrl(String url) {
+        return url != null && url.startsWith(URL_PREFIX);
+    }
+
+    // Resmi içerik hash'i ile saklar ve editörde kullanılacak adresi döndürür
+    public String put(byte[] imageBytes, String mimeType) throws IOException {
+        String hash = sha256(imageBytes);
+        String extension = extensionFor(mimeType);
+        File target = new File(directory, hash + "." + extension);
+
+        if (target.exists()) {
+            // Aynı resim zaten var, tekrar yazmaya gerek yok
+            target.setLastModified(System.currentTimeMillis());
+            return URL_PREFIX + hash;
+        }
+
+        // Aynı resim aynı anda birden çok iş parçacığında yazılabilir; her yazım kendi geçici
+        // dosyasını kullanır, yerine taşıma tamamlanmış dosyayla yapılır
+        File temp = File.createTempFile(hash + ".", ".tmp", directory);
+        try (FileOutputStream fos = new FileOutputStream(temp)) {
+            fos.write(imageBytes);
+        } catch (IOException e) {
+            temp.delete();
+            throw e;
+        }
+        if (!temp.renameTo(target)) {
+            temp.delete();
+            if (!target.exists()) {
+                throw new IOException("Resim önbelleğe yazılamadı: " + target.getName());
+            }
+        }
+        return URL_PREFIX + hash;
+    }
+
+    public File getFile(String url) {
+        String hash = hashFromUrl(url);
+        if (hash == null) {
+            return null;
+        }
+        for (String[] extension : EXTENSIONS) {
+            File file = new File(directory, hash + "." + extension[0]);
+            if (file.exists()) {
+                return file;
+            }
+        }
+        return null;
+    }
+
+    // HTML'in başvurduğu bütün önbellek resimleri hâlâ diskte mi (önbellek temizlenmiş olabilir)
+    public boolean hasAllImages(String html) {
+        Matcher matcher = URL_PATTERN.matcher(html);
+        while (matcher.find()) {
+            if (getFile(URL_PREFIX + matcher.group(1)) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String getMimeType(File file) {
+        String name = file.getName();
+        String extension = name.substring(name.lastIndexOf('.') + 1);
+        for (String[] entry : EXTENSIONS) {
+            if (entry[0].equals(extension)) {
+                return entry[1];
+            }
+        }
+        return "application/octet-stream";
+    }
+
+    public InputStream open(String url) throws IOException {
+        File file = getFile(url);
+        if (file == null) {
+            throw new IOException("Resim önbellekte bulunamadı: " + url);
+        }
+        return new FileInputStream(file);
+    }
+
+    public byte[] read(String url) throws IOException {
+        File file = getFile(url);
+        if (file == null) {
+            throw new IOException("Resim önbellekte bulunamadı: " + url);
+        }
+        byte[] data = new byte[(int) file.length()];
+        try (FileInputStream fis = new FileInputStream(file)) {
+            int offset = 0;
+            while (offset < data.length) {
+                int read = fis.read(data, offset, data.length - offset);
+                if (read < 0) {
+                    throw new IOException("Resim dosyası eksik okundu: " + file.getName());
+                }
+                offset += read;
+            }
+        }
+        return data;
+    }
+
+    private void trimToSize(long maxBytes) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        long totalBytes = 0;
+        for (File file : files) {
+            totalBytes += file.length();
+        }
+        if (totalBytes <= maxBytes) {
+            return;
+        }
+
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        int deleted = 0;
+        for (File file : files) {
+            if (totalBytes <= maxBytes) {
+                break;
+            }
+            long length = file.length();
+            if (file.delete()) {
+                totalBytes -= length;
+                deleted++;
+            }
+        }
+        Log.d(TAG, "🧹 Resim önbelleği temizlendi: " + deleted + " dosya silindi");
+    }
+
+    private static String hashFromUrl(String url) {
+        if (!isStoreUrl(url)) {
+            return null;
+        }
+        String hash = url.substring(URL_PREFIX.length());
+        int end = hash.indexOf('/');
+        if (end >= 0) {
+            hash = hash.substring(0, end);
+        }
+        // Yalnızca hash kabul edilir, dosya yolu enjekte edilemez
+        return HASH_PATTERN.matcher(hash).matches() ? hash : null;
+    }
+
+    private static String extensionFor(String mimeType) {
+        if (mimeType != null) {
+            for (String[] entry : EXTENSIONS) {
+                if (entry[1].equalsIgnoreCase(mimeType)) {
+                    return entry[0];
+                }
+            }
+            if (mimeType.contains("jpg")) {
+                return "jpg";
+            }
+        }
+        return "bin";
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16));
+                hex.append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 desteklenmiyor", e);
+        }
+    }
+}
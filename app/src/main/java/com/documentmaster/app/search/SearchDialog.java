@@ -0,0 +1,112 @@
+package com.documentmaster.app.search;
+
+import android.app.Activity;
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ArrayAdapter;
+import android.widget.ListView;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AlertDialog;
+
+import com.documentmaster.app.R;
+import com.documentmaster.app.document.OpenDocument;
+import com.google.android.material.dialog.MaterialAlertDialogBuilder;
+import com.google.android.material.textfield.TextInputEditText;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SearchDialog {
+
+    // Yazarken her tuşta değil, kısa bir duraklamadan sonra aranır
+    private static final long QUERY_DELAY_MS = 150;
+
+    private final Context context;
+    private final OpenDocument openDocument;
+    private final SearchIndex searchIndex;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    public SearchDialog(Context context, OpenDocument openDocument) {
+        this.context = context;
+        this.openDocument = openDocument;
+        this.searchIndex = SearchIndex.getInstance(context);
+    }
+
+    public void show() {
+        View dialogView = ((Activity) context).getLayoutInflater().inflate(R.layout.dialog_search, null);
+        TextInputEditText editSearch = dialogView.findViewById(R.id.editSearch);
+        TextView textStatus = dialogView.findViewById(R.id.textSearchStatus);
+        ListView listResults = dialogView.findViewById(R.id.listSearchResults);
+
+        List<SearchIndex.Result> results = new ArrayList<>();
+        ArrayAdapter<SearchIndex.Result> adapter = new ArrayAdapter<SearchIndex.Result>(
+                context, android.R.layout.simple_list_item_2, android.R.id.text1, results) {
+            @NonNull
+            @Override
+            public View getView(int position, View convertView, @NonNull ViewGroup parent) {
+                View view = super.getView(position, convertView, parent);
+                SearchIndex.Result result = getItem(position);
+                ((TextView) view.findViewById(android.R.id.text1)).setText(result.name);
+                ((TextView) view.findViewById(android.R.id.text2)).setText(result.snippet);
+                return view;
+            }
+        };
+        listResults.setAdapter(adapter);
+
+        AlertDialog dialog = new MaterialAlertDialogBuilder(context)
+                .setTitle("Belgelerde Ara")
+                .setView(dialogView)
+                .setNegativeButton("Kapat", null)
+                .create();
+
+        listResults.setOnItemClickListener((parent, view, position, id) -> {
+            dialog.dismiss();
+            openDocument.openDocumentFromPath(results.get(position).path, null);
+        });
+
+        Runnable[] pendingQuery = new Runnable[1];
+        editSearch.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                String query = s.toString().trim();
+                if (pendingQuery[0] != null) {
+                    mainHandler.removeCallbacks(pendingQuery[0]);
+                }
+                if (query.isEmpty()) {
+                    results.clear();
+                    adapter.notifyDataSetChanged();
+                    textStatus.setText("");
+                    return;
+                }
+                pendingQuery[0] = () -> searchIndex.search(query, (searchedQuery, found) -> {
+                    // Daha yeni bir sorgu yazıldıysa eski sonuçlar gösterilmez
+                    if (!searchedQuery.equals(editSearch.getText().toString().trim())) {
+                        return;
+                    }
+                    results.clear();
+                    results.addAll(found);
+                    adapter.notifyDataSetChanged();
+                    textStatus.setText(found.isEmpty() ? "Sonuç bulunamadı" : found.size() + " belge bulundu");
+                });
+                mainHandler.postDelayed(pendingQuery[0], QUERY_DELAY_MS);
+            }
+        });
+
+        dialog.show();
+    }
+}
@@ -0,0 +1,577 @@
+package com.documentmaster.app.search;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.documentmaster.app.Document;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Cihazdaki .docx/.txt/.html belgeleri için ters dizin (kelime -> belge, geçiş sayısı).
+// Arka planda yalnızca değişen belgeler yeniden okunur. Kayıt listeleri diskte belge
+// numarası farkları ve sayılar olarak değişken uzunluklu tamsayılarla saklanır.
+public class SearchIndex {
+
+    private static final String TAG = "SearchIndex";
+    private static final String DIRECTORY_NAME = "search";
+    // Belge tablosu ve kayıt listeleri tek dosyadadır; tek rename ile birlikte değişirler
+    private static final String INDEX_FILE = "index.bin";
+    // Önceki sürümün ayrı dosyaları; okunmaz, silinir
+    private static final String[] LEGACY_FILES = {"documents.bin", "postings.bin"};
+    private static final String TEXT_DIRECTORY = "text";
+    // Sürüm 3: DOCX metni ad alanıyla okunur; "w" dışında önek kullanan belgeler yeniden dizinlenir
+    private static final int VERSION = 3;
+
+    // Bir belgeden dizinlenecek en fazla karakter
+    private static final int MAX_INDEXED_CHARS = 2_000_000;
+    private static final int MAX_RESULTS = 20;
+    // Son kelime önek olarak aranır; en fazla bu kadar kelimeye genişletilir
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int SNIPPET_RADIUS = 60;
+    // BM25 parametreleri
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static SearchIndex instance;
+
+    private static final class IndexedDocument {
+        final int id;
+        final String path;
+        final long size;
+        final long lastModified;
+        final int length;
+
+        IndexedDocument(int id, String path, long size, long lastModified, int length) {
+            this.id = id;
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+    }
+
+    // Belge numarasına göre artan sırada; silinen belgeler kayıtta kalır, sorguda atlanır
+    static final class Postings {
+        int[] documentIds = new int[4];
+        int[] frequencies = new int[4];
+        int size;
+
+        void add(int documentId, int frequency) {
+            if (size == documentIds.length) {
+                documentIds = Arrays.copyOf(documentIds, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            documentIds[size] = documentId;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        // [sayı] ardından her belge için [önceki numaradan fark][geçiş sayısı]
+        void writeTo(DataOutput out) throws IOException {
+            writeVarInt(out, size);
+            int previous = 0;
+            for (int i = 0; i < size; i++) {
+                writeVarInt(out, documentIds[i] - previous);
+                writeVarInt(out, frequencies[i]);
+                previous = documentIds[i];
+            }
+        }
+
+        static Postings readFrom(DataInput in) throws IOException {
+            int size = readVarInt(in);
+            if (size < 0) {
+                throw new IOException("Geçersiz kayıt listesi boyu");
+            }
+            Postings list = new Postings();
+            list.documentIds = new int[Math.max(1, size)];
+            list.frequencies = new int[Math.max(1, size)];
+            int documentId = 0;
+            for (int p = 0; p < size; p++) {
+                documentId += readVarInt(in);
+                list.add(documentId, readVarInt(in));
+            }
+            return list;
+        }
+    }
+
+    public static final class Result {
+        public final String path;
+        public final String name;
+        public final String snippet;
+        public final double score;
+
+        Result(String path, String snippet, double score) {
+            this.path = path;
+            this.name = new File(path).getName();
+            this.snippet = snippet;
+            this.score = score;
+        }
+    }
+
+    public interface SearchCallback {
+        // UI thread'de çağrılır
+        void onResults(String query, List<Result> results);
+    }
+
+    private final File directory;
+    private final File textDirectory;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService indexExecutor = Executors.newSingleThreadExecutor();
+    private final ExecutorService queryExecutor = Executors.newSingleThreadExecutor();
+    private final AtomicInteger updateGeneration = new AtomicInteger();
+
+    // Aşağıdakiler this kilidiyle korunur
+    private final Map<String, IndexedDocument> documentsByPath = new HashMap<>();
+    private final Map<Integer, IndexedDocument> documentsById = new HashMap<>();
+    private final TreeMap<String, Postings> postings = new TreeMap<>();
+    private long totalLength;
+    private int nextDocumentId;
+    private boolean loaded;
+    private boolean dirty;
+
+    private SearchIndex(File directory) {
+        this.directory = directory;
+        this.textDirectory = new File(directory, TEXT_DIRECTORY);
+    }
+
+    public static synchronized SearchIndex getInstance(Context context) {
+        if (instance == null) {
+            instance = new SearchIndex(new File(context.getApplicationContext().getFilesDir(), DIRECTORY_NAME));
+        }
+        return instance;
+    }
+
+    // Verilen belge listesiyle dizini eşitler; yeni bir çağrı süren güncellemeyi keser
+    public void update(List<Document> documents) {
+        int generation = updateGeneration.incrementAndGet();
+        List<Document> candidates = new ArrayList<>();
+        for (Document document : documents) {
+            if (document.getPath() != null && TextExtractor.isSupported(document.getName())) {
+                candidates.add(document);
+            }
+        }
+        indexExecutor.execute(() -> runUpdate(candidates, generation));
+    }
+
+    private void runUpdate(List<Document> candidates, int generation) {
+        if (generation != updateGeneration.get()) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        List<Document> changed = new ArrayList<>();
+        Set<String> present = new HashSet<>();
+        synchronized (this) {
+            ensureLoaded();
+            for (Document document : candidates) {
+                present.add(document.getPath());
+                IndexedDocument indexed = documentsByPath.get(document.getPath());
+                if (indexed == null || indexed.size != document.getSize()
+                        || indexed.lastModified != document.getLastModified().getTime()) {
+                    changed.add(document);
+                }
+            }
+            for (IndexedDocument indexed : new ArrayList<>(documentsByPath.values())) {
+                if (!present.contains(indexed.path)) {
+                    removeDocument(indexed);
+                }
+            }
+        }
+
+        int indexed = 0;
+        for (Document document : changed) {
+            if (generation != updateGeneration.get()) {
+                Log.d(TAG, "Arama dizini güncellemesi yenisiyle değiştirildi");
+                break;
+            }
+            if (indexDocument(document)) {
+                indexed++;
+            }
+        }
+
+        synchronized (this) {
+            save();
+        }
+        Log.d(TAG, "🔎 Arama dizini güncellendi: " + indexed + "/" + changed.size() + " belge, "
+                + (System.currentTimeMillis() - startTime) + " ms");
+    }
+
+    // Metin çıkarma ve kelimelere ayırma kilitsiz yapılır; yalnızca dizine ekleme kilitlidir
+    private boolean indexDocument(Document document) {
+        File file = new File(document.getPath());
+        String text;
+        try {
+            text = TextExtractor.extract(file, MAX_INDEXED_CHARS);
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "⚠️ Metin çıkarılamadı: " + file.getName() + " - " + e.getMessage());
+            text = "";
+        }
+        if (text == null) {
+            return false;
+        }
+
+        Map<String, int[]> frequencies = new HashMap<>();
+        int[] length = new int[1];
+        SearchTokenizer.tokenize(text, (token, start) -> {
+            int[] count = frequencies.get(token);
+            if (count == null) {
+                frequencies.put(token, new int[]{1});
+            } else {
+                count[0]++;
+            }
+            length[0]++;
+        });
+
+        int documentId;
+        synchronized (this) {
+            documentId = nextDocumentId++;
+        }
+        try {
+            writeText(documentId, text);
+        } catch (IOException e) {
+            Log.w(TAG, "⚠️ Belge metni kaydedilemedi: " + e.getMessage());
+        }
+
+        synchronized (this) {
+            IndexedDocument previous = documentsByPath.get(document.getPath());
+            if (previous != null) {
+                removeDocument(previous);
+            }
+            IndexedDocument indexed = new IndexedDocument(documentId, document.getPath(),
+                    document.getSize(), document.getLastModified().getTime(), length[0]);
+            documentsByPath.put(indexed.path, indexed);
+            documentsById.put(documentId, indexed);
+            totalLength += indexed.length;
+            for (Map.Entry<String, int[]> entry : frequencies.entrySet()) {
+                Postings list = postings.get(entry.getKey());
+                if (list == null) {
+                    list = new Postings();
+                    postings.put(entry.getKey(), list);
+                }
+                list.add(documentId, entry.getValue()[0]);
+            }
+            dirty = true;
+        }
+        return true;
+    }
+
+    private void removeDocument(IndexedDocument indexed) {
+        documentsByPath.remove(indexed.path);
+        documentsById.remove(indexed.id);
+        totalLength -= indexed.length;
+        new File(textDirectory, indexed.id + ".txt").delete();
+        dirty = true;
+    }
+
+    public void search(String query, SearchCallback callback) {
+        queryExecutor.execute(() -> {
+            List<Result> results = search(query);
+            mainHandler.post(() -> callback.onResults(query, results));
+        });
+    }
+
+    // Tüm kelimeleri içeren belgeler BM25 puanına göre sıralanır
+    public List<Result> search(String query) {
+        long startTime = System.currentTimeMillis();
+        List<String> tokens = SearchTokenizer.tokenize(query);
+        if (tokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<String> matchedTerms = new ArrayList<>();
+        List<IndexedDocument> top = new ArrayList<>();
+        List<Double> topScores = new ArrayList<>();
+        synchronized (this) {
+            ensureLoaded();
+            int documentCount = documentsById.size();
+            if (documentCount == 0) {
+                return Collections.emptyList();
+            }
+            double averageLength = Math.max(1.0, (double) totalLength / documentCount);
+
+            Map<Integer, double[]> scores = null;
+            for (int i = 0; i < tokens.size(); i++) {
+                String token = tokens.get(i);
+                List<Map.Entry<String, Postings>> terms = new ArrayList<>();
+                if (i == tokens.size() - 1) {
+                    for (Map.Entry<String, Postings> entry
+                            : postings.subMap(token, true, token + Character.MAX_VALUE, true).entrySet()) {
+                        terms.add(entry);
+                        if (terms.size() == MAX_PREFIX_EXPANSIONS) {
+                            break;
+                        }
+                    }
+                } else {
+                    Postings exact = postings.get(token);
+                    if (exact != null) {
+                        terms.add(new AbstractMap.SimpleEntry<>(token, exact));
+                    }
+                }
+
+                // Her belge için bu sorgu kelimesinin en iyi eşleşen açılımı sayılır
+                Map<Integer, double[]> tokenScores = new HashMap<>();
+                for (Map.Entry<String, Postings> term : terms) {
+                    matchedTerms.add(term.getKey());
+                    Postings list = term.getValue();
+                    double idf = Math.log(1 + (documentCount - list.size + 0.5) / (list.size + 0.5));
+                    for (int p = 0; p < list.size; p++) {
+                        IndexedDocument document = documentsById.get(list.documentIds[p]);
+                        if (document == null) {
+                            continue;
+                        }
+                        int frequency = list.frequencies[p];
+                        double score = idf * frequency * (K1 + 1)
+                                / (frequency + K1 * (1 - B + B * document.length / averageLength));
+                        double[] best = tokenScores.get(document.id);
+                        if (best == null) {
+                            tokenScores.put(document.id, new double[]{score});
+                        } else if (score > best[0]) {
+                            best[0] = score;
+                        }
+                    }
+                }
+
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    Map<Integer, double[]> combined = new HashMap<>();
+                    for (Map.Entry<Integer, double[]> entry : scores.entrySet()) {
+                        double[] tokenScore = tokenScores.get(entry.getKey());
+                        if (tokenScore != null) {
+                            entry.getValue()[0] += tokenScore[0];
+                            combined.put(entry.getKey(), entry.getValue());
+                        }
+                    }
+                    scores = combined;
+                }
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+
+            List<Map.Entry<Integer, double[]>> ranked = new ArrayList<>(scores.entrySet());
+            Collections.sort(ranked, (first, second) -> Double.compare(second.getValue()[0], first.getValue()[0]));
+            for (int i = 0; i < Math.min(MAX_RESULTS, ranked.size()); i++) {
+                top.add(documentsById.get(ranked.get(i).getKey()));
+                topScores.add(ranked.get(i).getValue()[0]);
+            }
+        }
+
+        // Alıntılar kilit dışında, kayıtlı düz metinden üretilir
+        List<Result> results = new ArrayList<>(top.size());
+        for (int i = 0; i < top.size(); i++) {
+            IndexedDocument document = top.get(i);
+            results.add(new Result(document.path, buildSnippet(document.id, matchedTerms), topScores.get(i)));
+        }
+        Log.d(TAG, "🔎 \"" + query + "\": " + results.size() + " sonuç, " + (System.currentTimeMillis() - startTime) + " ms");
+        return results;
+    }
+
+    // Sorgu kelimelerinden birinin ilk geçtiği yerin çevresi
+    private String buildSnippet(int documentId, List<String> terms) {
+        String text;
+        try {
+            text = readText(documentId);
+        } catch (IOException e) {
+            return "";
+        }
+        if (text.isEmpty()) {
+            return "";
+        }
+
+        Set<String> termSet = new HashSet<>(terms);
+        int[] hit = {-1, 0};
+        SearchTokenizer.tokenize(text, (token, start) -> {
+            if (hit[0] < 0 && termSet.contains(token)) {
+                hit[0] = start;
+                hit[1] = token.length();
+            }
+        });
+
+        int center = Math.max(0, hit[0]);
+        int start = Math.max(0, center - SNIPPET_RADIUS);
+        int end = Math.min(text.length(), center + hit[1] + SNIPPET_RADIUS);
+        while (start > 0 && !Character.isWhitespace(text.charAt(start - 1)) && center - start < SNIPPET_RADIUS + 20) {
+            start--;
+        }
+        while (end < text.length() && !Character.isWhitespace(text.charAt(end)) && end - center < SNIPPET_RADIUS + 20) {
+            end++;
+        }
+        String snippet = text.substring(start, end).replaceAll("\\s+", " ").trim();
+        return (start > 0 ? "…" : "") + snippet + (end < text.length() ? "…" : "");
+    }
+
+    private void writeText(int documentId, String text) throws IOException {
+        if (!textDirectory.isDirectory() && !textDirectory.mkdirs()) {
+            throw new IOException("Metin klasörü oluşturulamadı");
+        }
+        try (Writer writer = new OutputStreamWriter(
+                new FileOutputStream(new File(textDirectory, documentId + ".txt")), StandardCharsets.UTF_8)) {
+            writer.write(text);
+        }
+    }
+
+    private String readText(int documentId) throws IOException {
+        File file = new File(textDirectory, documentId + ".txt");
+        byte[] bytes = new byte[(int) file.length()];
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            in.readFully(bytes);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Kayıt listeleri yazılırken silinmiş belgeler atılır; bellekteki listeler de sıkıştırılır
+    private void save() {
+        if (!dirty) {
+            return;
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            Log.e(TAG, "Arama dizini klasörü oluşturulamadı");
+            return;
+        }
+        try {
+            compactPostings();
+            File temp = new File(directory, INDEX_FILE + ".tmp");
+            try (FileOutputStream fos = new FileOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos))) {
+                out.writeInt(VERSION);
+                out.writeInt(nextDocumentId);
+                out.writeInt(documentsById.size());
+                for (IndexedDocument document : documentsById.values()) {
+                    out.writeInt(document.id);
+                    out.writeUTF(document.path);
+                    out.writeLong(document.size);
+                    out.writeLong(document.lastModified);
+                    out.writeInt(document.length);
+                }
+                out.writeInt(postings.size());
+                for (Map.Entry<String, Postings> entry : postings.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    entry.getValue().writeTo(out);
+                }
+                out.flush();
+                fos.getFD().sync();
+            }
+            if (!temp.renameTo(new File(directory, INDEX_FILE))) {
+                temp.delete();
+                throw new IOException("Dizin dosyası değiştirilemedi");
+            }
+            dirty = false;
+        } catch (IOException e) {
+            Log.e(TAG, "❌ Arama dizini kaydedilemedi: " + e.getMessage());
+        }
+    }
+
+    private void compactPostings() {
+        Iterator<Postings> iterator = postings.values().iterator();
+        while (iterator.hasNext()) {
+            Postings list = iterator.next();
+            int kept = 0;
+            for (int i = 0; i < list.size; i++) {
+                if (documentsById.containsKey(list.documentIds[i])) {
+                    list.documentIds[kept] = list.documentIds[i];
+                    list.frequencies[kept] = list.frequencies[i];
+                    kept++;
+                }
+            }
+            list.size = kept;
+            if (kept == 0) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        for (String legacy : LEGACY_FILES) {
+            new File(directory, legacy).delete();
+        }
+        File indexFile = new File(directory, INDEX_FILE);
+        if (!indexFile.exists()) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            if (in.readInt() != VERSION) {
+                return;
+            }
+            nextDocumentId = in.readInt();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                IndexedDocument document = new IndexedDocument(in.readInt(), in.readUTF(),
+                        in.readLong(), in.readLong(), in.readInt());
+                documentsByPath.put(document.path, document);
+                documentsById.put(document.id, document);
+                totalLength += document.length;
+            }
+            int termCount = in.readInt();
+            for (int i = 0; i < termCount; i++) {
+                String term = in.readUTF();
+                postings.put(term, Postings.readFrom(in));
+            }
+            Log.d(TAG, "Arama dizini okundu: " + documentsById.size() + " belge, " + postings.size()
+                    + " kelime, " + (System.currentTimeMillis() - startTime) + " ms");
+        } catch (IOException e) {
+            // Bozuk dizin: belgeler baştan dizinlenir
+            Log.e(TAG, "Arama dizini okunamadı: " + e.getMessage());
+            clearInMemory();
+        }
+    }
+
+    private void clearInMemory() {
+        documentsByPath.clear();
+        documentsById.clear();
+        postings.clear();
+        totalLength = 0;
+    }
+
+    static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Geçersiz sayı kodlaması");
+    }
+}
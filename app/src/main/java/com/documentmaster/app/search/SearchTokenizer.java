@@ -0,0 +1,69 @@
+package com.documentmaster.app.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Türkçe kurallarıyla küçük harfe çevirme ve kelimelere ayırma. Dönüşüm karakter karakter
+// yapılır; böylece katlanmış metindeki konumlar özgün metindekilerle aynı kalır.
+public final class SearchTokenizer {
+
+    static final int MAX_TOKEN_LENGTH = 64;
+    // İ harfinin Türkçe dışı küçültmesinde kalan birleşik nokta
+    private static final char COMBINING_DOT_ABOVE = '\u0307';
+
+    public interface TokenConsumer {
+        void accept(String token, int start);
+    }
+
+    private SearchTokenizer() {
+    }
+
+    // I -> ı, İ -> i; diğer harfler için standart küçültme
+    public static char fold(char c) {
+        if (c == 'I') return 'ı';
+        if (c == 'İ') return 'i';
+        return Character.toLowerCase(c);
+    }
+
+    public static String fold(CharSequence text) {
+        char[] folded = new char[text.length()];
+        for (int i = 0; i < folded.length; i++) {
+            folded[i] = fold(text.charAt(i));
+        }
+        return new String(folded);
+    }
+
+    public static boolean isTokenChar(char c) {
+        return Character.isLetterOrDigit(c) || c == COMBINING_DOT_ABOVE;
+    }
+
+    // Harf/rakam dizilerini katlanmış olarak verir; start özgün metindeki başlangıçtır
+    public static void tokenize(CharSequence text, TokenConsumer consumer) {
+        StringBuilder token = new StringBuilder(MAX_TOKEN_LENGTH);
+        int start = -1;
+        int length = text.length();
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? text.charAt(i) : ' ';
+            if (isTokenChar(c)) {
+                if (start < 0) {
+                    start = i;
+                }
+                if (c != COMBINING_DOT_ABOVE && token.length() < MAX_TOKEN_LENGTH) {
+                    token.append(fold(c));
+                }
+            } else if (start >= 0) {
+                if (token.length() > 0) {
+                    consumer.accept(token.toString(), start);
+                }
+                token.setLength(0);
+                start = -1;
+            }
+        }
+    }
+
+    public static List<String> tokenize(CharSequence text) {
+        List<String> tokens = new ArrayList<>();
+        tokenize(text, (token, start) -> tokens.add(token));
+        return tokens;
+    }
+}
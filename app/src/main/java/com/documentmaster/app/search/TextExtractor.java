@@ -0,0 +1,189 @@
+package com.documentmaster.app.search;
+
+import com.documentmaster.app.utils.word.StreamingDocxReader;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+// Arama dizini için düz metin çıkarır. DOCX, POI ile tüm belge modeli kurulmadan
+// word/document.xml üzerinden akış halinde okunur.
+public final class TextExtractor {
+
+    private TextExtractor() {
+    }
+
+    public static boolean isSupported(String fileName) {
+        String lower = fileName.toLowerCase();
+        return lower.endsWith(".docx") || lower.endsWith(".txt")
+                || lower.endsWith(".html") || lower.endsWith(".htm");
+    }
+
+    // En fazla maxChars karakter döndürür; desteklenmeyen türler için null
+    public static String extract(File file, int maxChars) throws IOException {
+        String lower = file.getName().toLowerCase();
+        if (lower.endsWith(".docx")) {
+            return extractDocx(file, maxChars);
+        }
+        try (Reader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            if (lower.endsWith(".txt")) {
+                return readText(reader, maxChars);
+            } else if (lower.endsWith(".html") || lower.endsWith(".htm")) {
+                return readHtml(reader, maxChars);
+            }
+        }
+        return null;
+    }
+
+    private static String extractDocx(File file, int maxChars) throws IOException {
+        try (ZipFile zip = new ZipFile(file)) {
+            ZipEntry entry = zip.getEntry(StreamingDocxReader.DOCUMENT_PART);
+            if (entry == null) {
+                throw new IOException("word/document.xml bulunamadı");
+            }
+            try (InputStream in = zip.getInputStream(entry)) {
+                XmlPullParser parser = StreamingDocxReader.newParser(in);
+                StringBuilder text = new StringBuilder();
+                boolean inText = false;
+                // Öneki ne olursa olsun WordprocessingML elemanları ad alanından tanınır
+                for (int event = parser.getEventType();
+                     event != XmlPullParser.END_DOCUMENT && text.length() < maxChars;
+                     event = parser.next()) {
+                    if (event == XmlPullParser.START_TAG) {
+                        if (!StreamingDocxReader.W_NS.equals(parser.getNamespace())) {
+                            continue;
+                        }
+                        String name = parser.getName();
+                        if ("t".equals(name)) {
+                            inText = true;
+                        } else if ("tab".equals(name)) {
+                            text.append(' ');
+                        } else if ("br".equals(name) || "cr".equals(name)) {
+                            text.append('\n');
+                        }
+                    } else if (event == XmlPullParser.END_TAG) {
+                        if (!StreamingDocxReader.W_NS.equals(parser.getNamespace())) {
+                            continue;
+                        }
+                        String name = parser.getName();
+                        if ("t".equals(name)) {
+                            inText = false;
+                        } else if ("p".equals(name)) {
+                            text.append('\n');
+                        }
+                    } else if (event == XmlPullParser.TEXT && inText) {
+                        text.append(parser.getText());
+                    }
+                }
+                return text.length() > maxChars ? text.substring(0, maxChars) : text.toString();
+            } catch (XmlPullParserException e) {
+                throw new IOException("DOCX metni okunamadı: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private static String readText(Reader reader, int maxChars) throws IOException {
+        StringBuilder text = new StringBuilder();
+        char[] buffer = new char[8192];
+        int read;
+        while (text.length() < maxChars && (read = reader.read(buffer)) != -1) {
+            text.append(buffer, 0, Math.min(read, maxChars - text.length()));
+        }
+        return text.toString();
+    }
+
+    // Etiketler boşluğa çevrilir; script/style içeriği atlanır, temel varlıklar çözülür
+    private static String readHtml(Reader reader, int maxChars) throws IOException {
+        StringBuilder text = new StringBuilder();
+        StringBuilder tag = new StringBuilder();
+        StringBuilder entity = new StringBuilder();
+        boolean inTag = false;
+        boolean inEntity = false;
+        String skipUntil = null;
+        int c;
+        while (text.length() < maxChars && (c = reader.read()) != -1) {
+            char ch = (char) c;
+            if (inTag) {
+                if (ch == '>') {
+                    inTag = false;
+                    String tagName = tagName(tag);
+                    if (skipUntil != null) {
+                        if (tagName.equals(skipUntil)) {
+                            skipUntil = null;
+                        }
+                    } else if (tagName.equals("script") || tagName.equals("style")) {
+                        skipUntil = "/" + tagName;
+                    } else {
+                        text.append(' ');
+                    }
+                    tag.setLength(0);
+                } else if (tag.length() < 32) {
+                    tag.append(ch);
+                }
+            } else if (ch == '<') {
+                inTag = true;
+                if (inEntity) {
+                    text.append('&').append(entity);
+                    inEntity = false;
+                }
+            } else if (skipUntil != null) {
+                continue;
+            } else if (inEntity) {
+                if (ch == ';') {
+                    text.append(decodeEntity(entity.toString()));
+                    inEntity = false;
+                } else if (entity.length() < 10) {
+                    entity.append(ch);
+                } else {
+                    text.append('&').append(entity).append(ch);
+                    inEntity = false;
+                }
+            } else if (ch == '&') {
+                inEntity = true;
+                entity.setLength(0);
+            } else {
+                text.append(ch);
+            }
+        }
+        return text.length() > maxChars ? text.substring(0, maxChars) : text.toString();
+    }
+
+    private static String tagName(StringBuilder tag) {
+        int end = 0;
+        while (end < tag.length() && !Character.isWhitespace(tag.charAt(end)) && tag.charAt(end) != '>') {
+            end++;
+        }
+        return tag.substring(0, end).toLowerCase();
+    }
+
+    private static String decodeEntity(String entity) {
+        switch (entity) {
+            case "amp": return "&";
+            case "lt": return "<";
+            case "gt": return ">";
+            case "quot": return "\"";
+            case "apos": return "'";
+            case "nbsp": return " ";
+        }
+        try {
+            if (entity.startsWith("#x") || entity.startsWith("#X")) {
+                return new String(Character.toChars(Integer.parseInt(entity.substring(2), 16)));
+            } else if (entity.startsWith("#")) {
+                return new String(Character.toChars(Integer.parseInt(entity.substring(1))));
+            }
+        } catch (IllegalArgumentException e) {
+            // Geçersiz sayısal varlık olduğu gibi bırakılır
+        }
+        return "&" + entity + ";";
+    }
+}
@@ -52,6 +52,25 @@ public class ActionDialog {
                 .show();
     }
     public void showRecentDocuments() {
-        loadDocument.loadRecentDocuments(5);
+        loadDocument.loadRecentDocuments(5, this::showRecentDocumentsDialog);
+    }
+
+    private void showRecentDocumentsDialog(List<Document> documents) {
+        if (documents.isEmpty()) {
+            Toast.makeText(context, "Son belge bulunamadı", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        String[] items = new String[documents.size()];
+        for (int i = 0; i < documents.size(); i++) {
+            Document document = documents.get(i);
+            items[i] = document.getName() + "\n" + document.getFormattedDate();
+        }
+
+        new MaterialAlertDialogBuilder(context)
+                .setTitle("Son Belgeler")
+                .setItems(items, (dialog, which) ->
+                        openDocument.openDocumentFromPath(documents.get(which).getPath(), null))
+                .setNegativeButton("Kapat", null)
+                .show();
     }
 }
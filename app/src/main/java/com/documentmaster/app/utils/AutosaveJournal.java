@@ -0,0 +1,206 @@
+package com.documentmaster.app.utils;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+// Otomatik kaydetmenin dosya biçimi.
+// Taban (.base): [nesil][belge uzunluğu][belge değişiklik zamanı][HTML]
+// Günlük (.journal): [nesil] ardından kayıtlar: [uzunluk][başlangıç, silinen, eklenen metin,
+// belge uzunluğu, belge değişiklik zamanı][CRC32]
+// Belge uzunluğu ve zamanı, değişiklik yazılırken diskteki belgenin sürümüdür; kurtarmada belge
+// o sürümden farklıysa değişikliklerden sonra kaydedilmiş (ya da dışarıdan değiştirilmiş) demektir.
+final class AutosaveJournal {
+
+    private static final int HEADER_BYTES = 24;
+    private static final int MIN_RECORD_BYTES = 28;
+
+    static final class Recovered {
+        final String html;
+        final long documentLength;
+        final long documentModified;
+        final int applied;
+
+        Recovered(String html, long documentLength, long documentModified, int applied) {
+            this.html = html;
+            this.documentLength = documentLength;
+            this.documentModified = documentModified;
+            this.applied = applied;
+        }
+    }
+
+    private final FileOutputStream file;
+    private final DataOutputStream out;
+    private int entryCount;
+    private long byteCount;
+
+    private AutosaveJournal(FileOutputStream file) {
+        this.file = file;
+        this.out = new DataOutputStream(file);
+    }
+
+    // Tabanı geçici dosyaya yazıp yerine taşır
+    static void writeBase(File base, File temp, long generation, long documentLength, long documentModified,
+                          String html) throws IOException {
+        try (FileOutputStream fos = new FileOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(fos)) {
+            out.writeLong(generation);
+            out.writeLong(documentLength);
+            out.writeLong(documentModified);
+            out.write(html.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            fos.getFD().sync();
+        }
+        if (!temp.renameTo(base)) {
+            temp.delete();
+            throw new IOException("Otomatik kaydetme tabanı yazılamadı");
+        }
+    }
+
+    // Günlüğü baştan, yalnızca nesil numarasıyla oluşturur
+    static AutosaveJournal create(File path, long generation) throws IOException {
+        AutosaveJournal journal = new AutosaveJournal(new FileOutputStream(path, false));
+        try {
+            journal.out.writeLong(generation);
+            journal.out.flush();
+            journal.file.getFD().sync();
+        } catch (IOException e) {
+            journal.close();
+            throw e;
+        }
+        return journal;
+    }
+
+    void append(int start, int deleted, String inserted, long documentLength, long documentModified)
+            throws IOException {
+        byte[] text = inserted.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(text.length + MIN_RECORD_BYTES);
+        DataOutputStream record = new DataOutputStream(buffer);
+        record.writeInt(start);
+        record.writeInt(deleted);
+        record.writeInt(text.length);
+        record.write(text);
+        record.writeLong(documentLength);
+        record.writeLong(documentModified);
+        byte[] bytes = buffer.toByteArray();
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        out.writeLong(crc.getValue());
+        out.flush();
+        file.getFD().sync();
+
+        entryCount++;
+        byteCount += bytes.length + 12;
+    }
+
+    // Önceki içerikten farkı yazar: ortak önek/sonek dışındaki bölge değiştirilir. Sınırlar vekil
+    // çiftlerin (emoji vb.) ortasına düşmez; yarım çift UTF-8'e kodlanamaz
+    void appendChange(String previous, String current, long documentLength, long documentModified)
+            throws IOException {
+        int prefix = 0;
+        int maxPrefix = Math.min(previous.length(), current.length());
+        while (prefix < maxPrefix && previous.charAt(prefix) == current.charAt(prefix)) {
+            prefix++;
+        }
+        if (prefix > 0 && Character.isHighSurrogate(current.charAt(prefix - 1))) {
+            prefix--;
+        }
+        int suffix = 0;
+        int maxSuffix = maxPrefix - prefix;
+        while (suffix < maxSuffix && previous.charAt(previous.length() - 1 - suffix)
+                == current.charAt(current.length() - 1 - suffix)) {
+            suffix++;
+        }
+        if (suffix > 0 && Character.isLowSurrogate(current.charAt(current.length() - suffix))) {
+            suffix--;
+        }
+        append(prefix, previous.length() - prefix - suffix,
+                current.substring(prefix, current.length() - suffix), documentLength, documentModified);
+    }
+
+    int getEntryCount() {
+        return entryCount;
+    }
+
+    long getByteCount() {
+        return byteCount;
+    }
+
+    void close() throws IOException {
+        out.close();
+    }
+
+    // Tabanı okur ve aynı nesilden günlük kayıtlarını sırayla uygular. Yarım yazılmış, CRC'si tutmayan
+    // ya da tabana uymayan ilk kayıtta durulur. Taban okunamazsa IOException fırlatılır.
+    static Recovered read(File base, File journal) throws IOException {
+        long generation;
+        long documentLength;
+        long documentModified;
+        StringBuilder content;
+        if (base.length() < HEADER_BYTES) {
+            throw new IOException("Otomatik kaydetme tabanı eksik");
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(base)))) {
+            generation = in.readLong();
+            documentLength = in.readLong();
+            documentModified = in.readLong();
+            byte[] bytes = new byte[(int) (base.length() - HEADER_BYTES)];
+            in.readFully(bytes);
+            content = new StringBuilder(new String(bytes, StandardCharsets.UTF_8));
+        }
+
+        int applied = 0;
+        if (journal.exists()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(journal)))) {
+                if (in.readLong() == generation) {
+                    while (true) {
+                        int length = in.readInt();
+                        if (length < MIN_RECORD_BYTES || length > journal.length()) {
+                            break;
+                        }
+                        byte[] bytes = new byte[length];
+                        in.readFully(bytes);
+                        CRC32 crc = new CRC32();
+                        crc.update(bytes);
+                        if (crc.getValue() != in.readLong()) {
+                            break;
+                        }
+
+                        DataInputStream record = new DataInputStream(new ByteArrayInputStream(bytes));
+                        int start = record.readInt();
+                        int deleted = record.readInt();
+                        int textLength = record.readInt();
+                        if (textLength < 0 || textLength != length - MIN_RECORD_BYTES
+                                || start < 0 || deleted < 0 || start > content.length()
+                                || deleted > content.length() - start) {
+                            break;
+                        }
+                        byte[] text = new byte[textLength];
+                        record.readFully(text);
+                        content.replace(start, start + deleted, new String(text, StandardCharsets.UTF_8));
+                        documentLength = record.readLong();
+                        documentModified = record.readLong();
+                        applied++;
+                    }
+                }
+            } catch (EOFException e) {
+                // Günlüğün sonu ya da yarım kalmış son kayıt
+            } catch (IOException e) {
+                // Okunabilen kayıtlar uygulanmış olarak kalır
+            }
+        }
+        return new Recovered(content.toString(), documentLength, documentModified, applied);
+    }
+}
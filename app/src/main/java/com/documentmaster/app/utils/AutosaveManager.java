@@ -0,0 +1,349 @@
+package com.documentmaster.app.utils;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.documentmaster.app.image.ImageStore;
+import com.documentmaster.app.utils.word.WordDocumentHelper;
+import com.google.android.material.dialog.MaterialAlertDialogBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Editör değişikliklerini arka planda otomatik kaydeder. Her belge için uygulama içinde
+// bir taban HTML anlık görüntüsü (.base) ve ona uygulanacak değişiklik günlüğü (.journal)
+// tutulur; günlük belirli aralıklarla tabana ve gerçek bir .docx dosyasına sıkıştırılır.
+public class AutosaveManager {
+
+    private static final String TAG = "AutosaveManager";
+    private static final String DIRECTORY_NAME = "autosave";
+    private static final String NEW_DOCUMENT_KEY = "yeni-belge";
+    // Yazmak için yazmanın durmasını bekle, ama ilk değişiklikten en geç 1 sn sonra yaz
+    private static final long DEBOUNCE_MS = 300;
+    private static final long MAX_DELAY_MS = 1000;
+    private static final int COMPACT_ENTRY_COUNT = 200;
+    private static final long COMPACT_JOURNAL_BYTES = 512 * 1024;
+    private static final long COMPACT_INTERVAL_MS = 60_000;
+
+    private final Context context;
+    private final File directory;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    // .docx üretimi yavaştır; günlük yazımını geciktirmemesi için ayrı thread'de, yalnızca en son içerikle yapılır
+    private final ExecutorService docxExecutor = Executors.newSingleThreadExecutor();
+    private final AtomicReference<String[]> pendingDocxSnapshot = new AtomicReference<>();
+
+    // UI thread ile paylaşılır, this ile korunur
+    private String pendingHtml;
+    private long firstPendingAt;
+    private ScheduledFuture<?> scheduledFlush;
+    private boolean started;
+    private boolean shutdown;
+
+    // Yalnızca autosave thread'inde kullanılır
+    private String documentKey;
+    // Yeni belgede null; değişiklikler bu dosyanın o anki sürümüyle birlikte yazılır
+    private File documentFile;
+    private String lastHtml;
+    private AutosaveJournal journal;
+    private long lastCompactionAt;
+
+    public interface RecoveryCallback {
+        void onRecovered(String html);
+    }
+
+    public AutosaveManager(Context context) {
+        this.context = context;
+        this.directory = new File(context.getFilesDir(), DIRECTORY_NAME);
+    }
+
+    // Belge yüklendikten sonra çağrılır; öncesindeki değişiklik bildirimleri yok sayılır
+    public synchronized void start(String filePath) {
+        if (shutdown) {
+            return;
+        }
+        cancelScheduledFlush();
+        pendingHtml = null;
+        started = true;
+        String key = keyFor(filePath);
+        File file = filePath != null && !filePath.isEmpty() ? new File(filePath) : null;
+        executor.execute(() -> {
+            closeJournal();
+            documentKey = key;
+            documentFile = file;
+            lastHtml = null;
+        });
+    }
+
+    // UI thread'den her içerik değişikliğinde çağrılır; art arda gelen değişiklikler birleştirilir
+    public synchronized void onContentChanged(String html) {
+        if (!started || shutdown || html == null) {
+            return;
+        }
+        pendingHtml = html;
+        long now = SystemClock.uptimeMillis();
+        if (scheduledFlush == null) {
+            firstPendingAt = now;
+        } else {
+            scheduledFlush.cancel(false);
+        }
+        long delay = Math.min(DEBOUNCE_MS, Math.max(0, firstPendingAt + MAX_DELAY_MS - now));
+        scheduledFlush = executor.schedule(this::flushPending, delay, TimeUnit.MILLISECONDS);
+    }
+
+    // Bekleyen değişikliği hemen yazar (onPause vb.)
+    public synchronized void flush() {
+        if (shutdown || pendingHtml == null) {
+            return;
+        }
+        cancelScheduledFlush();
+        executor.execute(this::flushPending);
+    }
+
+    // Belge kaydedildi ya da değişiklikler bilerek atıldı: kurtarma verisi silinir
+    public synchronized void clear() {
+        if (shutdown) {
+            return;
+        }
+        cancelScheduledFlush();
+        pendingHtml = null;
+        executor.execute(() -> {
+            closeJournal();
+            if (documentKey != null) {
+                deleteFiles(documentKey);
+            }
+            lastHtml = null;
+        });
+    }
+
+    public synchronized void shutdown() {
+        if (shutdown) {
+            return;
+        }
+        cancelScheduledFlush();
+        shutdown = true;
+        String html = pendingHtml;
+        pendingHtml = null;
+        // .docx thread'i son yazımdan sonra kapatılır; son yazım sıkıştırma yaparsa anlık görüntüsü reddedilmez
+        executor.execute(() -> {
+            if (html != null) {
+                writeChange(html);
+            }
+            closeJournal();
+            docxExecutor.shutdown();
+        });
+        executor.shutdown();
+    }
+
+    // Belge için son kaydetmeden yeni kurtarma verisi varsa kullanıcıya sorar
+    public void checkForRecovery(String filePath, RecoveryCallback callback) {
+        String key = keyFor(filePath);
+        executor.execute(() -> {
+            File base = baseFile(key);
+            if (!base.exists() && !docxFile(key).exists()) {
+                return;
+            }
+            String html = readRecoveredHtml(key, filePath != null ? new File(filePath) : null);
+            if (html == null) {
+                // Belge son değişiklikten sonra kaydedilmiş
+                deleteFiles(key);
+                return;
+            }
+            if (html.trim().isEmpty()) {
+                return;
+            }
+            ((android.app.Activity) context).runOnUiThread(() -> showRecoveryDialog(html, callback));
+        });
+    }
+
+    private void showRecoveryDialog(String html, RecoveryCallback callback) {
+        android.app.Activity activity = (android.app.Activity) context;
+        if (activity.isFinishing()) {
+            return;
+        }
+        new MaterialAlertDialogBuilder(context)
+                .setTitle("Kaydedilmemiş Değişiklikler")
+                .setMessage("Bu belge için otomatik kaydedilmiş değişiklikler bulundu. Geri yüklemek ister misiniz?")
+                .setPositiveButton("Geri Yükle", (dialog, which) -> callback.onRecovered(html))
+                .setNegativeButton("Sil", (dialog, which) -> clear())
+                .setCancelable(false)
+                .show();
+    }
+
+    private void cancelScheduledFlush() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+    }
+
+    private void flushPending() {
+        String html;
+        synchronized (this) {
+            html = pendingHtml;
+            pendingHtml = null;
+            scheduledFlush = null;
+        }
+        if (html != null) {
+            writeChange(html);
+        }
+    }
+
+    private void writeChange(String html) {
+        if (documentKey == null || html.equals(lastHtml)) {
+            return;
+        }
+        try {
+            if (lastHtml == null || journal == null || journal.getEntryCount() >= COMPACT_ENTRY_COUNT
+                    || journal.getByteCount() >= COMPACT_JOURNAL_BYTES
+                    || SystemClock.uptimeMillis() - lastCompactionAt >= COMPACT_INTERVAL_MS) {
+                compact(html);
+                return;
+            }
+
+            journal.appendChange(lastHtml, html, documentLength(), documentModified());
+            lastHtml = html;
+        } catch (IOException e) {
+            Log.e(TAG, "❌ Otomatik kaydetme hatası: " + e.getMessage());
+            // Bir sonraki değişiklikte taban yeniden yazılır
+            closeJournal();
+            lastHtml = null;
+        }
+    }
+
+    // Tüm içerik yeni taban olarak yazılır, günlük sıfırlanır ve .docx anlık görüntüsü üretilir
+    private void compact(String html) throws IOException {
+        long startTime = System.currentTimeMillis();
+        closeJournal();
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Otomatik kaydetme klasörü oluşturulamadı");
+        }
+
+        // Taban ve günlük aynı nesil numarasını taşır; yarıda kalan sıkıştırmada eski günlük uygulanmaz
+        long generation = System.nanoTime();
+        AutosaveJournal.writeBase(baseFile(documentKey), new File(directory, documentKey + ".base.tmp"),
+                generation, documentLength(), documentModified(), html);
+        journal = AutosaveJournal.create(journalFile(documentKey), generation);
+        lastHtml = html;
+        lastCompactionAt = SystemClock.uptimeMillis();
+
+        Log.d(TAG, "💾 Otomatik kaydetme sıkıştırıldı: " + html.length() + " karakter, "
+                + (System.currentTimeMillis() - startTime) + " ms");
+
+        if (pendingDocxSnapshot.getAndSet(new String[]{documentKey, html}) == null) {
+            try {
+                docxExecutor.execute(this::writeDocxSnapshot);
+            } catch (RejectedExecutionException e) {
+                // Kapanıyor; kurtarma için taban ve günlük yeterli
+                pendingDocxSnapshot.set(null);
+            }
+        }
+    }
+
+    private void writeDocxSnapshot() {
+        String[] snapshot = pendingDocxSnapshot.getAndSet(null);
+        // Bu arada kurtarma verisi silindiyse anlık görüntü de gereksiz
+        if (snapshot == null || !baseFile(snapshot[0]).exists()) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        if (WordDocumentHelper.saveHtmlToDocx(docxFile(snapshot[0]).getAbsolutePath(), snapshot[1])) {
+            Log.d(TAG, "📄 .docx anlık görüntüsü yazıldı: " + (System.currentTimeMillis() - startTime) + " ms");
+        } else {
+            Log.w(TAG, "⚠️ Otomatik kaydetme .docx anlık görüntüsü yazılamadı");
+        }
+    }
+
+    // Belge, okunan son değişiklik yazıldığından beri değiştiyse null döner
+    private String readRecoveredHtml(String key, File document) {
+        AutosaveJournal.Recovered recovered;
+        try {
+            recovered = AutosaveJournal.read(baseFile(key), journalFile(key));
+        } catch (IOException e) {
+            // Taban okunamazsa son .docx anlık görüntüsüne düşülür
+            Log.w(TAG, "⚠️ Otomatik kaydetme tabanı okunamadı: " + e.getMessage());
+            return readSnapshotHtml(key, document);
+        }
+        if (document != null && (document.length() != recovered.documentLength
+                || document.lastModified() != recovered.documentModified)) {
+            return null;
+        }
+        // Taban ve günlük resimleri önbellekteki adresleriyle tutar; önbellek açılışta kırpılmış ya da
+        // sistemce temizlenmişse resimleri gömülü taşıyan .docx anlık görüntüsü kullanılır. Aksi halde
+        // sonraki kaydetme eksik resimleri yer tutucuyla değiştirirdi.
+        ImageStore store = ImageStore.getInstance();
+        if (recovered.html.contains(ImageStore.URL_PREFIX) && (store == null || !store.hasAllImages(recovered.html))) {
+            String snapshot = readSnapshotHtml(key, document);
+            if (snapshot != null) {
+                Log.w(TAG, "⚠️ Kurtarma verisindeki resimler önbellekte yok, .docx anlık görüntüsü kullanılıyor");
+                return snapshot;
+            }
+            Log.w(TAG, "⚠️ Kurtarma verisindeki bazı resimler önbellekte yok ve anlık görüntü kullanılamıyor");
+        }
+        Log.d(TAG, "🔁 Kurtarma verisi okundu: " + recovered.applied + " değişiklik uygulandı");
+        return recovered.html;
+    }
+
+    // Anlık görüntü yoksa ya da belge ondan sonra kaydedilmişse null döner
+    private String readSnapshotHtml(String key, File document) {
+        File docx = docxFile(key);
+        if (!docx.exists() || (document != null && document.lastModified() >= docx.lastModified())) {
+            return null;
+        }
+        WordDocumentHelper.WordContent wordContent = WordDocumentHelper.readWordDocument(docx.getAbsolutePath());
+        return wordContent.isSuccess() ? wordContent.getContent() : "";
+    }
+
+    private long documentLength() {
+        return documentFile != null ? documentFile.length() : 0;
+    }
+
+    private long documentModified() {
+        return documentFile != null ? documentFile.lastModified() : 0;
+    }
+
+    private void closeJournal() {
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                Log.w(TAG, "⚠️ Günlük kapatılamadı: " + e.getMessage());
+            }
+        }
+        journal = null;
+    }
+
+    private void deleteFiles(String key) {
+        baseFile(key).delete();
+        journalFile(key).delete();
+        docxFile(key).delete();
+    }
+
+    private File baseFile(String key) {
+        return new File(directory, key + ".base");
+    }
+
+    private File journalFile(String key) {
+        return new File(directory, key + ".journal");
+    }
+
+    private File docxFile(String key) {
+        return new File(directory, key + ".docx");
+    }
+
+    private static String keyFor(String filePath) {
+        if (filePath == null || filePath.isEmpty()) {
+            return NEW_DOCUMENT_KEY;
+        }
+        return UUID.nameUUIDFromBytes(filePath.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+}
@@ -6,20 +6,56 @@ import android.util.Log;
 import android.widget.Toast;
 
 import com.documentmaster.app.utils.word.WordDocumentHelper;
+import com.documentmaster.app.utils.word.WordDocumentReader;
 import com.documentmaster.app.web.WebViewBridge;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 public class DocumentLoadManager {
 
     private static final String TAG = "DocumentLoadManager";
 
+    // İlk ekran için gönderilecek blok sayısı, sonraki parçaların blok ve karakter sınırları
+    private static final int FIRST_CHUNK_BLOCKS = 30;
+    private static final int CHUNK_BLOCKS = 100;
+    private static final int MAX_CHUNK_CHARS = 256 * 1024;
+    // Editöre iletilmeyi bekleyen en fazla parça sayısı; dönüştürücü bu sınırda bekler
+    private static final int MAX_CHUNKS_IN_FLIGHT = 3;
+    // İzin beklenirken iptal bayrağının yoklanma aralığı
+    private static final long PERMIT_POLL_MS = 100;
+
     private final Context context;
     private final WebViewBridge webViewBridge;
     private final ExecutorService executorService;
     private final LoadCallback callback;
 
+    // Aşağıdaki alanlara yalnızca UI thread'inden erişilir
+    private final ArrayDeque<PendingChunk> pendingChunks = new ArrayDeque<>();
+    private final Semaphore chunkPermits = new Semaphore(MAX_CHUNKS_IN_FLIGHT);
+    // Arka plan dönüştürücüsü her blokta ve izin beklerken bakar
+    private volatile boolean cancelled = false;
+    // Editördeki blok kimliklerinin numaralandığı dosya sürümü (ConversionCache.keyOf)
+    private volatile String loadedSourceKey;
+    private boolean editorReady = false;
+    private boolean chunkCommandRunning = false;
+    private Runnable pendingCompletion;
+
+    private static final class PendingChunk {
+        final String html;
+        final boolean first;
+
+        PendingChunk(String html, boolean first) {
+            this.html = html;
+            this.first = first;
+        }
+    }
+
     public interface LoadCallback {
         void onLoadCompleted(boolean success, String content, String fileName, String errorMessage);
     }
@@ -76,17 +112,198 @@ public class DocumentLoadManager {
         });
     }
 
+    // DOCX belgeleri parça parça yüklenir: ilk ekranlık içerik hemen editöre basılır, kalan bloklar
+    // arka planda dönüştürülüp appendHtml ile eklenir. Tamamlanınca onLoadCompleted içerik olmadan çağrılır.
+    public void loadDocumentIncrementally(String currentFilePath) {
+        if (executorService == null || TextUtils.isEmpty(currentFilePath)
+                || !currentFilePath.toLowerCase().endsWith(".docx")) {
+            loadDocument(currentFilePath);
+            return;
+        }
+
+        String fileName = new File(currentFilePath).getName();
+        executorService.execute(() -> {
+            long startTime = System.currentTimeMillis();
+            ChunkBuffer buffer = new ChunkBuffer(startTime);
+            try {
+                // Açılışta önceden dönüştürüldüyse veya yakın zamanda açıldıysa dosya yeniden ayrıştırılmaz
+                loadedSourceKey = WordDocumentReader.writeDocxBodyForEditor(currentFilePath, buffer, buffer);
+                buffer.flush();
+                Log.d(TAG, "Parçalı yükleme tamamlandı: " + buffer.chunkCount + " parça, "
+                        + (System.currentTimeMillis() - startTime) + " ms");
+
+                // Son parça editöre aktarıldıktan sonra tamamlandı bildirilir
+                ((android.app.Activity) context).runOnUiThread(() -> {
+                    if (cancelled) {
+                        return;
+                    }
+                    pendingCompletion = () -> {
+                        Toast.makeText(context, "Belge yüklendi", Toast.LENGTH_SHORT).show();
+                        if (callback != null) {
+                            callback.onLoadCompleted(true, null, fileName, null);
+                        }
+                    };
+                    drainChunkCommands();
+                });
+            } catch (InterruptedIOException e) {
+                Log.d(TAG, "Parçalı yükleme iptal edildi");
+            } catch (Exception e) {
+                Log.e(TAG, "Parçalı yükleme hatası: " + e.getMessage());
+                ((android.app.Activity) context).runOnUiThread(() -> {
+                    String errorMsg = "Yükleme hatası: " + e.getMessage();
+                    Toast.makeText(context, errorMsg, Toast.LENGTH_LONG).show();
+
+                    if (callback != null) {
+                        callback.onLoadCompleted(false, null, null, errorMsg);
+                    }
+                });
+            }
+        });
+    }
+
+    public String getLoadedSourceKey() {
+        return loadedSourceKey;
+    }
+
+    // Ekran kapanırken çağrılır. İzinler yalnızca UI thread'inden bırakıldığı için dönüştürücü
+    // beklemeden çıkar; UI thread'i onu beklerken kilitlenmez.
+    public void cancel() {
+        cancelled = true;
+        pendingChunks.clear();
+        pendingCompletion = null;
+    }
+
+    // WebView sayfası yüklendiğinde çağrılır; bekleyen parçalar sırayla editöre aktarılır
+    public void onEditorReady() {
+        editorReady = true;
+        drainChunkCommands();
+    }
+
+    private void enqueueChunk(String html, boolean first) {
+        pendingChunks.add(new PendingChunk(html, first));
+        drainChunkCommands();
+    }
+
+    private void drainChunkCommands() {
+        if (!editorReady || chunkCommandRunning) {
+            return;
+        }
+        if (pendingChunks.isEmpty()) {
+            if (pendingCompletion != null) {
+                Runnable completion = pendingCompletion;
+                pendingCompletion = null;
+                completion.run();
+            }
+            return;
+        }
+        chunkCommandRunning = true;
+        PendingChunk chunk = pendingChunks.poll();
+        Runnable onApplied = () -> {
+            chunkCommandRunning = false;
+            chunkPermits.release();
+            drainChunkCommands();
+        };
+        if (chunk.first) {
+            webViewBridge.setEditorHtml(chunk.html, onApplied);
+        } else {
+            webViewBridge.appendEditorHtml(chunk.html, onApplied);
+        }
+    }
+
+    // Dönüştürücünün yazdığı HTML'i blok sınırlarında parçalara böler
+    private final class ChunkBuffer implements Appendable, WordDocumentReader.BlockListener {
+        private final StringBuilder buffer = new StringBuilder();
+        private final long startTime;
+        private int blocksInBuffer = 0;
+        private int chunkCount = 0;
+
+        ChunkBuffer(long startTime) {
+            this.startTime = startTime;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq) {
+            buffer.append(csq);
+            return this;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) {
+            buffer.append(csq, start, end);
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) {
+            buffer.append(c);
+            return this;
+        }
+
+        @Override
+        public void onBlockWritten(int blockCount) throws IOException {
+            checkCancelled();
+            blocksInBuffer++;
+            int blockLimit = chunkCount == 0 ? FIRST_CHUNK_BLOCKS : CHUNK_BLOCKS;
+            if (blocksInBuffer >= blockLimit || buffer.length() >= MAX_CHUNK_CHARS) {
+                flush();
+            }
+        }
+
+        void flush() throws IOException {
+            // Boş belgede de ilk parça gönderilir ki editör yer tutucuyu göstersin
+            if (chunkCount > 0 && buffer.length() == 0) {
+                return;
+            }
+            String html = buffer.toString();
+            boolean first = chunkCount == 0;
+            buffer.setLength(0);
+            blocksInBuffer = 0;
+            chunkCount++;
+            if (first) {
+                Log.d(TAG, "İlk parça hazır: " + (System.currentTimeMillis() - startTime) + " ms");
+            }
+
+            try {
+                while (!chunkPermits.tryAcquire(PERMIT_POLL_MS, TimeUnit.MILLISECONDS)) {
+                    checkCancelled();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Yükleme iptal edildi");
+            }
+            checkCancelled();
+            ((android.app.Activity) context).runOnUiThread(() -> {
+                if (!cancelled) {
+                    enqueueChunk(html, first);
+                }
+            });
+        }
+
+        private void checkCancelled() throws InterruptedIOException {
+            if (cancelled) {
+                throw new InterruptedIOException("Yükleme iptal edildi");
+            }
+        }
+    }
+
     public void setEditorContent(String content, boolean isWebViewLoaded) {
+        setEditorContent(content, isWebViewLoaded, null);
+    }
+
+    // İçerik JS kaynak koduna gömülmez; onApplied editör içeriği uyguladıktan sonra çalışır
+    public void setEditorContent(String content, boolean isWebViewLoaded, Runnable onApplied) {
         if (!isWebViewLoaded || content == null) {
             Log.d(TAG, "WebView hazır değil veya içerik null");
             return;
         }
-        try {
-            String jsCommand = "setHtml('" + content + "')";
-            webViewBridge.executeJS(jsCommand);
-        } catch (Exception e) {
-            Log.e(TAG, "Editöre içerik yükleme hatası: " + e.getMessage());
-            webViewBridge.executeJS("setHtml('<p>İçerik yüklenemedi</p>')");
-        }
+        webViewBridge.setEditorHtml(content, onApplied);
+    }
+
+    // Kurtarılan içerik diskteki belgeyle eşleşmez; blok kimlikleri temizlenir ki tam kaydetme yapılsın
+    public void setRecoveredContent(String html) {
+        webViewBridge.setEditorHtml(html, () -> {
+            webViewBridge.clearBlockIds();
+            webViewBridge.notifyContentChange();
+        });
     }
-}
\ No newline at end of file
+}
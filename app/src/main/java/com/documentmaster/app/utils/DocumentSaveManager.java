@@ -8,11 +8,15 @@ import android.widget.EditText;
 import android.widget.Toast;
 
 import com.documentmaster.app.R;
+import com.documentmaster.app.utils.word.ConversionCache;
+import com.documentmaster.app.utils.word.IncrementalDocxSaver;
+import com.documentmaster.app.utils.word.SaveProgress;
 import com.documentmaster.app.utils.word.WordDocumentHelper;
 import com.documentmaster.app.web.WebViewBridge;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.concurrent.ExecutorService;
 
 public class DocumentSaveManager {
@@ -21,11 +25,21 @@ public class DocumentSaveManager {
 
     private final Context context;
     private final WebViewBridge webViewBridge;
-    private final ExecutorService executorService;
+    private final SaveCoordinator saveCoordinator;
     private final SaveCallback callback;
 
+    // Editördeki blok kimliklerinin karşılık geldiği dosya, o dosyanın sürüm anahtarı ve o dosyaya
+    // yapılmış kaydetme sayısı. Arada başka bir kaydetme yazdıysa ya da dosya dışarıdan değiştiyse
+    // numaralar eskimiştir; artımlı kaydetme yerine tüm HTML yazılır.
+    private String blockIdsPath;
+    private String blockIdsKey;
+    private int blockIdsCommitCount;
+    // En son başlatılan kaydetmenin hedef dosyası; iptal isteği buna uygulanır
+    private String activeSavePath;
+
     public interface SaveCallback {
         void onSaveStarted();
+        void onSaveProgress(SaveProgress.Stage stage);
         void onSaveCompleted(boolean success, String message);
         void onContentChanged(boolean isChanged);
         void onFilePathChanged(String newFilePath, String fileName);
@@ -34,47 +48,123 @@ public class DocumentSaveManager {
                                ExecutorService executorService, SaveCallback callback) {
         this.context = context;
         this.webViewBridge = webViewBridge;
-        this.executorService = executorService;
+        this.saveCoordinator = new SaveCoordinator(executorService);
         this.callback = callback;
     }
 
+    // Belge editöre yüklendiğinde çağrılır; sourceKey null ise artımlı kaydetme yapılmaz
+    public void setBlockIdsSource(String filePath, String sourceKey) {
+        blockIdsPath = sourceKey != null ? filePath : null;
+        blockIdsKey = sourceKey;
+        blockIdsCommitCount = filePath != null ? saveCoordinator.getCommitCount(filePath) : 0;
+    }
+
+    // Süren kaydetmeyi bırakır; yazılmış dosyaya dokunulmaz. Dosya yazımı başladıysa kaydetme tamamlanır.
+    public void cancelSave() {
+        if (activeSavePath != null) {
+            saveCoordinator.cancel(activeSavePath);
+        }
+    }
+
+    private void submit(String path, SaveCoordinator.SaveJob job, SaveCoordinator.Listener listener) {
+        activeSavePath = path;
+        saveCoordinator.submit(path, job, listener);
+    }
+
     public void saveDocument(String currentFilePath, boolean isNewDocument) {
         if (isNewDocument || currentFilePath == null || currentFilePath.isEmpty()) {
             saveDocumentAs(currentFilePath);
             return;
         }
         notifyStarted();
-        webViewBridge.getHtml(html -> {
-            Log.d("deneme",html);
-            saveHtmlToFile(html, currentFilePath);
+        if (hasBlockIdsFor(currentFilePath)) {
+            int expectedCommitCount = blockIdsCommitCount;
+            String expectedKey = blockIdsKey;
+            webViewBridge.getBlockChanges(changesJson -> saveBlockChanges(changesJson, currentFilePath,
+                    currentFilePath, null, expectedCommitCount, expectedKey));
+            return;
+        }
+        saveFullHtml(currentFilePath, null);
+    }
+
+    // Sadece yüklemeden beri değişen bloklar yeniden üretilir; blok takibi yoksa
+    // veya artımlı kaydetme başarısız olursa tüm HTML ile kaydetmeye düşülür
+    private void saveBlockChanges(String changesJson, String sourcePath, String targetPath, String fileName,
+                                  int expectedCommitCount, String expectedKey) {
+        IncrementalDocxSaver.BlockChanges changes = IncrementalDocxSaver.parseBlockChanges(changesJson);
+        if (changes == null) {
+            saveFullHtml(targetPath, fileName);
+            return;
+        }
+        int[][] blockCounts = new int[1][];
+        String[] savedKey = new String[1];
+        submit(targetPath, progress -> {
+            if (saveCoordinator.getCommitCount(sourcePath) != expectedCommitCount) {
+                throw new IOException("Belge bu arada kaydedildi, blok numaraları güncel değil");
+            }
+            blockCounts[0] = WordDocumentHelper.saveBlockChangesToDocx(sourcePath, targetPath, changes,
+                    expectedKey, progress);
+            savedKey[0] = ConversionCache.keyOf(targetPath);
+        }, new UiSaveListener() {
+            @Override
+            void onSaved(int commitCount) {
+                webViewBridge.applySavedBlockIds(changes.token, blockCounts[0]);
+                blockIdsPath = savedKey[0] != null ? targetPath : null;
+                blockIdsKey = savedKey[0];
+                blockIdsCommitCount = commitCount;
+                if (fileName == null) {
+                    notifyResult(true, "✅ Belge kaydedildi!");
+                } else {
+                    notifyResult(true, "✅ Belge kaydedildi: " + fileName);
+                    notifyFilePathChanged(targetPath, fileName);
+                }
+                markContentAsUnchanged();
+            }
+
+            @Override
+            void onError(Exception e) {
+                Log.e(TAG, "⚠️ Artımlı kaydetme başarısız, tam kaydetme yapılıyor: " + e.getMessage());
+                webViewBridge.discardBlockSnapshot();
+                saveFullHtml(targetPath, fileName);
+            }
+
+            @Override
+            void onDropped() {
+                webViewBridge.discardBlockSnapshot();
+            }
         });
     }
-    private void saveHtmlToFile(String htmlResult, String filePath) {
 
-        String cleanHtml = HtmlUtils.cleanHtmlResult(htmlResult);
-        Log.d("deneme",cleanHtml);
+    private void saveFullHtml(String filePath, String fileName) {
+        webViewBridge.getHtml(html -> {
+            if (fileName == null) {
+                saveHtmlToFile(html, filePath);
+            } else {
+                saveHtmlToFileAs(html, filePath, fileName);
+            }
+        });
+    }
+    private void saveHtmlToFile(String cleanHtml, String filePath) {
         if (cleanHtml == null || cleanHtml.trim().isEmpty()) {
             notifyResult(false, "❌ İçerik boş - kaydetme iptal edildi");
             return;
         }
-        executorService.execute(() -> {
-            try {
-                boolean success = WordDocumentHelper.saveHtmlToDocx(filePath, cleanHtml);
-
-                ((android.app.Activity) context).runOnUiThread(() -> {
-                    if (success) {
+        submit(filePath, progress -> WordDocumentHelper.saveHtmlToDocx(filePath, cleanHtml, progress),
+                new UiSaveListener() {
+                    @Override
+                    void onSaved(int commitCount) {
+                        // Belge baştan yazıldı; editördeki blok kimlikleri artık geçersiz
+                        webViewBridge.clearBlockIds();
+                        blockIdsPath = null;
                         notifyResult(true, "✅ Belge kaydedildi!");
                         markContentAsUnchanged();
-                    } else {
-                        notifyResult(false, "❌ Belge kaydedilemedi");
+                    }
+
+                    @Override
+                    void onError(Exception e) {
+                        notifyResult(false, "❌ Kaydetme hatası: " + e.getMessage());
                     }
                 });
-            } catch (Exception e) {
-                ((android.app.Activity) context).runOnUiThread(() -> {
-                    notifyResult(false, "❌ Kaydetme hatası: " + e.getMessage());
-                });
-            }
-        });
     }
     //-----------------saveDocumentAs------------------------//
     public void saveDocumentAs(String currentFilePath) {
@@ -96,7 +186,7 @@ public class DocumentSaveManager {
                 .setPositiveButton("Kaydet", (dialog, which) -> {
                     String fileName = editFileName.getText().toString().trim();
                     if (!TextUtils.isEmpty(fileName)) {
-                        saveAsNewFile(fileName);
+                        saveAsNewFile(fileName, currentFilePath);
                     } else {
                         showMessage("Dosya adı boş olamaz");
                     }
@@ -104,7 +194,7 @@ public class DocumentSaveManager {
                 .setNegativeButton("İptal", null)
                 .show();
     }
-    private void saveAsNewFile(String fileName) {
+    private void saveAsNewFile(String fileName, String sourcePath) {
         if (!fileName.endsWith(".docx")) {
             fileName += ".docx";
         }
@@ -115,37 +205,89 @@ public class DocumentSaveManager {
         String newFilePath = new File(documentsDir, fileName).getAbsolutePath();
         final String finalFileName = fileName;
         notifyStarted();
-        webViewBridge.getHtml(htmlResult -> {
-            saveHtmlToFileAs(htmlResult, newFilePath, finalFileName);
-        });
+        if (hasBlockIdsFor(sourcePath)) {
+            // Kaynak belge paketi korunarak yeni dosyaya yazılır
+            int expectedCommitCount = blockIdsCommitCount;
+            String expectedKey = blockIdsKey;
+            webViewBridge.getBlockChanges(changesJson -> saveBlockChanges(changesJson, sourcePath,
+                    newFilePath, finalFileName, expectedCommitCount, expectedKey));
+            return;
+        }
+        saveFullHtml(newFilePath, finalFileName);
     }
 
-    private void saveHtmlToFileAs(String htmlResult, String newFilePath, String fileName) {
-        String cleanHtml = HtmlUtils.cleanHtmlResult(htmlResult);
+    private void saveHtmlToFileAs(String cleanHtml, String newFilePath, String fileName) {
         if (cleanHtml == null || cleanHtml.trim().isEmpty()) {
             notifyResult(false, "❌ İçerik boş - kaydetme iptal edildi");
             return;
         }
-        executorService.execute(() -> {
-            try {
-                boolean success = WordDocumentHelper.saveHtmlToDocx(newFilePath, cleanHtml);
-
-                ((android.app.Activity) context).runOnUiThread(() -> {
-                    if (success) {
+        submit(newFilePath, progress -> WordDocumentHelper.saveHtmlToDocx(newFilePath, cleanHtml, progress),
+                new UiSaveListener() {
+                    @Override
+                    void onSaved(int commitCount) {
+                        webViewBridge.clearBlockIds();
+                        blockIdsPath = null;
                         notifyResult(true, "✅ Belge kaydedildi: " + fileName);
                         notifyFilePathChanged(newFilePath, fileName);
                         markContentAsUnchanged();
-                    } else {
-                        notifyResult(false, "❌ Belge kaydedilemedi");
                     }
-                });
 
-            } catch (Exception e) {
-                ((android.app.Activity) context).runOnUiThread(() -> {
-                    notifyResult(false, "❌ Kaydetme hatası: " + e.getMessage());
+                    @Override
+                    void onError(Exception e) {
+                        notifyResult(false, "❌ Kaydetme hatası: " + e.getMessage());
+                    }
                 });
+    }
+
+    private boolean hasBlockIdsFor(String sourcePath) {
+        return sourcePath != null && sourcePath.equals(blockIdsPath) && blockIdsKey != null
+                && IncrementalDocxSaver.canSaveIncrementally(sourcePath);
+    }
+
+    // Koordinatör bildirimlerini UI iş parçacığına taşır. Yerini yenisine bırakan kaydetme
+    // sessizce biter; sonucu yeni kaydetme bildirir.
+    private abstract class UiSaveListener implements SaveCoordinator.Listener {
+
+        abstract void onSaved(int commitCount);
+
+        abstract void onError(Exception e);
+
+        void onDropped() {
+        }
+
+        @Override
+        public void onProgress(SaveProgress.Stage stage) {
+            runOnUiThread(() -> {
+                if (callback != null) {
+                    callback.onSaveProgress(stage);
+                }
+            });
+        }
+
+        @Override
+        public void onCompleted(int commitCount) {
+            runOnUiThread(() -> onSaved(commitCount));
+        }
+
+        @Override
+        public void onFailed(Exception e) {
+            runOnUiThread(() -> onError(e));
+        }
+
+        @Override
+        public void onCancelled(boolean superseded) {
+            if (superseded) {
+                return;
             }
-        });
+            runOnUiThread(() -> {
+                onDropped();
+                notifyResult(false, "⏹️ Kaydetme iptal edildi");
+            });
+        }
+
+        private void runOnUiThread(Runnable action) {
+            ((android.app.Activity) context).runOnUiThread(action);
+        }
     }
 
     private void notifyFilePathChanged(String newFilePath, String fileName) {
@@ -0,0 +1,159 @@
+package com.documentmaster.app.utils;
+
+import android.util.Log;
+
+import com.documentmaster.app.utils.word.SaveProgress;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+// Aynı dosyaya yazan kaydetmeler sıraya sokulur: bir dosya için en fazla bir iş çalışır, bir iş de
+// bekler. Yeni anlık görüntü yalnızca bekleyen işin yerini alır; çalışan iş bitirilir, yoksa art arda
+// kaydetmeler neredeyse bitmiş yazımları atar ve hiçbiri dosyaya ulaşmaz. Çalışan iş yalnızca cancel
+// ile, bir sonraki aşama başında bırakılır.
+public class SaveCoordinator {
+
+    private static final String TAG = "SaveCoordinator";
+
+    public interface SaveJob {
+        void run(SaveProgress progress) throws IOException;
+    }
+
+    // Çağrılar arka plan iş parçacığından yapılır
+    public interface Listener {
+        void onProgress(SaveProgress.Stage stage);
+        void onCompleted(int commitCount);
+        void onFailed(Exception e);
+        // superseded: daha yeni bir kaydetme bu işin yerini aldı
+        void onCancelled(boolean superseded);
+    }
+
+    private static final class Task implements SaveProgress {
+        final String path;
+        final SaveJob job;
+        final Listener listener;
+        volatile boolean cancelled;
+
+        Task(String path, SaveJob job, Listener listener) {
+            this.path = path;
+            this.job = job;
+            this.listener = listener;
+        }
+
+        @Override
+        public void onStage(Stage stage) throws InterruptedIOException {
+            if (cancelled) {
+                throw new InterruptedIOException("Kaydetme iptal edildi");
+            }
+            listener.onProgress(stage);
+        }
+    }
+
+    private static final class PathState {
+        Task running;
+        Task pending;
+    }
+
+    private final ExecutorService executorService;
+    private final Map<String, PathState> states = new HashMap<>();
+    // Dosyaya başarıyla yazılan kaydetme sayısı; artımlı kaydetme blok numaralarının güncelliğini bununla denetler
+    private final Map<String, Integer> commitCounts = new HashMap<>();
+
+    public SaveCoordinator(ExecutorService executorService) {
+        this.executorService = executorService;
+    }
+
+    public void submit(String path, SaveJob job, Listener listener) {
+        Task dropped;
+        synchronized (this) {
+            PathState state = states.get(path);
+            if (state == null) {
+                state = new PathState();
+                states.put(path, state);
+            }
+            Task task = new Task(path, job, listener);
+            dropped = state.pending;
+            if (state.running != null) {
+                state.pending = task;
+            } else {
+                state.pending = null;
+                start(state, task);
+            }
+        }
+        if (dropped != null) {
+            Log.d(TAG, "⏭️ Bekleyen kaydetme yenisiyle değiştirildi: " + path);
+            dropped.listener.onCancelled(true);
+        }
+    }
+
+    // Dosya için çalışan ve bekleyen kaydetmeleri iptal eder; yazılmış dosyaya dokunulmaz
+    public void cancel(String path) {
+        Task dropped;
+        synchronized (this) {
+            PathState state = states.get(path);
+            if (state == null) {
+                return;
+            }
+            if (state.running != null) {
+                state.running.cancelled = true;
+            }
+            dropped = state.pending;
+            state.pending = null;
+        }
+        if (dropped != null) {
+            dropped.listener.onCancelled(false);
+        }
+    }
+
+    public synchronized int getCommitCount(String path) {
+        Integer count = commitCounts.get(path);
+        return count != null ? count : 0;
+    }
+
+    // Kilit tutulurken çağrılır
+    private void start(PathState state, Task task) {
+        state.running = task;
+        try {
+            executorService.execute(() -> run(state, task));
+        } catch (RejectedExecutionException e) {
+            state.running = null;
+            states.remove(task.path);
+            task.listener.onFailed(e);
+        }
+    }
+
+    private void run(PathState state, Task task) {
+        try {
+            if (task.cancelled) {
+                throw new InterruptedIOException("Kaydetme iptal edildi");
+            }
+            task.job.run(task);
+            int commitCount;
+            synchronized (this) {
+                commitCount = getCommitCount(task.path) + 1;
+                commitCounts.put(task.path, commitCount);
+            }
+            task.listener.onCompleted(commitCount);
+        } catch (InterruptedIOException e) {
+            Log.d(TAG, "⏹️ Kaydetme bırakıldı: " + task.path);
+            task.listener.onCancelled(false);
+        } catch (Exception e) {
+            task.listener.onFailed(e);
+        } finally {
+            synchronized (this) {
+                state.running = null;
+                Task next = state.pending;
+                state.pending = null;
+                if (next != null) {
+                    start(state, next);
+                } else {
+                    states.remove(task.path);
+                }
+            }
+        }
+    }
+}
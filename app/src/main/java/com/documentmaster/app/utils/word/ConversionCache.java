@@ -0,0 +1,131 @@
+package com.documentmaster.app.utils.word;
+
+import android.content.ComponentCallbacks2;
+import android.util.Log;
+import android.util.LruCache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+// Süreç genelinde DOCX dönüşüm sonuçları (editör HTML'i, istatistikler). Anahtar yol + boyut +
+// değişiklik zamanı + içerik özetidir; içerik özeti ZIP merkez dizinindeki girdi CRC'lerinden
+// üretilir, dosya gövdesi okunmaz. Toplam boyut bayt cinsinden sınırlıdır.
+public final class ConversionCache {
+
+    private static final String TAG = "ConversionCache";
+    private static final int MAX_BYTES = (int) Math.min(Runtime.getRuntime().maxMemory() / 8, 32L * 1024 * 1024);
+
+    // Tek anahtar altında değiştirilemez kayıt; güncelleme yeni kayıtla yapılır ki boyut hesabı bozulmasın
+    private static final class Entry {
+        final ConvertedDocument html;
+        final DocumentStatistics statistics;
+
+        Entry(ConvertedDocument html, DocumentStatistics statistics) {
+            this.html = html;
+            this.statistics = statistics;
+        }
+
+        int sizeInBytes() {
+            return 256 + (html != null ? html.sizeInBytes() : 0);
+        }
+    }
+
+    private static final LruCache<String, Entry> cache = new LruCache<String, Entry>(MAX_BYTES) {
+        @Override
+        protected int sizeOf(String key, Entry entry) {
+            return entry.sizeInBytes();
+        }
+    };
+
+    // Dosya kaydedilince eski sürümün kaydı hemen bırakılır
+    private static final Map<String, String> keysByPath = new HashMap<>();
+
+    private ConversionCache() {
+    }
+
+    // DOCX değilse veya okunamıyorsa null
+    public static String keyOf(String filePath) {
+        File file = new File(filePath);
+        if (!file.isFile()) {
+            return null;
+        }
+        try (ZipFile zipFile = new ZipFile(file)) {
+            CRC32 digest = new CRC32();
+            ByteBuffer buffer = ByteBuffer.allocate(16);
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                digest.update(entry.getName().getBytes(StandardCharsets.UTF_8));
+                buffer.clear();
+                buffer.putLong(entry.getCrc()).putLong(entry.getSize());
+                digest.update(buffer.array());
+            }
+            return file.getAbsolutePath() + "|" + file.length() + "|" + file.lastModified()
+                    + "|" + Long.toHexString(digest.getValue());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    static ConvertedDocument getHtml(String key) {
+        Entry entry = key != null ? cache.get(key) : null;
+        return entry != null ? entry.html : null;
+    }
+
+    static DocumentStatistics getStatistics(String key) {
+        Entry entry = key != null ? cache.get(key) : null;
+        return entry != null ? entry.statistics : null;
+    }
+
+    static void putHtml(String key, ConvertedDocument html) {
+        if (key == null || html.sizeInBytes() > MAX_BYTES / 2) {
+            // Çok büyük belgeler diğer tüm kayıtları atmasın diye önbelleğe alınmaz
+            return;
+        }
+        synchronized (cache) {
+            Entry existing = cache.get(key);
+            put(key, new Entry(html, existing != null ? existing.statistics : null));
+        }
+    }
+
+    static void putStatistics(String key, DocumentStatistics statistics) {
+        if (key == null) {
+            return;
+        }
+        synchronized (cache) {
+            Entry existing = cache.get(key);
+            put(key, new Entry(existing != null ? existing.html : null, statistics));
+        }
+    }
+
+    private static void put(String key, Entry entry) {
+        String path = key.substring(0, key.indexOf('|'));
+        String previousKey = keysByPath.put(path, key);
+        if (previousKey != null && !previousKey.equals(key)) {
+            cache.remove(previousKey);
+        }
+        cache.put(key, entry);
+    }
+
+    // Application.onTrimMemory'den çağrılır
+    public static void onTrimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+            cache.evictAll();
+            synchronized (cache) {
+                keysByPath.clear();
+            }
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            cache.trimToSize(MAX_BYTES / 2);
+        }
+        Log.d(TAG, "🧹 Bellek uyarısı (" + level + "): önbellek " + cache.size() / 1024 + " KB");
+    }
+}
@@ -0,0 +1,107 @@
+package com.documentmaster.app.utils.word;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+// DOCX → HTML dönüştürücü çıktısı ve blok sınırları. Dönüşüm sırasında kaydedilir (isteğe bağlı
+// olarak asıl hedefe de aktarılarak), sonra editörün parça yükleyicisine aynen yeniden oynatılır.
+final class ConvertedDocument implements Appendable, WordDocumentReader.BlockListener {
+
+    private final StringBuilder html = new StringBuilder();
+    private Appendable forwardOut;
+    private WordDocumentReader.BlockListener forwardListener;
+    private int[] blockEnds = new int[64];
+    private int blockCount;
+
+    ConvertedDocument() {
+        this(null, null);
+    }
+
+    // Kayıt yapılırken çıktı out/listener'a da hemen iletilir
+    ConvertedDocument(Appendable forwardOut, WordDocumentReader.BlockListener forwardListener) {
+        this.forwardOut = forwardOut;
+        this.forwardListener = forwardListener;
+    }
+
+    // Disk önbelleğinden okunan sonuç
+    ConvertedDocument(String html, int[] blockEnds, int blockCount) {
+        this.html.append(html);
+        this.blockEnds = blockEnds;
+        this.blockCount = blockCount;
+    }
+
+    // Kayıt bitince iletim hedefleri bırakılır; önbellekteki sonuç editörü bellekte tutmasın
+    void finish() {
+        forwardOut = null;
+        forwardListener = null;
+    }
+
+    @Override
+    public Appendable append(CharSequence csq) throws IOException {
+        html.append(csq);
+        if (forwardOut != null) {
+            forwardOut.append(csq);
+        }
+        return this;
+    }
+
+    @Override
+    public Appendable append(CharSequence csq, int start, int end) throws IOException {
+        html.append(csq, start, end);
+        if (forwardOut != null) {
+            forwardOut.append(csq, start, end);
+        }
+        return this;
+    }
+
+    @Override
+    public Appendable append(char c) throws IOException {
+        html.append(c);
+        if (forwardOut != null) {
+            forwardOut.append(c);
+        }
+        return this;
+    }
+
+    @Override
+    public void onBlockWritten(int count) throws IOException {
+        if (blockCount == blockEnds.length) {
+            blockEnds = Arrays.copyOf(blockEnds, blockEnds.length * 2);
+        }
+        blockEnds[blockCount++] = html.length();
+        if (forwardListener != null) {
+            forwardListener.onBlockWritten(count);
+        }
+    }
+
+    int getBlockCount() {
+        return blockCount;
+    }
+
+    int getBlockEnd(int index) {
+        return blockEnds[index];
+    }
+
+    CharSequence getHtml() {
+        return html;
+    }
+
+    // Önbellek boyutu hesabı için yaklaşık bellek kullanımı
+    int sizeInBytes() {
+        return html.length() * 2 + blockEnds.length * 4;
+    }
+
+    void replay(Appendable out, WordDocumentReader.BlockListener listener) throws IOException {
+        int start = 0;
+        for (int i = 0; i < blockCount; i++) {
+            out.append(html, start, blockEnds[i]);
+            start = blockEnds[i];
+            if (listener != null) {
+                listener.onBlockWritten(i + 1);
+            }
+        }
+        if (start < html.length()) {
+            out.append(html, start, html.length());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.documentmaster.app.utils.word;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Resimler eklenirken çağıranın iş parçacığında hazırlanır. Aynı kaynak (aynı docmaster-img://
+// adresi ya da aynı base64 verisi) bir kayıtta yalnızca bir kez çözülür; sonuç, ön taramada sayılan
+// son kullanımına kadar tutulur. Sayım yoksa (tek parça dönüşümler) dönüşüm boyunca tutulur.
+final class DirectImageSource implements DocumentConverter.ImageSource {
+
+    private final Map<String, Integer> remainingUses;
+    private final Map<String, DocumentConverter.PreparedImage> prepared = new HashMap<>();
+
+    DirectImageSource(List<HtmlNode> images) {
+        this.remainingUses = images != null ? countSources(images) : null;
+    }
+
+    static Map<String, Integer> countSources(List<HtmlNode> images) {
+        Map<String, Integer> uses = new HashMap<>();
+        for (HtmlNode image : images) {
+            uses.merge(sourceOf(image), 1, Integer::sum);
+        }
+        return uses;
+    }
+
+    static String sourceOf(HtmlNode image) {
+        String src = image.attr("src");
+        return src != null ? src : "";
+    }
+
+    @Override
+    public DocumentConverter.PreparedImage get(HtmlNode image) throws IOException {
+        String source = sourceOf(image);
+        DocumentConverter.PreparedImage result;
+        if (prepared.containsKey(source)) {
+            result = prepared.get(source);
+        } else {
+            result = DocumentConverter.prepareImage(image);
+            prepared.put(source, result);
+        }
+
+        if (remainingUses != null) {
+            Integer remaining = remainingUses.get(source);
+            if (remaining == null || remaining <= 1) {
+                remainingUses.remove(source);
+                prepared.remove(source);
+            } else {
+                remainingUses.put(source, remaining - 1);
+            }
+        }
+        return result;
+    }
+}
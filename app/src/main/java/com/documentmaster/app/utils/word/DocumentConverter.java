@@ -3,202 +3,446 @@ package com.documentmaster.app.utils.word;
 import android.util.Base64;
 import android.util.Log;
 
+import com.documentmaster.app.image.ImageStore;
+
 import org.apache.poi.util.Units;
 import org.apache.poi.xwpf.usermodel.*;
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Locale;
+import java.util.function.Supplier;
 
 public class DocumentConverter {
 
     private static final String TAG = "DocumentConverter";
+    private static final String TABLE_ATTRIBUTES =
+            " border=\"1\" style=\"border-collapse: collapse; width: 100%; margin: 10px 0;\"";
+    // Yüklemede her gövde bloğuna (paragraf/tablo) verilen kimlik; artımlı kaydetmede bloğu pakette bulur
+    static final String BLOCK_ID_ATTRIBUTE = "data-block-id";
+    private static final String BLOCK_ID_PREFIX = "b";
+    private static final String TABLE_CELL_OPEN_TAG = "<td style=\"padding: 8px; border: 1px solid #333;\">";
+
+    // Açıksa HTML → DOCX dönüşümünde resimler belgeye eklenmeden önce paralel hazırlanır
+    private static volatile boolean parallelImages = true;
+
+    public static void setParallelImages(boolean enabled) {
+        parallelImages = enabled;
+    }
+
+    public static boolean isParallelImages() {
+        return parallelImages;
+    }
 
     public static String convertParagraphToHtmlWithImages(XWPFParagraph paragraph) {
-        if (paragraph.getText().trim().isEmpty() && paragraph.getRuns().isEmpty()) {
-            return "<p><br></p>";
+        return render(out -> writeParagraphHtml(paragraph, out));
+    }
+
+    public static String convertPictureToHtml(XWPFPicture picture) {
+        return render(out -> writePictureHtml(picture, out));
+    }
+
+    public static String convertRunToHtml(XWPFRun run) {
+        return render(out -> writeRunHtml(run, out));
+    }
+
+    public static String convertTableToHtml(XWPFTable table) {
+        return render(out -> writeTableHtml(table, out));
+    }
+
+    // ========== STREAMING HTML ÇIKTISI ==========
+
+    public static void writeBodyElementHtml(IBodyElement element, Appendable out) throws IOException {
+        writeBodyElementHtml(element, -1, out);
+    }
+
+    // blockIndex >= 0 ise blok kimliği HTML'e eklenir
+    public static void writeBodyElementHtml(IBodyElement element, int blockIndex, Appendable out) throws IOException {
+        if (element instanceof XWPFParagraph) {
+            writeParagraphHtml((XWPFParagraph) element, blockIndex, out);
+        } else if (element instanceof XWPFTable) {
+            writeTableHtml((XWPFTable) element, blockIndex, out);
         }
-        StringBuilder html = new StringBuilder();
-        html.append("<p");
-        ParagraphAlignment alignment = paragraph.getAlignment();
-        if (alignment != null) {
-            switch (alignment) {
-                case CENTER:
-                    html.append(" style=\"text-align: center;\"");
-                    break;
-                case RIGHT:
-                    html.append(" style=\"text-align: right;\"");
-                    break;
-                case BOTH:
-                    html.append(" style=\"text-align: justify;\"");
-                    break;
-                default:
-                    html.append(" style=\"text-align: left;\"");
-                    break;
-            }
-        }
-        html.append(">");
+    }
+
+    public static void writeParagraphHtml(XWPFParagraph paragraph, Appendable out) throws IOException {
+        writeParagraphHtml(paragraph, -1, out);
+    }
+
+    public static void writeParagraphHtml(XWPFParagraph paragraph, int blockIndex, Appendable out) throws IOException {
         List<XWPFRun> runs = paragraph.getRuns();
+        if (isEmptyParagraph(runs.isEmpty(), paragraph.getText())) {
+            out.append("<p");
+            appendBlockId(out, blockIndex);
+            out.append("><br></p>");
+            return;
+        }
+        out.append("<p");
+        appendBlockId(out, blockIndex);
+        appendAlignmentStyle(out, paragraph.getAlignment());
+        out.append(">");
         if (runs.isEmpty()) {
-            html.append(DocumentUtils.escapeHtml(paragraph.getText()));
+            DocumentUtils.escapeHtml(paragraph.getText(), out);
         } else {
             for (XWPFRun run : runs) {
                 List<XWPFPicture> pictures = run.getEmbeddedPictures();
                 if (!pictures.isEmpty()) {
                     for (XWPFPicture picture : pictures) {
-                        html.append(convertPictureToHtml(picture));
+                        writePictureHtml(picture, out);
                     }
                 } else {
-                    html.append(convertRunToHtml(run));
+                    writeRunHtml(run, out);
                 }
             }
         }
-        html.append("</p>");
-        return html.toString();
+        out.append("</p>");
     }
 
-    public static String convertPictureToHtml(XWPFPicture picture) {
+    public static void writePictureHtml(XWPFPicture picture, Appendable out) throws IOException {
+        byte[] imageBytes = null;
+        String mimeType = null;
         try {
             XWPFPictureData pictureData = picture.getPictureData();
             if (pictureData != null) {
-                byte[] imageBytes = pictureData.getData();
-                String mimeType = pictureData.getPackagePart().getContentType();
-
-                if (imageBytes != null && imageBytes.length > 0) {
-                    String base64Image = Base64.encodeToString(imageBytes, Base64.NO_WRAP);
-                    StringBuilder imgHtml = new StringBuilder();
-                    imgHtml.append("<img src=\"data:")
-                            .append(mimeType)
-                            .append(";base64,")
-                            .append(base64Image)
-                            .append("\" ");
-
-                    imgHtml.append("style=\"max-width: 100%; height: auto; margin: 10px 0;\" ");
-                    imgHtml.append("alt=\"Belge Resmi\" />");
-
-                    Log.d(TAG, "Resim HTML'e çevrildi - Boyut: " + imageBytes.length + " bytes");
-                    return imgHtml.toString();
-                }
+                imageBytes = pictureData.getData();
+                mimeType = pictureData.getPackagePart().getContentType();
             }
         } catch (Exception e) {
             Log.e(TAG, "Resim dönüştürme hatası: " + e.getMessage());
         }
 
-        return "<p>[Resim yüklenemedi]</p>";
+        if (imageBytes != null && imageBytes.length > 0) {
+            appendImageHtml(out, imageBytes, mimeType);
+            Log.d(TAG, "Resim HTML'e çevrildi - Boyut: " + imageBytes.length + " bytes");
+        } else {
+            out.append("<p>[Resim yüklenemedi]</p>");
+        }
     }
 
-    public static String convertRunToHtml(XWPFRun run) {
+    public static void writeRunHtml(XWPFRun run, Appendable out) throws IOException {
         String text = run.getText(0);
         if (text == null || text.isEmpty()) {
-            return "";
+            return;
         }
+        appendRunHtml(out, text, run.isBold(), run.isItalic(),
+                run.getUnderline() != UnderlinePatterns.NONE,
+                run.getFontFamily(), run.getFontSize(), run.getColor());
+    }
 
-        StringBuilder html = new StringBuilder();
+    public static void writeTableHtml(XWPFTable table, Appendable out) throws IOException {
+        writeTableHtml(table, -1, out);
+    }
+
+    public static void writeTableHtml(XWPFTable table, int blockIndex, Appendable out) throws IOException {
+        appendTableOpenTag(out, blockIndex);
+
+        for (XWPFTableRow row : table.getRows()) {
+            out.append("<tr>");
+            for (XWPFTableCell cell : row.getTableCells()) {
+                List<XWPFParagraph> cellParagraphs = cell.getParagraphs();
+                List<String> paragraphTexts = new ArrayList<>(cellParagraphs.size());
+                for (XWPFParagraph para : cellParagraphs) {
+                    paragraphTexts.add(para.getText());
+                }
+                appendTableCellHtml(out, paragraphTexts);
+            }
+            out.append("</tr>");
+        }
+
+        out.append("</table>");
+    }
+
+    static void appendTableOpenTag(Appendable out, int blockIndex) throws IOException {
+        out.append("<table");
+        appendBlockId(out, blockIndex);
+        out.append(TABLE_ATTRIBUTES).append(">");
+    }
+
+    // İki okuyucu da boş paragrafı bu koşulla "<p><br></p>" olarak yazar; blok sayıları aynı kalır
+    static boolean isEmptyParagraph(boolean noRuns, String text) {
+        return noRuns && (text == null || text.trim().isEmpty());
+    }
 
-        if (run.isBold()) {
-            html.append("<strong>");
+    static void appendBlockId(Appendable out, int blockIndex) throws IOException {
+        if (blockIndex >= 0) {
+            out.append(' ').append(BLOCK_ID_ATTRIBUTE).append("=\"").append(BLOCK_ID_PREFIX)
+                    .append(Integer.toString(blockIndex)).append('"');
         }
+    }
 
-        if (run.isItalic()) {
-            html.append("<em>");
+    // "b12" -> 12; geçersiz kimlikte -1
+    static int parseBlockId(String blockId) {
+        if (blockId == null || !blockId.startsWith(BLOCK_ID_PREFIX) || blockId.length() == BLOCK_ID_PREFIX.length()) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(blockId.substring(BLOCK_ID_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
         }
+    }
+
+    static void appendTableCellHtml(Appendable out, List<String> paragraphTexts) throws IOException {
+        out.append(TABLE_CELL_OPEN_TAG);
+        for (int i = 0; i < paragraphTexts.size(); i++) {
+            String cellText = paragraphTexts.get(i).trim();
+            if (!cellText.isEmpty()) {
+                DocumentUtils.escapeHtml(cellText, out);
+                if (i < paragraphTexts.size() - 1) {
+                    out.append("<br>");
+                }
+            }
+        }
+        out.append("</td>");
+    }
 
-        if (run.getUnderline() != UnderlinePatterns.NONE) {
-            html.append("<u>");
+    static void appendAlignmentStyle(Appendable out, ParagraphAlignment alignment) throws IOException {
+        if (alignment == null) {
+            return;
         }
+        switch (alignment) {
+            case CENTER:
+                out.append(" style=\"text-align: center;\"");
+                break;
+            case RIGHT:
+                out.append(" style=\"text-align: right;\"");
+                break;
+            case BOTH:
+                out.append(" style=\"text-align: justify;\"");
+                break;
+            default:
+                out.append(" style=\"text-align: left;\"");
+                break;
+        }
+    }
 
-        String fontFamily = run.getFontFamily();
-        int fontSize = run.getFontSize();
-        String color = run.getColor();
+    static void appendRunHtml(Appendable out, String text, boolean bold, boolean italic, boolean underline,
+                              String fontFamily, int fontSize, String color) throws IOException {
+        if (bold) {
+            out.append("<strong>");
+        }
+        if (italic) {
+            out.append("<em>");
+        }
+        if (underline) {
+            out.append("<u>");
+        }
 
         boolean hasStyle = fontFamily != null || fontSize != -1 || color != null;
         if (hasStyle) {
-            html.append("<span style=\"");
+            out.append("<span style=\"");
             if (fontFamily != null) {
-                html.append("font-family: ").append(fontFamily).append(";");
+                out.append("font-family: ").append(fontFamily).append(";");
             }
             if (fontSize != -1) {
-                html.append("font-size: ").append(fontSize).append("pt;");
+                out.append("font-size: ").append(String.valueOf(fontSize)).append("pt;");
             }
             if (color != null && !color.equals("auto")) {
-                html.append("color: #").append(color).append(";");
+                out.append("color: #").append(color).append(";");
             }
-            html.append("\">");
+            out.append("\">");
         }
 
-        html.append(DocumentUtils.escapeHtml(text));
+        DocumentUtils.escapeHtml(text, out);
 
         if (hasStyle) {
-            html.append("</span>");
+            out.append("</span>");
         }
-        if (run.getUnderline() != UnderlinePatterns.NONE) {
-            html.append("</u>");
+        if (underline) {
+            out.append("</u>");
         }
-        if (run.isItalic()) {
-            html.append("</em>");
+        if (italic) {
+            out.append("</em>");
         }
-        if (run.isBold()) {
-            html.append("</strong>");
+        if (bold) {
+            out.append("</strong>");
         }
+    }
 
-        return html.toString();
+    static void appendImageHtml(Appendable out, byte[] imageBytes, String mimeType) throws IOException {
+        if (out instanceof ParallelHtmlWriter) {
+            // Önbelleğe yazma / base64 kodlama havuzda yapılır, sonuç belgedeki yerine konur
+            ((ParallelHtmlWriter) out).appendDeferred(imageBytes.length,
+                    () -> render(html -> writeImageHtml(html, imageBytes, mimeType)));
+            return;
+        }
+        writeImageHtml(out, imageBytes, mimeType);
     }
 
-    public static String convertTableToHtml(XWPFTable table) {
-        StringBuilder html = new StringBuilder();
-        html.append("<table border=\"1\" style=\"border-collapse: collapse; width: 100%; margin: 10px 0;\">");
+    private static void writeImageHtml(Appendable out, byte[] imageBytes, String mimeType) throws IOException {
+        String storedUrl = storeImage(imageBytes, mimeType);
+        if (storedUrl != null) {
+            out.append("<img src=\"").append(storedUrl).append("\" ");
+        } else {
+            out.append("<img src=\"data:").append(mimeType).append(";base64,");
+            DocumentUtils.appendBase64(imageBytes, out);
+            out.append("\" ");
+        }
+        out.append("style=\"max-width: 100%; height: auto; margin: 10px 0;\" ");
+        out.append("alt=\"Belge Resmi\" />");
+    }
 
-        List<XWPFTableRow> rows = table.getRows();
-        for (XWPFTableRow row : rows) {
-            html.append("<tr>");
-            List<XWPFTableCell> cells = row.getTableCells();
-            for (XWPFTableCell cell : cells) {
-                html.append("<td style=\"padding: 8px; border: 1px solid #333;\">");
+    // Resim önbelleği varsa bayt'lar diske yazılır ve docmaster-img:// adresi döner
+    private static String storeImage(byte[] imageBytes, String mimeType) {
+        ImageStore store = ImageStore.getInstance();
+        if (store == null) {
+            return null;
+        }
+        try {
+            return store.put(imageBytes, mimeType);
+        } catch (IOException e) {
+            Log.e(TAG, "❌ Resim önbelleğe yazılamadı, base64 kullanılacak: " + e.getMessage());
+            return null;
+        }
+    }
 
-                List<XWPFParagraph> cellParagraphs = cell.getParagraphs();
-                for (int i = 0; i < cellParagraphs.size(); i++) {
-                    XWPFParagraph para = cellParagraphs.get(i);
-                    String cellText = para.getText().trim();
-                    if (!cellText.isEmpty()) {
-                        html.append(DocumentUtils.escapeHtml(cellText));
-                        if (i < cellParagraphs.size() - 1) {
-                            html.append("<br>");
-                        }
-                    }
-                }
+    // img src değerini bayt'a çevirir: önbellek adresi doğrudan okunur, data: URI base64'ten çözülür
+    private static ImageData decodeImageSource(String src) throws IOException {
+        if (src == null || src.isEmpty()) {
+            return null;
+        }
+        if (ImageStore.isStoreUrl(src)) {
+            ImageStore store = ImageStore.getInstance();
+            if (store == null) {
+                throw new IOException("Resim önbelleği hazır değil");
+            }
+            File file = store.getFile(src);
+            if (file == null) {
+                throw new IOException("Resim önbellekte bulunamadı: " + src);
+            }
+            return new ImageData(store.read(src), store.getMimeType(file));
+        }
+
+        int marker = src.indexOf(";base64,");
+        if (!src.startsWith("data:") || marker < 0) {
+            return null;
+        }
+        String mimeType = src.substring(5, marker).trim();
+        String cleanBase64 = DocumentUtils.cleanBase64Data(src.substring(marker + 8));
+        if (cleanBase64.isEmpty()) {
+            throw new IOException("Base64 verisi boş");
+        }
+
+        byte[] imageBytes;
+        try {
+            imageBytes = Base64.decode(cleanBase64, Base64.DEFAULT);
+        } catch (IllegalArgumentException e) {
+            Log.e(TAG, "❌ Base64 decode hatası: " + e.getMessage());
+            imageBytes = DocumentUtils.tryAlternativeBase64Decode(cleanBase64);
+            if (imageBytes == null) {
+                throw new IOException("Base64 decode hatası: " + e.getMessage());
+            }
+        }
+        if (imageBytes.length == 0) {
+            throw new IOException("Resim verisi boş");
+        }
+        return new ImageData(imageBytes, mimeType);
+    }
+
+    private static final class ImageData {
+        final byte[] bytes;
+        final String mimeType;
+
+        ImageData(byte[] bytes, String mimeType) {
+            this.bytes = bytes;
+            this.mimeType = mimeType;
+        }
+    }
+
+    // Belgeye eklenmeye hazır resim: çözülmüş bayt'lar ve POI biçimi
+    static final class PreparedImage {
+        final byte[] bytes;
+        final int format;
+
+        PreparedImage(byte[] bytes, int format) {
+            this.bytes = bytes;
+            this.format = format;
+        }
+    }
+
+    // Resim düğümünü eklenecek veriye çevirir. Kaynak tanınmazsa null döner.
+    interface ImageSource extends AutoCloseable {
+        PreparedImage get(HtmlNode image) throws IOException;
+
+        @Override
+        default void close() {
+        }
+    }
 
-                html.append("</td>");
+    // Base64 çözme / önbellekten okuma ve biçim tespiti; bloklardan bağımsız olduğu için paralel çalışabilir
+    static PreparedImage prepareImage(HtmlNode image) throws IOException {
+        ImageData imageData = decodeImageSource(image.attr("src"));
+        if (imageData == null) {
+            return null;
+        }
+        return new PreparedImage(imageData.bytes, determinePOIImageFormat(imageData.mimeType, imageData.bytes));
+    }
+
+    // Birden fazla farklı resim varsa paralel hazırlanır; ekleme sırası ve çıktı değişmez.
+    // Her iki durumda da aynı kaynak bir kez çözülür; POI aynı bayt'lar için tek resim parçası kullanır.
+    private static ImageSource imageSourceFor(HtmlNode root) {
+        List<HtmlNode> images = new ArrayList<>();
+        collectImages(root, images);
+        if (parallelImages && ParallelImageSource.hasDistinctSources(images)) {
+            return new ParallelImageSource(images);
+        }
+        return new DirectImageSource(images);
+    }
+
+    private static void collectImages(HtmlNode node, List<HtmlNode> images) {
+        for (HtmlNode child : node.children()) {
+            if (child.is("img")) {
+                images.add(child);
+            } else if (!child.isText()) {
+                collectImages(child, images);
             }
-            html.append("</tr>");
         }
+    }
 
-        html.append("</table>");
+    private interface HtmlFragment {
+        void writeTo(Appendable out) throws IOException;
+    }
+
+    private static String render(HtmlFragment fragment) {
+        StringBuilder html = new StringBuilder();
+        try {
+            fragment.writeTo(html);
+        } catch (IOException e) {
+            // StringBuilder IOException fırlatmaz
+            throw new UncheckedIOException(e);
+        }
         return html.toString();
     }
 
     public static void parseHtmlToDocxAdvanced(XWPFDocument document, String htmlContent) {
         try {
-            String[] parts = splitHtmlContent(htmlContent);
-
-            for (String part : parts) {
-                part = part.trim();
-                if (part.isEmpty()) continue;
-
-                if (part.contains("<table")) {
-                    Log.d(TAG, "📋 Tablo bulundu, işleniyor...");
-                    parseHtmlTable(document, part);
-                } else if (part.contains("<img")) {
-                    Log.d(TAG, "🖼️ Resim bulundu, işleniyor...");
-                    parseImageToDocx(document, part);
-                } else if (part.startsWith("<p")) {
-                    Log.d(TAG, "📝 Paragraf bulundu, işleniyor...");
-                    parseParagraphToDocx(document, part);
-                } else {
-                    Log.d(TAG, "📄 Düz metin olarak işleniyor...");
-                    addPlainTextToDocument(document, DocumentUtils.stripAllHtmlTags(part));
-                }
-            }
+            parseHtmlToDocxAdvanced(document, htmlContent, null);
+        } catch (IOException e) {
+            // İlerleme bildirimi olmadan iptal edilemez
+            Log.e(TAG, "❌ HTML parse hatası: " + e.getMessage(), e);
+        }
+    }
+
+    // Aşama bildirimleri hata yakalamanın dışında tutulur; iptal düz metne düşülerek yutulmaz
+    static void parseHtmlToDocxAdvanced(XWPFDocument document, String htmlContent, SaveProgress progress)
+            throws IOException {
+        HtmlNode root = null;
+        SaveProgress.report(progress, SaveProgress.Stage.PARSE);
+        try {
+            root = HtmlTreeBuilder.parse(htmlContent);
+        } catch (Exception e) {
+            Log.e(TAG, "❌ HTML parse hatası: " + e.getMessage(), e);
+        }
+        SaveProgress.report(progress, SaveProgress.Stage.BUILD);
+        if (root == null) {
+            addPlainTextToDocument(document, DocumentUtils.stripAllHtmlTags(htmlContent));
+            return;
+        }
+        try (ImageSource images = imageSourceFor(root)) {
+            appendBlockChildren(document, root, document::createParagraph, images);
 
             if (document.getParagraphs().isEmpty()) {
                 Log.d(TAG, "📝 Boş belge, varsayılan paragraf ekleniyor...");
@@ -217,131 +461,261 @@ public class DocumentConverter {
         }
     }
 
-    public static String[] splitHtmlContent(String html) {
-        List<String> parts = new ArrayList<>();
-
-        Pattern pattern = Pattern.compile("(<p[^>]*>.*?</p>|<table[^>]*>.*?</table>|<img[^>]*[/]?>)",
-                Pattern.DOTALL);
-        Matcher matcher = pattern.matcher(html);
-        int lastEnd = 0;
-        while (matcher.find()) {
-            if (matcher.start() > lastEnd) {
-                String between = html.substring(lastEnd, matcher.start()).trim();
-                if (!between.isEmpty()) {
-                    parts.add(between);
-                }
-            }
-            parts.add(matcher.group());
-            lastEnd = matcher.end();
+    // Bir HTML parçasını belge sonuna ekler; boş belge için varsayılan paragraf eklenmez
+    static void appendHtmlBlocks(XWPFDocument document, String html) {
+        HtmlNode root = HtmlTreeBuilder.parse(html);
+        try (ImageSource images = imageSourceFor(root)) {
+            appendBlockChildren(document, root, document::createParagraph, images);
         }
-        if (lastEnd < html.length()) {
-            String remaining = html.substring(lastEnd).trim();
-            if (!remaining.isEmpty()) {
-                parts.add(remaining);
-            }
-        }
-        Log.d(TAG, "📄 HTML " + parts.size() + " parçaya ayrıldı");
-        return parts.toArray(new String[0]);
     }
 
     public static void parseParagraphToDocx(XWPFDocument document, String paragraphHtml) {
         try {
-            XWPFParagraph paragraph = document.createParagraph();
+            appendBlockChildren(document, HtmlTreeBuilder.parse(paragraphHtml), document::createParagraph, new DirectImageSource(null));
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Paragraf parse hatası: " + e.getMessage());
+            addPlainTextToDocument(document, DocumentUtils.stripAllHtmlTags(paragraphHtml));
+        }
+    }
 
-            // Alignment kontrolü
-            if (paragraphHtml.contains("text-align: center")) {
-                paragraph.setAlignment(ParagraphAlignment.CENTER);
-            } else if (paragraphHtml.contains("text-align: right")) {
-                paragraph.setAlignment(ParagraphAlignment.RIGHT);
-            } else if (paragraphHtml.contains("text-align: justify")) {
-                paragraph.setAlignment(ParagraphAlignment.BOTH);
-            }
+    public static void parseImageToDocx(XWPFDocument document, String imageHtml) {
+        HtmlNode image = HtmlTreeBuilder.parse(imageHtml).findFirst("img");
+        if (image == null) {
+            Log.w(TAG, "⚠️ Resim elementi bulunamadı");
+            addImagePlaceholder(document.createParagraph(), "Resim bulunamadı");
+            return;
+        }
+        appendImageParagraph(document::createParagraph, image, new DirectImageSource(null));
+    }
 
-            String content = extractContentFromPTag(paragraphHtml);
+    public static void parseHtmlTable(XWPFDocument document, String tableHtml) {
+        HtmlNode table = HtmlTreeBuilder.parse(tableHtml).findFirst("table");
+        if (table != null) {
+            appendTable(document, table, new DirectImageSource(null));
+        } else {
+            addPlainTextToDocument(document, DocumentUtils.stripAllHtmlTags(tableHtml));
+        }
+    }
 
-            if (content.contains("<img")) {
-                parseInlineImageAndText(paragraph, content);
-            } else {
-                parseFormattedTextToRun(paragraph, content);
+    // Blok elementler sırayla işlenir; aradaki satır içi içerik (metin, span, img) tek paragrafta toplanır
+    private static void appendBlockChildren(XWPFDocument document, HtmlNode container,
+                                            Supplier<XWPFParagraph> paragraphs, ImageSource images) {
+        List<HtmlNode> inlineNodes = new ArrayList<>();
+        for (HtmlNode child : container.children()) {
+            if (child.isText() || !HtmlTreeBuilder.isBlock(child.tag)) {
+                inlineNodes.add(child);
+                continue;
+            }
+            appendInlineParagraph(paragraphs, null, inlineNodes, images);
+            inlineNodes.clear();
+
+            if (child.is("table") && !child.hasAncestor("table")) {
+                Log.d(TAG, "📋 Tablo bulundu, işleniyor...");
+                appendTable(document, child, images);
+            } else if (child.is("p") || child.is("pre") || isHeading(child.tag)) {
+                appendInlineParagraph(paragraphs, child, child.children(), images);
+            } else if (!child.is("hr")) {
+                appendBlockChildren(document, child, paragraphs, images);
             }
+        }
+        appendInlineParagraph(paragraphs, null, inlineNodes, images);
+    }
 
+    private static void appendInlineParagraph(Supplier<XWPFParagraph> paragraphs, HtmlNode blockNode,
+                                              List<HtmlNode> inlineNodes, ImageSource images) {
+        HtmlNode onlyImage = findOnlyImage(inlineNodes);
+        if (onlyImage != null) {
+            Log.d(TAG, "🖼️ Resim bulundu, işleniyor...");
+            appendImageParagraph(paragraphs, onlyImage, images);
+            return;
+        }
+        if (blockNode == null && isBlank(inlineNodes)) {
+            return;
+        }
+
+        XWPFParagraph paragraph = paragraphs.get();
+        try {
+            ParagraphAlignment alignment = blockNode != null ? parseAlignment(blockNode) : null;
+            if (alignment != null) {
+                paragraph.setAlignment(alignment);
+            }
+            appendInlineContent(paragraph, blockNode, inlineNodes, images);
         } catch (Exception e) {
             Log.e(TAG, "❌ Paragraf parse hatası: " + e.getMessage());
-            addPlainTextToDocument(document, DocumentUtils.stripAllHtmlTags(paragraphHtml));
+            XWPFRun fallbackRun = paragraph.createRun();
+            fallbackRun.setText(collectText(inlineNodes).trim());
+            fallbackRun.setFontFamily("Calibri");
+            fallbackRun.setFontSize(11);
         }
     }
 
-    public static void parseImageToDocx(XWPFDocument document, String imageHtml) {
-        try {
-            Log.d(TAG, "🖼️ Resim DOCX'e ekleniyor...");
+    // Satır içi düğümler stil yığınıyla gezilir; aynı stildeki ardışık metin tek run'da birleşir
+    private static void appendInlineContent(XWPFParagraph paragraph, HtmlNode blockNode, List<HtmlNode> inlineNodes,
+                                            ImageSource images) {
+        RunStyle baseStyle = blockNode != null ? RunStyle.DEFAULT.derive(blockNode) : RunStyle.DEFAULT;
+        RunBuilder runs = new RunBuilder(paragraph);
+        appendInlineNodes(runs, inlineNodes, baseStyle, images);
+        runs.finish(baseStyle);
+    }
 
-            Pattern pattern = Pattern.compile("src=\"data:([^;]+);base64,([^\"\\s]+)\"");
-            Matcher matcher = pattern.matcher(imageHtml);
+    private static void appendInlineNodes(RunBuilder runs, List<HtmlNode> nodes, RunStyle style, ImageSource images) {
+        for (HtmlNode node : nodes) {
+            if (node.isText()) {
+                runs.appendText(node.text, style);
+            } else if (node.is("img")) {
+                addInlineImageToRun(runs.beginObjectRun(style), node, images);
+            } else if (node.is("br")) {
+                runs.appendBreak();
+            } else {
+                appendInlineNodes(runs, node.children(), style.derive(node), images);
+            }
+        }
+    }
 
-            if (matcher.find()) {
-                String mimeType = matcher.group(1).trim();
-                String base64Data = matcher.group(2).trim();
+    // Metni HTML kurallarına göre (boşluk birleştirme, <br> satır sonu) run'lara dağıtır
+    private static final class RunBuilder {
+        private final XWPFParagraph paragraph;
+        private final StringBuilder pending = new StringBuilder();
+        private RunStyle pendingStyle;
+        private XWPFRun lastRun;
+        private int pendingBreaks = 0;
+        private boolean atLineStart = true;
+        private boolean lastWasSpace = false;
+
+        RunBuilder(XWPFParagraph paragraph) {
+            this.paragraph = paragraph;
+        }
 
-                Log.d(TAG, "📷 MIME Type: " + mimeType);
-                Log.d(TAG, "📊 Base64 uzunluğu: " + base64Data.length());
+        void appendText(String text, RunStyle style) {
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                boolean space = c == ' ' || c == '\n' || c == '\t' || c == '\r' || c == '\f';
+                if (space && (atLineStart || lastWasSpace)) {
+                    continue;
+                }
+                if (pendingBreaks > 0) {
+                    emitBreaks(style);
+                }
+                if (pendingStyle != null && !pendingStyle.equals(style)) {
+                    flush();
+                }
+                pendingStyle = style;
+                pending.append(space ? ' ' : c == '\u00A0' ? ' ' : c);
+                lastWasSpace = space;
+                atLineStart = false;
+            }
+        }
 
-                String cleanBase64 = DocumentUtils.cleanBase64Data(base64Data);
-                Log.d(TAG, "🧹 Temizlenmiş Base64 uzunluğu: " + cleanBase64.length());
+        // Paragraf sonundaki <br> belgeye taşınmaz; bu yüzden satır sonları bir sonraki metne kadar bekletilir
+        void appendBreak() {
+            trimTrailingSpace();
+            flush();
+            pendingBreaks++;
+            atLineStart = true;
+            lastWasSpace = false;
+        }
 
-                if (cleanBase64.isEmpty()) {
-                    Log.e(TAG, "❌ Base64 verisi temizlendikten sonra boş kaldı");
-                    addImagePlaceholder(document, "Base64 verisi boş");
-                    return;
-                }
+        // Resim gibi metin dışı içerik için sıradaki konumda yeni bir run açar
+        XWPFRun beginObjectRun(RunStyle style) {
+            if (pendingBreaks > 0) {
+                flush();
+                emitBreaks(style);
+            }
+            flush();
+            XWPFRun run = paragraph.createRun();
+            lastRun = run;
+            atLineStart = false;
+            lastWasSpace = false;
+            return run;
+        }
 
-                byte[] imageBytes;
-                try {
-                    imageBytes = Base64.decode(cleanBase64, Base64.DEFAULT);
-                    Log.d(TAG, "✅ Base64 decode başarılı - Byte uzunluğu: " + imageBytes.length);
-                } catch (IllegalArgumentException e) {
-                    Log.e(TAG, "❌ Base64 decode hatası: " + e.getMessage());
-                    imageBytes = DocumentUtils.tryAlternativeBase64Decode(cleanBase64);
-                    if (imageBytes == null) {
-                        addImagePlaceholder(document, "Base64 decode hatası: " + e.getMessage());
-                        return;
-                    }
-                }
+        void flush() {
+            if (pending.length() == 0) {
+                return;
+            }
+            XWPFRun run = paragraph.createRun();
+            pendingStyle.applyTo(run);
+            run.setText(pending.toString());
+            pending.setLength(0);
+            pendingStyle = null;
+            lastRun = run;
+        }
 
-                if (imageBytes.length == 0) {
-                    Log.e(TAG, "❌ Decode edilen resim verisi boş");
-                    addImagePlaceholder(document, "Resim verisi boş");
-                    return;
-                }
+        void finish(RunStyle baseStyle) {
+            trimTrailingSpace();
+            flush();
+            if (paragraph.getRuns().isEmpty()) {
+                XWPFRun run = paragraph.createRun();
+                baseStyle.applyTo(run);
+                run.setText(" ");
+            }
+        }
+
+        private void emitBreaks(RunStyle style) {
+            XWPFRun run = lastRun;
+            if (run == null) {
+                run = paragraph.createRun();
+                style.applyTo(run);
+            }
+            for (int i = 0; i < pendingBreaks; i++) {
+                run.addBreak();
+            }
+            pendingBreaks = 0;
+            lastRun = null;
+        }
 
-                int format = determinePOIImageFormat(mimeType, imageBytes);
-                Log.d(TAG, "📎 POI format: " + format);
+        private void trimTrailingSpace() {
+            int end = pending.length();
+            if (end > 0 && pending.charAt(end - 1) == ' ' && lastWasSpace) {
+                pending.setLength(end - 1);
+            }
+        }
+    }
 
-                XWPFParagraph imageParagraph = document.createParagraph();
-                imageParagraph.setAlignment(ParagraphAlignment.CENTER);
-                XWPFRun imageRun = imageParagraph.createRun();
+    // Resim, yer tutucusu dahil, paragraphs'ın verdiği kapta (gövde ya da tablo hücresi) kalır
+    private static void appendImageParagraph(Supplier<XWPFParagraph> paragraphs, HtmlNode image,
+                                             ImageSource images) {
+        XWPFParagraph imageParagraph = null;
+        try {
+            Log.d(TAG, "🖼️ Resim DOCX'e ekleniyor...");
+            PreparedImage prepared = images.get(image);
+            if (prepared == null) {
+                Log.w(TAG, "⚠️ Resim kaynağı tanınmadı");
+                addImagePlaceholder(paragraphs.get(), "Resim kaynağı tanınmadı");
+                return;
+            }
 
-                try (ByteArrayInputStream bis = new ByteArrayInputStream(imageBytes)) {
-                    int[] dimensions = DocumentUtils.calculateImageDimensions(imageBytes, 400, 300);
+            byte[] imageBytes = prepared.bytes;
+            int format = prepared.format;
+            Log.d(TAG, "📎 POI format: " + format);
 
-                    imageRun.addPicture(bis, format, "document_image",
-                            Units.toEMU(dimensions[0]), Units.toEMU(dimensions[1]));
+            imageParagraph = paragraphs.get();
+            imageParagraph.setAlignment(ParagraphAlignment.CENTER);
+            XWPFRun imageRun = imageParagraph.createRun();
 
-                    Log.d(TAG, "✅ Resim başarıyla DOCX'e eklendi - Boyut: " + imageBytes.length +
-                            " bytes, Dimensions: " + dimensions[0] + "x" + dimensions[1]);
-                }
+            try (ByteArrayInputStream bis = new ByteArrayInputStream(imageBytes)) {
+                int[] dimensions = DocumentUtils.calculateImageDimensions(imageBytes, 400, 300);
 
-            } else {
-                Log.w(TAG, "⚠️ Resimde Base64 data pattern bulunamadı");
-                addImagePlaceholder(document, "Base64 pattern bulunamadı");
+                imageRun.addPicture(bis, format, "document_image",
+                        Units.toEMU(dimensions[0]), Units.toEMU(dimensions[1]));
+
+                Log.d(TAG, "✅ Resim başarıyla DOCX'e eklendi - Boyut: " + imageBytes.length +
+                        " bytes, Dimensions: " + dimensions[0] + "x" + dimensions[1]);
             }
 
         } catch (Exception e) {
             Log.e(TAG, "❌ Resim DOCX ekleme hatası: " + e.getMessage(), e);
-            addImagePlaceholder(document, "Resim işleme hatası: " + e.getMessage());
+            // Resim paragrafı alındıysa yarım kalan run'ı silinip yer tutucu oraya yazılır
+            if (imageParagraph != null) {
+                while (!imageParagraph.getRuns().isEmpty()) {
+                    imageParagraph.removeRun(0);
+                }
+            }
+            addImagePlaceholder(imageParagraph != null ? imageParagraph : paragraphs.get(),
+                    "Resim işleme hatası: " + e.getMessage());
         }
     }
 
-
     private static int determinePOIImageFormat(String mimeType, byte[] imageBytes) {
         if (mimeType.contains("jpeg") || mimeType.contains("jpg")) {
             return XWPFDocument.PICTURE_TYPE_JPEG;
@@ -372,8 +746,7 @@ public class DocumentConverter {
         return XWPFDocument.PICTURE_TYPE_PNG;
     }
 
-    private static void addImagePlaceholder(XWPFDocument document, String errorMessage) {
-        XWPFParagraph placeholder = document.createParagraph();
+    private static void addImagePlaceholder(XWPFParagraph placeholder, String errorMessage) {
         placeholder.setAlignment(ParagraphAlignment.CENTER);
         XWPFRun run = placeholder.createRun();
         run.setText("[Resim yüklenemedi: " + errorMessage + "]");
@@ -383,176 +756,32 @@ public class DocumentConverter {
         run.setFontSize(10);
     }
 
-    private static String extractContentFromPTag(String paragraphHtml) {
-        Pattern pattern = Pattern.compile("<p[^>]*>(.*?)</p>", Pattern.DOTALL);
-        Matcher matcher = pattern.matcher(paragraphHtml);
-        if (matcher.find()) {
-            return matcher.group(1);
+    private static ParagraphAlignment parseAlignment(HtmlNode blockNode) {
+        String align = blockNode.styleValue("text-align");
+        if (align == null) {
+            align = blockNode.attr("align");
         }
-        return paragraphHtml;
-    }
-
-    private static void parseInlineImageAndText(XWPFParagraph paragraph, String content) {
-        try {
-            Pattern imgPattern = Pattern.compile("(<img[^>]*[/]?>)");
-            String[] parts = imgPattern.split(content);
-            Matcher imgMatcher = imgPattern.matcher(content);
-
-            int partIndex = 0;
-            while (partIndex < parts.length || imgMatcher.find()) {
-                if (partIndex < parts.length) {
-                    String textPart = parts[partIndex].trim();
-                    if (!textPart.isEmpty()) {
-                        parseFormattedTextToRun(paragraph, textPart);
-                    }
-                    partIndex++;
-                }
-
-                if (imgMatcher.find()) {
-                    String imgHtml = imgMatcher.group();
-                    addInlineImageToRun(paragraph, imgHtml);
-                }
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "❌ Inline resim parse hatası: " + e.getMessage());
-            parseFormattedTextToRun(paragraph, DocumentUtils.stripAllHtmlTags(content));
+        if (align == null) {
+            return null;
         }
-    }
-
-    private static void parseFormattedTextToRun(XWPFParagraph paragraph, String htmlContent) {
-        try {
-            XWPFRun run = paragraph.createRun();
-            String cleanText = DocumentUtils.stripAllHtmlTags(htmlContent).trim();
-            if (cleanText.isEmpty()) {
-                cleanText = " ";
-            }
-
-            run.setText(cleanText);
-
-            // Varsayılan font ayarları
-            String fontFamily = "Calibri";
-            int fontSize = 11;
-            String color = null;
-
-            // Bold, italic, underline kontrolü
-            boolean isBold = htmlContent.contains("<strong>") || htmlContent.contains("<b>");
-            boolean isItalic = htmlContent.contains("<em>") || htmlContent.contains("<i>");
-            boolean isUnderline = htmlContent.contains("<u>");
-
-            // Style attribute'dan font bilgilerini çıkar
-            if (htmlContent.contains("style=")) {
-                // font-family kontrolü
-                if (htmlContent.contains("font-family:")) {
-                    int start = htmlContent.indexOf("font-family:") + 12;
-                    int end = htmlContent.indexOf(";", start);
-                    if (end == -1) end = htmlContent.indexOf("\"", start);
-                    if (end == -1) end = htmlContent.indexOf("'", start);
-                    if (end > start) {
-                        fontFamily = htmlContent.substring(start, end).trim().replaceAll("[\"';]", "");
-                    }
-                }
-
-                // font-size kontrolü
-                if (htmlContent.contains("font-size:")) {
-                    int start = htmlContent.indexOf("font-size:") + 10;
-                    int end = htmlContent.indexOf("pt", start);
-                    if (end == -1) end = htmlContent.indexOf(";", start);
-                    if (end == -1) end = htmlContent.indexOf("\"", start);
-                    if (end > start) {
-                        try {
-                            String sizeStr = htmlContent.substring(start, end).trim().replaceAll("[^0-9]", "");
-                            if (!sizeStr.isEmpty()) {
-                                fontSize = Integer.parseInt(sizeStr);
-                            }
-                        } catch (Exception e) {
-                            fontSize = 11; // varsayılan
-                        }
-                    }
-                }
-
-                // color kontrolü
-                if (htmlContent.contains("color:")) {
-                    int start = htmlContent.indexOf("color:") + 6;
-                    int end = htmlContent.indexOf(";", start);
-                    if (end == -1) end = htmlContent.indexOf("\"", start);
-                    if (end == -1) end = htmlContent.indexOf("'", start);
-                    if (end > start) {
-                        color = htmlContent.substring(start, end).trim();
-                        if (color.startsWith("#")) {
-                            color = color.substring(1); // # işaretini kaldır
-                        }
-                        if (color.equals("auto") || color.isEmpty()) {
-                            color = null;
-                        }
-                    }
-                }
-
-                if (htmlContent.contains("<font color=\"")) {
-                    Pattern fontColorPattern = Pattern.compile("<font color=\"#([a-fA-F0-9]{6})\"");
-                    Matcher matcher = fontColorPattern.matcher(htmlContent);
-                    if (matcher.find()) {
-                        color = matcher.group(1); // #ff00ff -> ff00ff
-                    }
-                }
-
-                if (htmlContent.contains("<font face=\"")) {
-                    Pattern fontFacePattern = Pattern.compile("<font face=\"([^\"]+)\"");
-                    Matcher matcher = fontFacePattern.matcher(htmlContent);
-                    if (matcher.find()) {
-                        fontFamily = matcher.group(1);
-                    }
-                }
-
-                if (htmlContent.contains("<font size=\"")) {
-                    Pattern fontSizePattern = Pattern.compile("<font size=\"([1-7])\"");
-                    Matcher matcher = fontSizePattern.matcher(htmlContent);
-                    if (matcher.find()) {
-                        int htmlSize = Integer.parseInt(matcher.group(1)); // 1-7
-
-                        // HTML size'ı gerçek pt'ye çevir
-                        int[] ptSizes = {8, 10, 12, 14, 18, 24, 36}; // HTML size 1-7 karşılıkları
-                        if (htmlSize >= 1 && htmlSize <= 7) {
-                            fontSize = ptSizes[htmlSize - 1];
-                        }
-                    }
-                }
-            }
-
-            // Formatları uygula
-            run.setFontFamily(fontFamily);
-            run.setFontSize(fontSize);
-            if (color != null) {
-                run.setColor(color);
-            }
-
-            if (isBold) run.setBold(true);
-            if (isItalic) run.setItalic(true);
-            if (isUnderline) run.setUnderline(UnderlinePatterns.SINGLE);
-
-        } catch (Exception e) {
-            Log.e(TAG, "❌ Format parsing hatası: " + e.getMessage(), e);
-            XWPFRun fallbackRun = paragraph.createRun();
-            fallbackRun.setText(DocumentUtils.stripAllHtmlTags(htmlContent));
-            fallbackRun.setFontFamily("Calibri");
-            fallbackRun.setFontSize(11);
+        switch (align.toLowerCase(Locale.ROOT)) {
+            case "center":
+                return ParagraphAlignment.CENTER;
+            case "right":
+                return ParagraphAlignment.RIGHT;
+            case "justify":
+                return ParagraphAlignment.BOTH;
+            default:
+                return null;
         }
     }
 
-    private static void addInlineImageToRun(XWPFParagraph paragraph, String imageHtml) {
+    private static void addInlineImageToRun(XWPFRun imageRun, HtmlNode image, ImageSource images) {
         try {
-            Pattern pattern = Pattern.compile("src=\"data:([^;]+);base64,([^\"]+)\"");
-            Matcher matcher = pattern.matcher(imageHtml);
-
-            if (matcher.find()) {
-                String mimeType = matcher.group(1);
-                String base64Data = matcher.group(2);
-
-                byte[] imageBytes = Base64.decode(base64Data, Base64.DEFAULT);
-                int format = mimeType.contains("jpeg") ? XWPFDocument.PICTURE_TYPE_JPEG : XWPFDocument.PICTURE_TYPE_PNG;
-
-                XWPFRun imageRun = paragraph.createRun();
-                try (ByteArrayInputStream bis = new ByteArrayInputStream(imageBytes)) {
-                    imageRun.addPicture(bis, format, "inline_image",
+            PreparedImage prepared = images.get(image);
+            if (prepared != null) {
+                try (ByteArrayInputStream bis = new ByteArrayInputStream(prepared.bytes)) {
+                    imageRun.addPicture(bis, prepared.format, "inline_image",
                             Units.toEMU(200), Units.toEMU(150));
                 }
             }
@@ -561,29 +790,14 @@ public class DocumentConverter {
         }
     }
 
-    public static void parseHtmlTable(XWPFDocument document, String tableHtml) {
+    private static void appendTable(XWPFDocument document, HtmlNode tableNode, ImageSource images) {
         try {
-            Pattern rowPattern = Pattern.compile("<tr[^>]*>(.*?)</tr>", Pattern.DOTALL);
-            Matcher rowMatcher = rowPattern.matcher(tableHtml);
+            List<List<HtmlNode>> tableData = new ArrayList<>();
+            collectTableRows(tableNode, tableData);
 
-            List<String[]> tableData = new ArrayList<>();
             int maxCols = 0;
-
-            while (rowMatcher.find()) {
-                String rowHtml = rowMatcher.group(1);
-                Pattern cellPattern = Pattern.compile("<td[^>]*>(.*?)</td>", Pattern.DOTALL);
-                Matcher cellMatcher = cellPattern.matcher(rowHtml);
-
-                List<String> rowCells = new ArrayList<>();
-                while (cellMatcher.find()) {
-                    String cellContent = DocumentUtils.stripAllHtmlTags(cellMatcher.group(1)).trim();
-                    rowCells.add(cellContent.isEmpty() ? " " : cellContent);
-                }
-
-                if (!rowCells.isEmpty()) {
-                    tableData.add(rowCells.toArray(new String[0]));
-                    maxCols = Math.max(maxCols, rowCells.size());
-                }
+            for (List<HtmlNode> rowCells : tableData) {
+                maxCols = Math.max(maxCols, rowCells.size());
             }
 
             if (!tableData.isEmpty() && maxCols > 0) {
@@ -592,25 +806,106 @@ public class DocumentConverter {
 
                 for (int i = 0; i < tableData.size(); i++) {
                     XWPFTableRow row = table.getRow(i);
-                    String[] rowData = tableData.get(i);
+                    List<HtmlNode> rowData = tableData.get(i);
 
                     for (int j = 0; j < maxCols; j++) {
                         XWPFTableCell cell = row.getCell(j);
-                        String cellText = j < rowData.length ? rowData[j] : " ";
-                        cell.setText(cellText);
                         cell.setColor("FFFFFF");
-                        XWPFParagraph cellPara = cell.getParagraphs().get(0);
-                        cellPara.setAlignment(ParagraphAlignment.LEFT);
+                        if (j < rowData.size()) {
+                            appendBlockChildren(document, rowData.get(j), cellParagraphs(cell), images);
+                        }
+                        if (cell.getParagraphs().get(0).getRuns().isEmpty()) {
+                            cell.getParagraphs().get(0).createRun().setText(" ");
+                        }
+                        for (XWPFParagraph cellPara : cell.getParagraphs()) {
+                            if (!cellPara.getCTP().isSetPPr() || !cellPara.getCTP().getPPr().isSetJc()) {
+                                cellPara.setAlignment(ParagraphAlignment.LEFT);
+                            }
+                        }
                     }
                 }
                 Log.d(TAG, "Tablo oluşturuldu: " + tableData.size() + "x" + maxCols);
             }
         } catch (Exception e) {
             Log.e(TAG, "Tablo parse hatası: " + e.getMessage());
-            addPlainTextToDocument(document, DocumentUtils.stripAllHtmlTags(tableHtml));
+            addPlainTextToDocument(document, tableNode.textContent());
         }
     }
 
+    // Satırlar doğrudan veya thead/tbody/tfoot altında olabilir; iç içe tablolar atlanır
+    private static void collectTableRows(HtmlNode node, List<List<HtmlNode>> rows) {
+        for (HtmlNode child : node.children()) {
+            if (child.is("tr")) {
+                List<HtmlNode> cells = new ArrayList<>();
+                for (HtmlNode cell : child.children()) {
+                    if (cell.is("td") || cell.is("th")) {
+                        cells.add(cell);
+                    }
+                }
+                if (!cells.isEmpty()) {
+                    rows.add(cells);
+                }
+            } else if (child.is("thead") || child.is("tbody") || child.is("tfoot")) {
+                collectTableRows(child, rows);
+            }
+        }
+    }
+
+    // Hücrenin hazır gelen ilk paragrafı kullanılır, sonrakiler hücreye eklenir
+    private static Supplier<XWPFParagraph> cellParagraphs(XWPFTableCell cell) {
+        boolean[] firstUsed = {false};
+        return () -> {
+            if (!firstUsed[0]) {
+                firstUsed[0] = true;
+                return cell.getParagraphs().get(0);
+            }
+            return cell.addParagraph();
+        };
+    }
+
+    private static HtmlNode findOnlyImage(List<HtmlNode> nodes) {
+        HtmlNode image = null;
+        for (HtmlNode node : nodes) {
+            if (node.is("img")) {
+                if (image != null) {
+                    return null;
+                }
+                image = node;
+            } else if (node.isText()) {
+                if (!node.text.trim().isEmpty()) {
+                    return null;
+                }
+            } else if (!node.is("br")) {
+                return null;
+            }
+        }
+        return image;
+    }
+
+    private static boolean isBlank(List<HtmlNode> nodes) {
+        for (HtmlNode node : nodes) {
+            if (node.is("img") || (!node.isText() && node.findFirst("img") != null)) {
+                return false;
+            }
+            if (!node.textContent().trim().isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String collectText(List<HtmlNode> nodes) {
+        StringBuilder text = new StringBuilder();
+        for (HtmlNode node : nodes) {
+            text.append(node.textContent());
+        }
+        return text.toString();
+    }
+
+    private static boolean isHeading(String tag) {
+        return tag.length() == 2 && tag.charAt(0) == 'h' && tag.charAt(1) >= '1' && tag.charAt(1) <= '6';
+    }
+
     public static void addPlainTextToDocument(XWPFDocument document, String text) {
         if (text == null || text.trim().isEmpty()) return;
 
@@ -0,0 +1,167 @@
+package com.documentmaster.app.utils.word;
+
+import android.util.Log;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+// Özellikler penceresi için word/document.xml tek geçişte akış halinde okunur; metin
+// biriktirilmeden kelime, karakter, paragraf, tablo ve resim sayılır. Tablo içi metin de dahildir.
+public class DocumentStatistics {
+
+    private static final String TAG = "DocumentStatistics";
+    private static final int WORDS_PER_MINUTE = 200;
+    private static final String VML_NS = "urn:schemas-microsoft-com:vml";
+
+    private int words;
+    private int characters;
+    private int charactersNoSpaces;
+    private int paragraphs;
+    private int tables;
+    private int images;
+
+    private DocumentStatistics() {
+    }
+
+    public int getWords() { return words; }
+    public int getCharacters() { return characters; }
+    public int getCharactersNoSpaces() { return charactersNoSpaces; }
+    public int getParagraphs() { return paragraphs; }
+    public int getTables() { return tables; }
+    public int getImages() { return images; }
+
+    public double getReadingTimeMinutes() {
+        return (double) words / WORDS_PER_MINUTE;
+    }
+
+    public static DocumentStatistics get(String filePath) throws IOException {
+        // Dosya değişince anahtar da değişir; eski kayıt kendiliğinden geçersizleşir
+        String key = ConversionCache.keyOf(filePath);
+        DocumentStatistics statistics = ConversionCache.getStatistics(key);
+        if (statistics != null) {
+            return statistics;
+        }
+        long startTime = System.currentTimeMillis();
+        statistics = compute(new File(filePath));
+        ConversionCache.putStatistics(key, statistics);
+        Log.d(TAG, "📊 İstatistik hesaplandı: " + statistics.words + " kelime, "
+                + (System.currentTimeMillis() - startTime) + " ms");
+        return statistics;
+    }
+
+    private static DocumentStatistics compute(File file) throws IOException {
+        try (ZipFile zipFile = new ZipFile(file)) {
+            ZipEntry entry = zipFile.getEntry(StreamingDocxReader.DOCUMENT_PART);
+            if (entry == null) {
+                throw new IOException("word/document.xml bulunamadı");
+            }
+            try (InputStream in = zipFile.getInputStream(entry)) {
+                DocumentStatistics statistics = new DocumentStatistics();
+                statistics.read(StreamingDocxReader.newParser(in));
+                return statistics;
+            }
+        } catch (XmlPullParserException e) {
+            throw new IOException("document.xml ayrıştırılamadı: " + e.getMessage(), e);
+        }
+    }
+
+    private void read(XmlPullParser parser) throws IOException, XmlPullParserException {
+        // Kelimeler farklı run'lara bölünebilir; kelime içinde olup olmadığımız paragraf boyunca taşınır
+        boolean inWord = false;
+        boolean inText = false;
+        int tableDepth = 0;
+        // Özellik blokları (sekme durakları vb.) atlanır
+        int skipDepth = -1;
+        // Çizimlerde yalnızca resimler sayılır; metin kutularının metni XWPFParagraph.getText() gibi dışarıda kalır
+        int drawingDepth = -1;
+
+        for (int type = parser.next(); type != XmlPullParser.END_DOCUMENT; type = parser.next()) {
+            if (skipDepth >= 0) {
+                if (type == XmlPullParser.END_TAG && parser.getDepth() == skipDepth) {
+                    skipDepth = -1;
+                }
+                continue;
+            }
+            if (drawingDepth >= 0) {
+                if (type == XmlPullParser.END_TAG && parser.getDepth() == drawingDepth) {
+                    drawingDepth = -1;
+                } else if (type == XmlPullParser.START_TAG && isPicture(parser)) {
+                    images++;
+                }
+                continue;
+            }
+            if (type == XmlPullParser.START_TAG) {
+                if (!StreamingDocxReader.W_NS.equals(parser.getNamespace())) {
+                    continue;
+                }
+                String name = parser.getName();
+                if ("t".equals(name)) {
+                    inText = true;
+                } else if ("tab".equals(name) || "br".equals(name) || "cr".equals(name)) {
+                    characters++;
+                    inWord = false;
+                } else if ("tbl".equals(name)) {
+                    if (tableDepth == 0) {
+                        tables++;
+                    }
+                    tableDepth++;
+                } else if ("drawing".equals(name) || "pict".equals(name)) {
+                    drawingDepth = parser.getDepth();
+                } else if ("pPr".equals(name) || "rPr".equals(name)) {
+                    skipDepth = parser.getDepth();
+                }
+            } else if (type == XmlPullParser.END_TAG) {
+                if (!StreamingDocxReader.W_NS.equals(parser.getNamespace())) {
+                    continue;
+                }
+                String name = parser.getName();
+                if ("t".equals(name)) {
+                    inText = false;
+                } else if ("p".equals(name)) {
+                    if (tableDepth == 0) {
+                        paragraphs++;
+                    }
+                    inWord = false;
+                } else if ("tbl".equals(name)) {
+                    tableDepth--;
+                }
+            } else if (type == XmlPullParser.TEXT && inText) {
+                inWord = countText(parser.getText(), inWord);
+            }
+        }
+    }
+
+    // DrawingML resmi (pic:pic) ya da eski VML resmi (v:imagedata)
+    private static boolean isPicture(XmlPullParser parser) {
+        String namespace = parser.getNamespace();
+        return (StreamingDocxReader.PIC_NS.equals(namespace) && "pic".equals(parser.getName()))
+                || (VML_NS.equals(namespace) && "imagedata".equals(parser.getName()));
+    }
+
+    // Vekil çiftleri tek karakter sayılır
+    private boolean countText(String text, boolean inWord) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLowSurrogate(c)) {
+                continue;
+            }
+            characters++;
+            if (Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+                inWord = false;
+            } else {
+                charactersNoSpaces++;
+                if (!inWord) {
+                    words++;
+                    inWord = true;
+                }
+            }
+        }
+        return inWord;
+    }
+}
@@ -2,25 +2,70 @@ package com.documentmaster.app.utils.word;
 
 import android.util.Base64;
 import android.util.Log;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Locale;
 
 public class DocumentUtils {
 
     private static final String TAG = "DocumentUtils";
 
+    // Base64 çıktısı bu boyutta (3'ün katı) dilimlerle üretilir, padding sadece son dilimde oluşur
+    private static final int BASE64_CHUNK_BYTES = 3 * 16 * 1024;
+
     public static String escapeHtml(String text) {
         if (text == null) return "";
-        return text
-                .replace("&", "&amp;")
-                .replace("<", "&lt;")
-                .replace(">", "&gt;")
-                .replace("\"", "&quot;")
-                .replace("'", "&#39;");
+        StringBuilder escaped = new StringBuilder(text.length() + 16);
+        try {
+            escapeHtml(text, escaped);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return escaped.toString();
+    }
+
+    public static void escapeHtml(String text, Appendable out) throws IOException {
+        if (text == null) return;
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            String entity;
+            switch (text.charAt(i)) {
+                case '&': entity = "&amp;"; break;
+                case '<': entity = "&lt;"; break;
+                case '>': entity = "&gt;"; break;
+                case '"': entity = "&quot;"; break;
+                case '\'': entity = "&#39;"; break;
+                default: continue;
+            }
+            out.append(text, start, i).append(entity);
+            start = i + 1;
+        }
+        out.append(text, start, text.length());
+    }
+
+    public static void appendBase64(byte[] data, Appendable out) throws IOException {
+        for (int offset = 0; offset < data.length; offset += BASE64_CHUNK_BYTES) {
+            int length = Math.min(BASE64_CHUNK_BYTES, data.length - offset);
+            out.append(Base64.encodeToString(data, offset, length, Base64.NO_WRAP));
+        }
     }
 
     public static String stripAllHtmlTags(String html) {
         if (html == null) return "";
-        return html.replaceAll("<[^>]*>", "").trim();
+        StringBuilder text = new StringBuilder(html.length());
+        int start = 0;
+        int open;
+        while ((open = html.indexOf('<', start)) >= 0) {
+            int close = html.indexOf('>', open);
+            if (close < 0) {
+                break;
+            }
+            text.append(html, start, open);
+            start = close + 1;
+        }
+        text.append(html, start, html.length());
+        return text.toString().trim();
     }
 
 
@@ -0,0 +1,90 @@
+package com.documentmaster.app.utils.word;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Belge açılırken DOCX → HTML dönüşümü editör ekranı kurulurken arka planda başlatılır; editör
+// aynı dosyayı yeniden ayrıştırmak yerine sonucu buradan alır. Tek kayıtlıdır ve bir kez kullanılır.
+public class DocxHandoffCache {
+
+    private static final String TAG = "DocxHandoffCache";
+    // Editör bu süre içinde almazsa sonuç kullanılmaz
+    private static final long MAX_AGE_MS = 30_000;
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private static Prefetch current;
+
+    private static final class Prefetch {
+        final String key;
+        final long createdAt;
+        final Future<ConvertedDocument> future;
+
+        Prefetch(String key, long createdAt, Future<ConvertedDocument> future) {
+            this.key = key;
+            this.createdAt = createdAt;
+            this.future = future;
+        }
+    }
+
+    private DocxHandoffCache() {
+    }
+
+    public static synchronized void prefetch(String filePath) {
+        if (current != null) {
+            current.future.cancel(true);
+        }
+        current = null;
+        String key = ConversionCache.keyOf(filePath);
+        if (key == null || ConversionCache.getHtml(key) != null) {
+            // Yakın zamanda açılmış belge: editör önbellekten alır
+            return;
+        }
+        long createdAt = System.currentTimeMillis();
+        current = new Prefetch(key, createdAt, executor.submit(() -> {
+            ConvertedDocument body = WordDocumentReader.convertDocxBody(filePath, key, null, null);
+            Log.d(TAG, "Ön dönüştürme hazır: " + body.getBlockCount() + " blok, "
+                    + (System.currentTimeMillis() - createdAt) + " ms");
+            return body;
+        }));
+    }
+
+    // Dosya için hazırlanmış (ya da hazırlanmakta olan) sonuç varsa bekler ve döndürür.
+    // Sonuç yoksa, dosya o arada değiştiyse veya dönüştürme başarısızsa null döner; çağıran kendisi okur.
+    static ConvertedDocument take(String key) throws IOException {
+        Prefetch prefetch;
+        synchronized (DocxHandoffCache.class) {
+            prefetch = current;
+            current = null;
+        }
+        if (prefetch == null || System.currentTimeMillis() - prefetch.createdAt > MAX_AGE_MS
+                || !prefetch.key.equals(key)) {
+            if (prefetch != null) {
+                prefetch.future.cancel(true);
+            }
+            return null;
+        }
+
+        ConvertedDocument body;
+        try {
+            body = prefetch.future.get();
+        } catch (InterruptedException e) {
+            prefetch.future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Yükleme iptal edildi");
+        } catch (ExecutionException e) {
+            Log.w(TAG, "Ön dönüştürme başarısız, belge yeniden okunacak: " + e.getCause());
+            return null;
+        } catch (CancellationException e) {
+            return null;
+        }
+        Log.d(TAG, "Ön dönüştürme editöre aktarıldı: " + body.getBlockCount() + " blok");
+        return body;
+    }
+}
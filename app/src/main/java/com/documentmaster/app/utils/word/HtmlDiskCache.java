@@ -0,0 +1,210 @@
+package com.documentmaster.app.utils.word;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.documentmaster.app.image.ImageStore;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Dönüştürülmüş editör HTML'i uygulama önbellek klasöründe saklanır; uygulama yeniden açıldığında
+// yakın zamanda kullanılan belge ayrıştırılmadan dosyadan okunur. Her kaynak dosya için tek kayıt
+// tutulur, kayıttaki anahtar (ConversionCache.keyOf) tutmazsa kayıt silinir. Resimler ImageStore'da
+// durur; kayıt yalnızca kullandığı docmaster-img:// adreslerini listeler.
+public class HtmlDiskCache {
+
+    private static final String TAG = "HtmlDiskCache";
+    private static final String DIRECTORY_NAME = "html";
+    private static final int VERSION = 1;
+    // Toplam boyut bunu aşarsa en uzun süredir kullanılmayan kayıtlar silinir
+    private static final long MAX_CACHE_BYTES = 48L * 1024 * 1024;
+
+    private static volatile HtmlDiskCache instance;
+
+    private final File directory;
+    private final ExecutorService writeExecutor = Executors.newSingleThreadExecutor();
+
+    private HtmlDiskCache(File directory) {
+        this.directory = directory;
+    }
+
+    public static void init(Context context) {
+        File directory = new File(context.getCacheDir(), DIRECTORY_NAME);
+        if (!directory.exists() && !directory.mkdirs()) {
+            Log.e(TAG, "❌ HTML önbellek klasörü oluşturulamadı: " + directory);
+            return;
+        }
+        HtmlDiskCache cache = new HtmlDiskCache(directory);
+        cache.trimToSize(MAX_CACHE_BYTES);
+        instance = cache;
+    }
+
+    // Başlatılmamışsa null döner; çağıranlar her seferinde dönüştürür
+    public static HtmlDiskCache getInstance() {
+        return instance;
+    }
+
+    ConvertedDocument get(String filePath, String key) {
+        if (key == null) {
+            return null;
+        }
+        File file = fileFor(filePath);
+        if (!file.exists()) {
+            return null;
+        }
+        long startTime = System.currentTimeMillis();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 64 * 1024))) {
+            if (in.readInt() != VERSION || !key.equals(in.readUTF())) {
+                // Kaynak dosya değişmiş
+                file.delete();
+                return null;
+            }
+
+            int imageCount = in.readInt();
+            ImageStore store = imageCount > 0 ? ImageStore.getInstance() : null;
+            for (int i = 0; i < imageCount; i++) {
+                File image = store != null ? store.getFile(in.readUTF()) : null;
+                if (image == null) {
+                    // Resim önbelleği temizlenmiş; HTML kırık resimlerle açılmasın
+                    file.delete();
+                    return null;
+                }
+                image.setLastModified(startTime);
+            }
+
+            int blockCount = in.readInt();
+            int[] blockEnds = new int[Math.max(blockCount, 1)];
+            for (int i = 0; i < blockCount; i++) {
+                blockEnds[i] = in.readInt();
+            }
+            byte[] html = new byte[in.readInt()];
+            in.readFully(html);
+
+            file.setLastModified(startTime);
+            Log.d(TAG, "💾 HTML diskten okundu: " + blockCount + " blok, "
+                    + (System.currentTimeMillis() - startTime) + " ms");
+            return new ConvertedDocument(new String(html, StandardCharsets.UTF_8), blockEnds, blockCount);
+        } catch (IOException e) {
+            Log.w(TAG, "HTML önbellek kaydı okunamadı, silindi: " + e.getMessage());
+            file.delete();
+            return null;
+        }
+    }
+
+    // Yazma arka planda yapılır; editör beklemez
+    void put(String filePath, String key, ConvertedDocument converted) {
+        if (key == null) {
+            return;
+        }
+        writeExecutor.execute(() -> {
+            File target = fileFor(filePath);
+            File temp = new File(directory, target.getName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp), 64 * 1024))) {
+                out.writeInt(VERSION);
+                out.writeUTF(key);
+                List<String> imageUrls = findImageUrls(converted.getHtml());
+                out.writeInt(imageUrls.size());
+                for (String url : imageUrls) {
+                    out.writeUTF(url);
+                }
+                out.writeInt(converted.getBlockCount());
+                for (int i = 0; i < converted.getBlockCount(); i++) {
+                    out.writeInt(converted.getBlockEnd(i));
+                }
+                byte[] html = converted.getHtml().toString().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(html.length);
+                out.write(html);
+            } catch (IOException e) {
+                Log.e(TAG, "❌ HTML önbelleğe yazılamadı: " + e.getMessage());
+                temp.delete();
+                return;
+            }
+            if (!temp.renameTo(target)) {
+                temp.delete();
+                return;
+            }
+            trimToSize(MAX_CACHE_BYTES);
+        });
+    }
+
+    private void trimToSize(long maxBytes) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        long totalBytes = 0;
+        for (File file : files) {
+            totalBytes += file.length();
+        }
+        if (totalBytes <= maxBytes) {
+            return;
+        }
+
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        int deleted = 0;
+        for (File file : files) {
+            if (totalBytes <= maxBytes) {
+                break;
+            }
+            long length = file.length();
+            if (file.delete()) {
+                totalBytes -= length;
+                deleted++;
+            }
+        }
+        Log.d(TAG, "🧹 HTML önbelleği temizlendi: " + deleted + " kayıt silindi");
+    }
+
+    // Kayıt adı kaynak yolundan türetilir; aynı dosyanın yeni sürümü eskisinin üzerine yazılır
+    private File fileFor(String filePath) {
+        return new File(directory, sha256(new File(filePath).getAbsolutePath()) + ".html");
+    }
+
+    private static List<String> findImageUrls(CharSequence html) {
+        Set<String> urls = new LinkedHashSet<>();
+        String text = html.toString();
+        int index = text.indexOf(ImageStore.URL_PREFIX);
+        while (index >= 0) {
+            int end = text.indexOf('"', index);
+            if (end < 0) {
+                break;
+            }
+            urls.add(text.substring(index, end));
+            index = text.indexOf(ImageStore.URL_PREFIX, end);
+        }
+        return new ArrayList<>(urls);
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16));
+                hex.append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 desteklenmiyor", e);
+        }
+    }
+}
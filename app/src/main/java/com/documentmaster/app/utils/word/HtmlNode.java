@@ -0,0 +1,145 @@
+package com.documentmaster.app.utils.word;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Editör HTML'inin ağaç gösterimi: tag null ise düğüm bir metin düğümüdür
+final class HtmlNode {
+
+    final String tag;
+    final String text;
+    final HtmlNode parent;
+    private List<String> attributes;
+    private List<HtmlNode> children;
+
+    private HtmlNode(String tag, String text, HtmlNode parent) {
+        this.tag = tag;
+        this.text = text;
+        this.parent = parent;
+    }
+
+    static HtmlNode root() {
+        return new HtmlNode("#root", null, null);
+    }
+
+    HtmlNode appendElement(String tag) {
+        HtmlNode child = new HtmlNode(tag, null, this);
+        addChild(child);
+        return child;
+    }
+
+    void appendText(String text) {
+        // Ardışık metin parçaları tek düğümde birleştirilir
+        if (children != null && !children.isEmpty()) {
+            HtmlNode last = children.get(children.size() - 1);
+            if (last.isText()) {
+                children.set(children.size() - 1, new HtmlNode(null, last.text + text, this));
+                return;
+            }
+        }
+        addChild(new HtmlNode(null, text, this));
+    }
+
+    private void addChild(HtmlNode child) {
+        if (children == null) {
+            children = new ArrayList<>(4);
+        }
+        children.add(child);
+    }
+
+    void setAttribute(String name, String value) {
+        if (attributes == null) {
+            attributes = new ArrayList<>(4);
+        }
+        attributes.add(name);
+        attributes.add(value);
+    }
+
+    String attr(String name) {
+        if (attributes == null) {
+            return null;
+        }
+        for (int i = 0; i < attributes.size(); i += 2) {
+            if (attributes.get(i).equals(name)) {
+                return attributes.get(i + 1);
+            }
+        }
+        return null;
+    }
+
+    // style attribute'undaki tek bir CSS özelliğinin değeri (yoksa null)
+    String styleValue(String property) {
+        String style = attr("style");
+        if (style == null) {
+            return null;
+        }
+        int start = 0;
+        while (start < style.length()) {
+            int end = style.indexOf(';', start);
+            if (end < 0) {
+                end = style.length();
+            }
+            int colon = style.indexOf(':', start);
+            if (colon > start && colon < end
+                    && style.substring(start, colon).trim().equalsIgnoreCase(property)) {
+                return style.substring(colon + 1, end).trim();
+            }
+            start = end + 1;
+        }
+        return null;
+    }
+
+    List<HtmlNode> children() {
+        return children != null ? children : Collections.emptyList();
+    }
+
+    boolean isText() {
+        return tag == null;
+    }
+
+    boolean is(String name) {
+        return name.equals(tag);
+    }
+
+    boolean hasAncestor(String name) {
+        for (HtmlNode node = parent; node != null; node = node.parent) {
+            if (node.is(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    String textContent() {
+        if (isText()) {
+            return text;
+        }
+        StringBuilder builder = new StringBuilder();
+        appendTextContent(builder);
+        return builder.toString();
+    }
+
+    private void appendTextContent(StringBuilder builder) {
+        if (isText()) {
+            builder.append(text);
+            return;
+        }
+        for (HtmlNode child : children()) {
+            child.appendTextContent(builder);
+        }
+    }
+
+    HtmlNode findFirst(String name) {
+        for (HtmlNode child : children()) {
+            if (child.is(name)) {
+                return child;
+            }
+            HtmlNode found = child.findFirst(name);
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+}
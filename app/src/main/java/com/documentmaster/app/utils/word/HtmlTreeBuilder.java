@@ -0,0 +1,348 @@
+package com.documentmaster.app.utils.word;
+
+import java.util.Locale;
+
+// Editörün ürettiği HTML alt kümesi için tek geçişli tokenizer ve ağaç kurucu.
+// Regex kullanmaz; her karakter bir kez okunur.
+final class HtmlTreeBuilder {
+
+    private final String html;
+    private final int length;
+    private final StringBuilder textBuffer = new StringBuilder();
+    private int pos = 0;
+    private HtmlNode current;
+
+    private HtmlTreeBuilder(String html) {
+        this.html = html;
+        this.length = html.length();
+    }
+
+    static HtmlNode parse(String html) {
+        HtmlNode root = HtmlNode.root();
+        if (html == null || html.isEmpty()) {
+            return root;
+        }
+        HtmlTreeBuilder builder = new HtmlTreeBuilder(html);
+        builder.current = root;
+        builder.run();
+        return root;
+    }
+
+    private void run() {
+        while (pos < length) {
+            char c = html.charAt(pos);
+            if (c == '<' && pos + 1 < length) {
+                char next = html.charAt(pos + 1);
+                if (next == '!') {
+                    flushText();
+                    skipComment();
+                    continue;
+                } else if (next == '/') {
+                    flushText();
+                    readEndTag();
+                    continue;
+                } else if (isNameStart(next)) {
+                    flushText();
+                    readStartTag();
+                    continue;
+                }
+            }
+            if (c == '&') {
+                pos = decodeEntity(html, pos, textBuffer);
+            } else {
+                textBuffer.append(c);
+                pos++;
+            }
+        }
+        flushText();
+    }
+
+    private void flushText() {
+        if (textBuffer.length() > 0) {
+            current.appendText(textBuffer.toString());
+            textBuffer.setLength(0);
+        }
+    }
+
+    private void skipComment() {
+        if (html.startsWith("<!--", pos)) {
+            int end = html.indexOf("-->", pos + 4);
+            pos = end < 0 ? length : end + 3;
+        } else {
+            // <!DOCTYPE ...> vb.
+            int end = html.indexOf('>', pos);
+            pos = end < 0 ? length : end + 1;
+        }
+    }
+
+    private void readEndTag() {
+        pos += 2;
+        String name = readName();
+        int end = html.indexOf('>', pos);
+        pos = end < 0 ? length : end + 1;
+        if (name.isEmpty()) {
+            return;
+        }
+        // Eşleşen açık elementi bul; bulunamazsa kapanış tag'ı yok sayılır
+        for (HtmlNode node = current; node.parent != null; node = node.parent) {
+            if (node.is(name)) {
+                current = node.parent;
+                return;
+            }
+            if (isScopeBoundary(node.tag) && !isScopeBoundary(name)) {
+                return;
+            }
+        }
+    }
+
+    private void readStartTag() {
+        pos++;
+        String name = readName();
+        closeImpliedElements(name);
+        HtmlNode element = current.appendElement(name);
+
+        boolean selfClosing = false;
+        while (pos < length) {
+            skipWhitespace();
+            if (pos >= length) {
+                break;
+            }
+            char c = html.charAt(pos);
+            if (c == '>') {
+                pos++;
+                break;
+            }
+            if (c == '/') {
+                selfClosing = true;
+                pos++;
+                continue;
+            }
+            readAttribute(element);
+        }
+
+        if (isRawText(name)) {
+            // script/style içeriği belgeye taşınmaz
+            String endTag = "</" + name;
+            while (pos < length && !html.regionMatches(true, pos, endTag, 0, endTag.length())) {
+                pos++;
+            }
+            return;
+        }
+        if (!selfClosing && !isVoid(name)) {
+            current = element;
+        }
+    }
+
+    private void readAttribute(HtmlNode element) {
+        int start = pos;
+        while (pos < length) {
+            char c = html.charAt(pos);
+            if (c == '=' || c == '>' || c == '/' || Character.isWhitespace(c)) {
+                break;
+            }
+            pos++;
+        }
+        if (pos == start) {
+            // Beklenmeyen karakter: ilerlemeyi garanti et
+            pos++;
+            return;
+        }
+        String name = html.substring(start, pos).toLowerCase(Locale.ROOT);
+        skipWhitespace();
+        if (pos >= length || html.charAt(pos) != '=') {
+            element.setAttribute(name, "");
+            return;
+        }
+        pos++;
+        skipWhitespace();
+        if (pos >= length) {
+            element.setAttribute(name, "");
+            return;
+        }
+
+        char quote = html.charAt(pos);
+        int valueEnd;
+        if (quote == '"' || quote == '\'') {
+            pos++;
+            valueEnd = html.indexOf(quote, pos);
+            if (valueEnd < 0) {
+                valueEnd = length;
+            }
+        } else {
+            valueEnd = pos;
+            while (valueEnd < length && html.charAt(valueEnd) != '>'
+                    && !Character.isWhitespace(html.charAt(valueEnd))) {
+                valueEnd++;
+            }
+            quote = 0;
+        }
+        element.setAttribute(name, decodeEntities(html, pos, valueEnd));
+        pos = quote != 0 && valueEnd < length ? valueEnd + 1 : valueEnd;
+    }
+
+    private String readName() {
+        int start = pos;
+        while (pos < length) {
+            char c = html.charAt(pos);
+            if (!Character.isLetterOrDigit(c) && c != '-' && c != ':') {
+                break;
+            }
+            pos++;
+        }
+        return html.substring(start, pos).toLowerCase(Locale.ROOT);
+    }
+
+    private void skipWhitespace() {
+        while (pos < length && Character.isWhitespace(html.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    // Tarayıcının yaptığı gibi: blok element açılırken açık <p> kapanır, yeni hücre/satır öncekini kapatır
+    private void closeImpliedElements(String name) {
+        if (isBlock(name)) {
+            closeOpen("p", null);
+        }
+        switch (name) {
+            case "li":
+                closeOpen("li", "ul", "ol");
+                break;
+            case "td":
+            case "th":
+                closeOpen("td", "tr", "table");
+                closeOpen("th", "tr", "table");
+                break;
+            case "tr":
+                closeOpen("td", "tr", "table");
+                closeOpen("th", "tr", "table");
+                closeOpen("tr", "table", null);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void closeOpen(String name, String boundary) {
+        closeOpen(name, boundary, null);
+    }
+
+    private void closeOpen(String name, String boundary, String secondBoundary) {
+        for (HtmlNode node = current; node.parent != null; node = node.parent) {
+            if (node.is(name)) {
+                current = node.parent;
+                return;
+            }
+            if (node.is("td") || node.is("th") || node.is("table")
+                    || (boundary != null && node.is(boundary))
+                    || (secondBoundary != null && node.is(secondBoundary))) {
+                return;
+            }
+        }
+    }
+
+    static String decodeEntities(String source, int start, int end) {
+        int amp = source.indexOf('&', start);
+        if (amp < 0 || amp >= end) {
+            return source.substring(start, end);
+        }
+        StringBuilder decoded = new StringBuilder(end - start);
+        int i = start;
+        while (i < end) {
+            char c = source.charAt(i);
+            if (c == '&') {
+                i = decodeEntity(source, i, decoded);
+            } else {
+                decoded.append(c);
+                i++;
+            }
+        }
+        return decoded.toString();
+    }
+
+    // '&' konumundaki entity'yi çözer ve sonraki konumu döndürür; tanınmayan entity olduğu gibi kalır
+    private static int decodeEntity(String source, int start, StringBuilder out) {
+        int semicolon = source.indexOf(';', start);
+        if (semicolon < 0 || semicolon - start > 10) {
+            out.append('&');
+            return start + 1;
+        }
+        String name = source.substring(start + 1, semicolon);
+        int codePoint = -1;
+        switch (name) {
+            case "amp": codePoint = '&'; break;
+            case "lt": codePoint = '<'; break;
+            case "gt": codePoint = '>'; break;
+            case "quot": codePoint = '"'; break;
+            case "apos": codePoint = '\''; break;
+            case "nbsp": codePoint = '\u00A0'; break;
+            default:
+                if (name.length() > 1 && name.charAt(0) == '#') {
+                    try {
+                        codePoint = name.charAt(1) == 'x' || name.charAt(1) == 'X'
+                                ? Integer.parseInt(name.substring(2), 16)
+                                : Integer.parseInt(name.substring(1));
+                    } catch (NumberFormatException e) {
+                        codePoint = -1;
+                    }
+                }
+                break;
+        }
+        if (codePoint < 0 || !Character.isValidCodePoint(codePoint)) {
+            out.append('&');
+            return start + 1;
+        }
+        out.appendCodePoint(codePoint);
+        return semicolon + 1;
+    }
+
+    private static boolean isNameStart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    static boolean isVoid(String name) {
+        switch (name) {
+            case "img":
+            case "br":
+            case "hr":
+            case "input":
+            case "meta":
+            case "link":
+            case "col":
+            case "wbr":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    static boolean isBlock(String name) {
+        switch (name) {
+            case "p":
+            case "div":
+            case "table":
+            case "ul":
+            case "ol":
+            case "li":
+            case "blockquote":
+            case "pre":
+            case "hr":
+            case "h1":
+            case "h2":
+            case "h3":
+            case "h4":
+            case "h5":
+            case "h6":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isScopeBoundary(String name) {
+        return "td".equals(name) || "th".equals(name) || "table".equals(name);
+    }
+
+    private static boolean isRawText(String name) {
+        return "script".equals(name) || "style".equals(name);
+    }
+}
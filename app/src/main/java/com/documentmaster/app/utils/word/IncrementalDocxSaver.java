@@ -0,0 +1,207 @@
+package com.documentmaster.app.utils.word;
+
+import android.util.Log;
+
+import org.apache.poi.xwpf.usermodel.IBodyElement;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlObject;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTBody;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTP;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSectPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTbl;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Yalnızca değişen blokları yeniden üreterek mevcut DOCX paketini günceller.
+// Değişmeyen paragraf/tablolar XML olarak yerinde taşınır; resim, stil, üst/alt bilgi
+// parçalarına dokunulmaz.
+public class IncrementalDocxSaver {
+
+    private static final String TAG = "IncrementalDocxSaver";
+
+    // Editörün gönderdiği değişiklik listesi: her eleman ya değişmemiş bir bloğun
+    // yüklemedeki sırası (Integer) ya da yeniden üretilecek HTML (String)
+    public static class BlockChanges {
+        public final int token;
+        public final List<Object> entries;
+
+        BlockChanges(int token, List<Object> entries) {
+            this.token = token;
+            this.entries = entries;
+        }
+
+        public int getDirtyCount() {
+            int dirty = 0;
+            for (Object entry : entries) {
+                if (entry instanceof String) {
+                    dirty++;
+                }
+            }
+            return dirty;
+        }
+    }
+
+    public static BlockChanges parseBlockChanges(String json) {
+        if (json == null || json.isEmpty() || "null".equals(json)) {
+            return null;
+        }
+        try {
+            JSONObject object = new JSONObject(json);
+            JSONArray array = object.getJSONArray("entries");
+            List<Object> entries = new ArrayList<>(array.length());
+            for (int i = 0; i < array.length(); i++) {
+                Object value = array.get(i);
+                if (value instanceof Number) {
+                    entries.add(((Number) value).intValue());
+                } else {
+                    entries.add(String.valueOf(value));
+                }
+            }
+            return new BlockChanges(object.getInt("token"), entries);
+        } catch (JSONException e) {
+            Log.e(TAG, "❌ Blok değişiklikleri çözümlenemedi: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public static boolean canSaveIncrementally(String sourcePath) {
+        return sourcePath != null && sourcePath.toLowerCase().endsWith(".docx") && new File(sourcePath).isFile();
+    }
+
+    // Her değişiklik girdisi için yeni belgede kaç gövde bloğu oluştuğunu döndürür;
+    // editör bu sayılarla blok kimliklerini yeni numaralandırmaya göre günceller.
+    public static int[] save(String sourcePath, String targetPath, BlockChanges changes) throws IOException {
+        return save(sourcePath, targetPath, changes, null, null);
+    }
+
+    // expectedSourceKey, editördeki blok kimliklerinin numaralandığı dosya sürümüdür (ConversionCache.keyOf).
+    // Dosya o zamandan beri başka bir uygulama ya da eşitleme istemcisi tarafından değiştirildiyse
+    // numaralar başka bloklara denk gelir; belge bozulmasın diye IOException fırlatılır.
+    public static int[] save(String sourcePath, String targetPath, BlockChanges changes,
+                             String expectedSourceKey, SaveProgress progress) throws IOException {
+        long startTime = System.currentTimeMillis();
+        SaveProgress.report(progress, SaveProgress.Stage.PARSE);
+        XWPFDocument document;
+        try (FileInputStream fis = new FileInputStream(sourcePath)) {
+            document = new XWPFDocument(fis);
+        }
+        // Okuma bittikten sonra denetlenir; arada değişen dosya da yakalanır
+        if (expectedSourceKey != null && !expectedSourceKey.equals(ConversionCache.keyOf(sourcePath))) {
+            document.close();
+            throw new IOException("Belge yüklendikten sonra dışarıdan değiştirildi: " + new File(sourcePath).getName());
+        }
+
+        SaveProgress.report(progress, SaveProgress.Stage.BUILD);
+        CTBody body = document.getDocument().getBody();
+        List<XmlObject> originalBlocks = collectBlocks(body);
+        boolean[] kept = new boolean[originalBlocks.size()];
+        int[] blockCounts = new int[changes.entries.size()];
+
+        // Girdiler sırayla gövdenin sonuna taşınır/eklenir; böylece son sıra editördeki sıra olur
+        for (int i = 0; i < changes.entries.size(); i++) {
+            Object entry = changes.entries.get(i);
+            if (entry instanceof Integer) {
+                int index = (Integer) entry;
+                if (index < 0 || index >= originalBlocks.size() || kept[index]) {
+                    throw new IOException("Geçersiz blok kimliği: " + index);
+                }
+                kept[index] = true;
+                moveBlockToEnd(body, originalBlocks.get(index));
+                blockCounts[i] = 1;
+            } else {
+                List<IBodyElement> bodyElements = document.getBodyElements();
+                int before = bodyElements.size();
+                DocumentConverter.appendHtmlBlocks(document, (String) entry);
+                for (int j = before; j < bodyElements.size(); j++) {
+                    moveToEnd(body, blockXml(bodyElements.get(j)));
+                }
+                blockCounts[i] = bodyElements.size() - before;
+            }
+        }
+
+        int removed = 0;
+        for (int i = 0; i < originalBlocks.size(); i++) {
+            if (!kept[i]) {
+                try (XmlCursor cursor = originalBlocks.get(i).newCursor()) {
+                    cursor.removeXml();
+                }
+                removed++;
+            }
+        }
+
+        if (collectBlocks(body).isEmpty()) {
+            // Word gövdede en az bir paragraf bekler
+            moveToEnd(body, document.createParagraph().getCTP());
+        }
+
+        WordDocumentWriter.writeDocument(document, targetPath, progress);
+
+        Log.d(TAG, "✅ Artımlı kaydetme: " + changes.getDirtyCount() + " blok yeniden üretildi, "
+                + removed + " blok silindi, " + (System.currentTimeMillis() - startTime) + " ms");
+        return blockCounts;
+    }
+
+    // Gövdenin doğrudan paragraf ve tablo çocukları; okuyucuların blok numaralandırmasıyla aynı
+    private static List<XmlObject> collectBlocks(CTBody body) {
+        List<XmlObject> blocks = new ArrayList<>();
+        try (XmlCursor cursor = body.newCursor()) {
+            if (cursor.toFirstChild()) {
+                do {
+                    XmlObject object = cursor.getObject();
+                    if (object instanceof CTP || object instanceof CTTbl) {
+                        blocks.add(object);
+                    }
+                } while (cursor.toNextSibling());
+            }
+        }
+        return blocks;
+    }
+
+    // Blok, arkasından gelen blok olmayan kardeşleriyle (yer imi, içerik denetimi vb.) birlikte taşınır
+    private static void moveBlockToEnd(CTBody body, XmlObject block) {
+        List<XmlObject> group = new ArrayList<>();
+        group.add(block);
+        try (XmlCursor cursor = block.newCursor()) {
+            while (cursor.toNextSibling()) {
+                XmlObject sibling = cursor.getObject();
+                if (sibling instanceof CTP || sibling instanceof CTTbl || sibling instanceof CTSectPr) {
+                    break;
+                }
+                group.add(sibling);
+            }
+        }
+        for (XmlObject object : group) {
+            moveToEnd(body, object);
+        }
+    }
+
+    // Bölüm özellikleri (sectPr) gövdenin son elemanı kalmalıdır
+    private static void moveToEnd(CTBody body, XmlObject object) {
+        try (XmlCursor source = object.newCursor();
+             XmlCursor destination = body.isSetSectPr() ? body.getSectPr().newCursor() : body.newCursor()) {
+            if (!body.isSetSectPr()) {
+                destination.toEndToken();
+            }
+            source.moveXml(destination);
+        }
+    }
+
+    private static XmlObject blockXml(IBodyElement element) {
+        if (element instanceof XWPFParagraph) {
+            return ((XWPFParagraph) element).getCTP();
+        } else if (element instanceof XWPFTable) {
+            return ((XWPFTable) element).getCTTbl();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,198 @@
+package com.documentmaster.app.utils.word;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// DOCX → HTML dönüşümünde ağır parçalar (resimlerin önbelleğe yazılması ya da base64 kodlanması)
+// çekirdek sayısı kadar iş parçacıklı ayrı bir havuzda hesaplanır; dosya yazımı ortak havuzu meşgul
+// etmez. Bloklar belge sırasıyla hedefe aktarılır. Bekleyen blok sayısı ve bekleyen resim baytları
+// sınırlıdır; sınır aşılınca okuyucu en eski bloğun tamamlanmasını bekler.
+final class ParallelHtmlWriter implements Appendable, WordDocumentReader.BlockListener {
+
+    private static final int THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final int WINDOW_BLOCKS = THREADS * 4;
+    private static final long MAX_PENDING_IMAGE_BYTES = 32L * 1024 * 1024;
+
+    private static ExecutorService executor;
+
+    private static final class Block {
+        // StringBuilder ya da Future<String>
+        final List<Object> parts = new ArrayList<>();
+        int blockCount = -1;
+        long imageBytes;
+
+        StringBuilder text() {
+            Object last = parts.isEmpty() ? null : parts.get(parts.size() - 1);
+            if (last instanceof StringBuilder) {
+                return (StringBuilder) last;
+            }
+            StringBuilder text = new StringBuilder();
+            parts.add(text);
+            return text;
+        }
+
+        boolean isDone() {
+            for (Object part : parts) {
+                if (part instanceof Future && !((Future<?>) part).isDone()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private final Appendable out;
+    private final WordDocumentReader.BlockListener listener;
+    private final ArrayDeque<Block> pending = new ArrayDeque<>();
+    private Block current;
+    private long pendingImageBytes;
+
+    ParallelHtmlWriter(Appendable out, WordDocumentReader.BlockListener listener) {
+        this.out = out;
+        this.listener = listener;
+    }
+
+    // Bekleyen iş yoksa metin doğrudan hedefe yazılır
+    @Override
+    public Appendable append(CharSequence csq) throws IOException {
+        if (current == null && pending.isEmpty()) {
+            out.append(csq);
+        } else {
+            currentBlock().text().append(csq);
+        }
+        return this;
+    }
+
+    @Override
+    public Appendable append(CharSequence csq, int start, int end) throws IOException {
+        if (current == null && pending.isEmpty()) {
+            out.append(csq, start, end);
+        } else {
+            currentBlock().text().append(csq, start, end);
+        }
+        return this;
+    }
+
+    @Override
+    public Appendable append(char c) throws IOException {
+        if (current == null && pending.isEmpty()) {
+            out.append(c);
+        } else {
+            currentBlock().text().append(c);
+        }
+        return this;
+    }
+
+    // Parçanın HTML'i havuzda üretilir ve bulunduğu konuma yerleştirilir
+    void appendDeferred(long imageBytes, Callable<String> fragment) {
+        Block block = currentBlock();
+        block.parts.add(executor().submit(fragment));
+        block.imageBytes += imageBytes;
+        pendingImageBytes += imageBytes;
+    }
+
+    @Override
+    public void onBlockWritten(int blockCount) throws IOException {
+        if (current == null && pending.isEmpty()) {
+            if (listener != null) {
+                listener.onBlockWritten(blockCount);
+            }
+            return;
+        }
+        Block block = currentBlock();
+        block.blockCount = blockCount;
+        pending.add(block);
+        current = null;
+        drain(false);
+    }
+
+    // Kalan bütün bloklar sırayla yazılır
+    void finish() throws IOException {
+        if (current != null) {
+            pending.add(current);
+            current = null;
+        }
+        drain(true);
+    }
+
+    // Hata veya iptal durumunda bekleyen işler bırakılır
+    void cancel() {
+        if (current != null) {
+            pending.add(current);
+            current = null;
+        }
+        for (Block block : pending) {
+            for (Object part : block.parts) {
+                if (part instanceof Future) {
+                    ((Future<?>) part).cancel(false);
+                }
+            }
+        }
+        pending.clear();
+    }
+
+    private static synchronized ExecutorService executor() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(THREADS);
+        }
+        return executor;
+    }
+
+    private Block currentBlock() {
+        if (current == null) {
+            current = new Block();
+        }
+        return current;
+    }
+
+    private void drain(boolean all) throws IOException {
+        while (!pending.isEmpty()) {
+            Block head = pending.peek();
+            boolean overLimit = pending.size() > WINDOW_BLOCKS || pendingImageBytes > MAX_PENDING_IMAGE_BYTES;
+            if (!all && !overLimit && !head.isDone()) {
+                return;
+            }
+            pending.poll();
+            write(head);
+        }
+    }
+
+    private void write(Block block) throws IOException {
+        for (Object part : block.parts) {
+            if (part instanceof StringBuilder) {
+                out.append((StringBuilder) part);
+            } else {
+                out.append(await((Future<?>) part));
+            }
+        }
+        pendingImageBytes -= block.imageBytes;
+        if (block.blockCount >= 0 && listener != null) {
+            listener.onBlockWritten(block.blockCount);
+        }
+    }
+
+    private static String await(Future<?> future) throws IOException {
+        try {
+            return (String) future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Dönüştürme kesildi");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+}
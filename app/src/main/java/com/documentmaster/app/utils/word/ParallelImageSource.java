@@ -0,0 +1,129 @@
+package com.documentmaster.app.utils.word;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Resimler belge sırasıyla, eklemeden önde giden sınırlı bir pencere halinde çekirdek sayısı kadar
+// iş parçacığında hazırlanır. Belgeye ekleme çağıranın iş parçacığında sırayla yapıldığı için çıktı
+// sıralı dönüşümle aynıdır; pencere bellekte aynı anda tutulan çözülmüş resim sayısını sınırlar.
+// Aynı kaynak bir kez hazırlanır ve son kullanımına kadar tutulur.
+final class ParallelImageSource implements DocumentConverter.ImageSource {
+
+    private static final int THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final int WINDOW = THREADS * 2;
+
+    private static ExecutorService executor;
+
+    // Farklı kaynaklar, belgede ilk göründükleri sırayla
+    private final List<HtmlNode> sources = new ArrayList<>();
+    private final Map<String, Integer> indexes = new HashMap<>();
+    private final int[] remainingUses;
+    private final List<Future<DocumentConverter.PreparedImage>> futures = new ArrayList<>();
+    private final Map<Integer, DocumentConverter.PreparedImage> prepared = new HashMap<>();
+    private int submitted;
+    private int consumed;
+
+    ParallelImageSource(List<HtmlNode> images) {
+        Map<String, Integer> uses = DirectImageSource.countSources(images);
+        for (HtmlNode image : images) {
+            String source = DirectImageSource.sourceOf(image);
+            if (!indexes.containsKey(source)) {
+                indexes.put(source, sources.size());
+                sources.add(image);
+                futures.add(null);
+            }
+        }
+        remainingUses = new int[sources.size()];
+        for (int i = 0; i < sources.size(); i++) {
+            remainingUses[i] = uses.get(DirectImageSource.sourceOf(sources.get(i)));
+        }
+        submitUpTo(WINDOW);
+    }
+
+    static boolean hasDistinctSources(List<HtmlNode> images) {
+        return DirectImageSource.countSources(images).size() > 1;
+    }
+
+    private static synchronized ExecutorService executor() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(THREADS);
+        }
+        return executor;
+    }
+
+    @Override
+    public DocumentConverter.PreparedImage get(HtmlNode image) throws IOException {
+        Integer index = indexes.get(DirectImageSource.sourceOf(image));
+        if (index == null) {
+            // Ön taramada toplanmamış resim
+            return DocumentConverter.prepareImage(image);
+        }
+        consumed = Math.max(consumed, index + 1);
+        submitUpTo(consumed + WINDOW);
+
+        DocumentConverter.PreparedImage result;
+        if (prepared.containsKey(index)) {
+            result = prepared.get(index);
+        } else {
+            Future<DocumentConverter.PreparedImage> future = futures.set(index, null);
+            result = future != null ? await(future, image) : DocumentConverter.prepareImage(image);
+        }
+
+        if (--remainingUses[index] > 0) {
+            prepared.put(index, result);
+        } else {
+            prepared.remove(index);
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        for (int i = 0; i < submitted; i++) {
+            Future<DocumentConverter.PreparedImage> future = futures.set(i, null);
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+        prepared.clear();
+    }
+
+    private void submitUpTo(int end) {
+        int limit = Math.min(end, sources.size());
+        for (; submitted < limit; submitted++) {
+            HtmlNode image = sources.get(submitted);
+            futures.set(submitted, executor().submit(() -> DocumentConverter.prepareImage(image)));
+        }
+    }
+
+    private static DocumentConverter.PreparedImage await(Future<DocumentConverter.PreparedImage> future,
+                                                         HtmlNode image) throws IOException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Resim hazırlama kesildi");
+        } catch (CancellationException e) {
+            return DocumentConverter.prepareImage(image);
+        }
+    }
+}
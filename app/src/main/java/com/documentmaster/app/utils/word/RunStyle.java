@@ -0,0 +1,239 @@
+package com.documentmaster.app.utils.word;
+
+import org.apache.poi.xwpf.usermodel.UnderlinePatterns;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+
+import java.util.Locale;
+import java.util.Objects;
+
+// HTML→DOCX dönüşümünde bir metin parçasının biçimi. Değiştirilemez; her element için
+// üst elementin stilinden türetilir, böylece stil yığını düğüm zinciri olarak taşınır.
+final class RunStyle {
+
+    static final RunStyle DEFAULT = new RunStyle(false, false, false, "Calibri", 11, null);
+
+    // CSS temel renk adları
+    private static final String[][] NAMED_COLORS = {
+            {"black", "000000"}, {"white", "FFFFFF"}, {"red", "FF0000"}, {"green", "008000"},
+            {"blue", "0000FF"}, {"yellow", "FFFF00"}, {"gray", "808080"}, {"grey", "808080"},
+            {"silver", "C0C0C0"}, {"maroon", "800000"}, {"purple", "800080"}, {"fuchsia", "FF00FF"},
+            {"lime", "00FF00"}, {"olive", "808000"}, {"navy", "000080"}, {"teal", "008080"},
+            {"aqua", "00FFFF"}, {"orange", "FFA500"}
+    };
+
+    final boolean bold;
+    final boolean italic;
+    final boolean underline;
+    final String fontFamily;
+    final int fontSize;
+    final String color;
+
+    private RunStyle(boolean bold, boolean italic, boolean underline,
+                     String fontFamily, int fontSize, String color) {
+        this.bold = bold;
+        this.italic = italic;
+        this.underline = underline;
+        this.fontFamily = fontFamily;
+        this.fontSize = fontSize;
+        this.color = color;
+    }
+
+    // Elementin tag'ı ve style attribute'u bu stilin üzerine uygulanır
+    RunStyle derive(HtmlNode element) {
+        boolean bold = this.bold;
+        boolean italic = this.italic;
+        boolean underline = this.underline;
+        String fontFamily = this.fontFamily;
+        int fontSize = this.fontSize;
+        String color = this.color;
+
+        switch (element.tag) {
+            case "strong":
+            case "b":
+                bold = true;
+                break;
+            case "em":
+            case "i":
+                italic = true;
+                break;
+            case "u":
+                underline = true;
+                break;
+            case "font":
+                fontFamily = orDefault(parseFontFamily(element.attr("face")), fontFamily);
+                color = orDefault(parseColor(element.attr("color")), color);
+                int htmlSize = parseHtmlFontSize(element.attr("size"));
+                if (htmlSize > 0) fontSize = htmlSize;
+                break;
+            default:
+                break;
+        }
+
+        if (element.attr("style") != null) {
+            String weight = element.styleValue("font-weight");
+            if (weight != null) {
+                bold = weight.equals("bold") || weight.equals("bolder")
+                        || (weight.length() == 3 && weight.compareTo("600") >= 0);
+            }
+            String fontStyle = element.styleValue("font-style");
+            if (fontStyle != null) {
+                italic = fontStyle.equals("italic") || fontStyle.equals("oblique");
+            }
+            String decoration = element.styleValue("text-decoration-line");
+            if (decoration == null) {
+                decoration = element.styleValue("text-decoration");
+            }
+            if (decoration != null && decoration.contains("underline")) {
+                underline = true;
+            }
+            fontFamily = orDefault(parseFontFamily(element.styleValue("font-family")), fontFamily);
+            int styleSize = parseFontSize(element.styleValue("font-size"));
+            if (styleSize > 0) fontSize = styleSize;
+            color = orDefault(parseColor(element.styleValue("color")), color);
+        }
+
+        if (bold == this.bold && italic == this.italic && underline == this.underline
+                && fontSize == this.fontSize && Objects.equals(fontFamily, this.fontFamily)
+                && Objects.equals(color, this.color)) {
+            return this;
+        }
+        return new RunStyle(bold, italic, underline, fontFamily, fontSize, color);
+    }
+
+    void applyTo(XWPFRun run) {
+        run.setFontFamily(fontFamily);
+        run.setFontSize(fontSize);
+        if (color != null) run.setColor(color);
+        if (bold) run.setBold(true);
+        if (italic) run.setItalic(true);
+        if (underline) run.setUnderline(UnderlinePatterns.SINGLE);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RunStyle)) return false;
+        RunStyle other = (RunStyle) o;
+        return bold == other.bold && italic == other.italic && underline == other.underline
+                && fontSize == other.fontSize && Objects.equals(fontFamily, other.fontFamily)
+                && Objects.equals(color, other.color);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(bold, italic, underline, fontFamily, fontSize, color);
+    }
+
+    private static String orDefault(String value, String fallback) {
+        return value != null ? value : fallback;
+    }
+
+    private static String parseFontFamily(String value) {
+        if (value == null) {
+            return null;
+        }
+        int comma = value.indexOf(',');
+        String family = (comma >= 0 ? value.substring(0, comma) : value).trim();
+        if (family.length() >= 2 && (family.charAt(0) == '"' || family.charAt(0) == '\'')) {
+            family = family.substring(1, family.length() - 1).trim();
+        }
+        return family.isEmpty() ? null : family;
+    }
+
+    // "14pt", "18px" veya "12" -> punto; çözülemezse 0
+    private static int parseFontSize(String value) {
+        if (value == null) {
+            return 0;
+        }
+        String number = value.trim().toLowerCase(Locale.ROOT);
+        boolean pixels = number.endsWith("px");
+        if (pixels || number.endsWith("pt")) {
+            number = number.substring(0, number.length() - 2).trim();
+        }
+        try {
+            double size = Double.parseDouble(number);
+            if (pixels) {
+                size = size * 0.75;
+            }
+            return size > 0 ? (int) Math.round(size) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    // <font size="1-7"> değerleri punto karşılıkları
+    private static int parseHtmlFontSize(String value) {
+        if (value == null || value.length() != 1) {
+            return 0;
+        }
+        int htmlSize = value.charAt(0) - '0';
+        int[] ptSizes = {8, 10, 12, 14, 18, 24, 36};
+        return htmlSize >= 1 && htmlSize <= 7 ? ptSizes[htmlSize - 1] : 0;
+    }
+
+    // "#ff00ff", "ff00ff", "#f0f", "rgb(255, 0, 255)" ya da temel renk adı -> 6 haneli onaltılık renk.
+    // Word yalnızca 6 haneli ST_HexColor kabul eder; tanınmayan değerler (var(--x), hsl() ...) null döner.
+    static String parseColor(String value) {
+        if (value == null) {
+            return null;
+        }
+        String color = value.trim();
+        if (color.startsWith("rgb")) {
+            int open = color.indexOf('(');
+            int close = color.indexOf(')');
+            if (open < 0 || close < open) {
+                return null;
+            }
+            String[] parts = color.substring(open + 1, close).split(",");
+            if (parts.length < 3) {
+                return null;
+            }
+            try {
+                int red = Integer.parseInt(parts[0].trim());
+                int green = Integer.parseInt(parts[1].trim());
+                int blue = Integer.parseInt(parts[2].trim());
+                if (!isByte(red) || !isByte(green) || !isByte(blue)) {
+                    return null;
+                }
+                return String.format(Locale.ROOT, "%02X%02X%02X", red, green, blue);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        for (String[] named : NAMED_COLORS) {
+            if (named[0].equalsIgnoreCase(color)) {
+                return named[1];
+            }
+        }
+        boolean hash = color.startsWith("#");
+        if (hash) {
+            color = color.substring(1);
+        }
+        if (!isHex(color)) {
+            return null;
+        }
+        if (hash && color.length() == 3) {
+            char red = color.charAt(0);
+            char green = color.charAt(1);
+            char blue = color.charAt(2);
+            return new String(new char[]{red, red, green, green, blue, blue});
+        }
+        return color.length() == 6 ? color : null;
+    }
+
+    private static boolean isByte(int value) {
+        return value >= 0 && value <= 255;
+    }
+
+    private static boolean isHex(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.digit(value.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,23 @@
+package com.documentmaster.app.utils.word;
+
+import java.io.InterruptedIOException;
+
+// Kaydetmenin her aşaması başında çağrılır. Kaydetme iptal edildiyse InterruptedIOException
+// fırlatılır; geçici dosya silinir, hedef dosyaya dokunulmaz.
+public interface SaveProgress {
+
+    enum Stage {
+        PARSE,  // HTML çözümleniyor / kaynak belge okunuyor
+        BUILD,  // DOCX gövdesi oluşturuluyor
+        ZIP,    // paket yazılıyor
+        FLUSH   // diske yazılıp yerine taşınıyor
+    }
+
+    void onStage(Stage stage) throws InterruptedIOException;
+
+    static void report(SaveProgress progress, Stage stage) throws InterruptedIOException {
+        if (progress != null) {
+            progress.onStage(stage);
+        }
+    }
+}
@@ -0,0 +1,515 @@
+package com.documentmaster.app.utils.word;
+
+import android.util.Log;
+import android.util.Xml;
+
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+// word/document.xml dosyasını XWPFDocument nesne modeli kurmadan pull parser ile okur ve
+// DocumentConverter ile aynı HTML'i üretir. Her gövde elemanı kapanır kapanmaz hedefe yazılır.
+public class StreamingDocxReader {
+
+    private static final String TAG = "StreamingDocxReader";
+
+    public static final String W_NS = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+    static final String R_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    static final String A_NS = "http://schemas.openxmlformats.org/drawingml/2006/main";
+    static final String PIC_NS = "http://schemas.openxmlformats.org/drawingml/2006/picture";
+    private static final String PKG_RELS_NS = "http://schemas.openxmlformats.org/package/2006/relationships";
+    static final String CONTENT_TYPES_NS = "http://schemas.openxmlformats.org/package/2006/content-types";
+
+    public static final String DOCUMENT_PART = "word/document.xml";
+    private static final String DOCUMENT_RELS_PART = "word/_rels/document.xml.rels";
+    static final String CONTENT_TYPES_PART = "[Content_Types].xml";
+
+    private final ZipFile zipFile;
+    private final Map<String, String> imageTargets = new HashMap<>();
+    private final Map<String, String> defaultContentTypes = new HashMap<>();
+    private final Map<String, String> overrideContentTypes = new HashMap<>();
+
+    private StreamingDocxReader(ZipFile zipFile) {
+        this.zipFile = zipFile;
+    }
+
+    public static void writeBodyAsHtml(String filePath, Appendable out, WordDocumentReader.BlockListener listener)
+            throws IOException {
+        try (ZipFile zipFile = new ZipFile(filePath)) {
+            StreamingDocxReader reader = new StreamingDocxReader(zipFile);
+            reader.readContentTypes();
+            reader.readDocumentRelationships();
+            reader.writeBody(out, listener);
+        } catch (XmlPullParserException e) {
+            throw new IOException("document.xml ayrıştırılamadı: " + e.getMessage(), e);
+        }
+    }
+
+    // ========== GÖVDE ==========
+
+    private void writeBody(Appendable out, WordDocumentReader.BlockListener listener)
+            throws IOException, XmlPullParserException {
+        ZipEntry entry = zipFile.getEntry(DOCUMENT_PART);
+        if (entry == null) {
+            throw new IOException("word/document.xml bulunamadı");
+        }
+        try (InputStream in = zipFile.getInputStream(entry)) {
+            XmlPullParser parser = newParser(in);
+            if (!skipTo(parser, W_NS, "body")) {
+                throw new IOException("w:body bulunamadı");
+            }
+            int bodyDepth = parser.getDepth();
+            int blockCount = 0;
+            while (nextChildStart(parser, bodyDepth)) {
+                if (isW(parser, "p")) {
+                    writeParagraph(readParagraph(parser), blockCount, out);
+                } else if (isW(parser, "tbl")) {
+                    writeTable(readTable(parser), blockCount, out);
+                } else {
+                    skipElement(parser);
+                    continue;
+                }
+                blockCount++;
+                if (listener != null) {
+                    listener.onBlockWritten(blockCount);
+                }
+            }
+        }
+    }
+
+    // ========== PARAGRAF ==========
+
+    static class RunInfo {
+        String text;
+        boolean bold;
+        boolean italic;
+        boolean underline;
+        String fontFamily;
+        int fontSize = -1;
+        String color;
+        final List<String> pictureRelationIds = new ArrayList<>();
+    }
+
+    static class ParagraphInfo {
+        String alignment;
+        final List<RunInfo> runs = new ArrayList<>();
+        // Run listesine girmeyen ama XWPFParagraph.getText() içinde yer alan metin (satır içi w:sdt)
+        final StringBuilder otherText = new StringBuilder();
+    }
+
+    private ParagraphInfo readParagraph(XmlPullParser parser) throws IOException, XmlPullParserException {
+        ParagraphInfo paragraph = new ParagraphInfo();
+        readParagraphContent(parser, paragraph);
+        return paragraph;
+    }
+
+    private void readParagraphContent(XmlPullParser parser, ParagraphInfo paragraph)
+            throws IOException, XmlPullParserException {
+        int depth = parser.getDepth();
+        while (nextChildStart(parser, depth)) {
+            if (isW(parser, "pPr")) {
+                paragraph.alignment = readAlignment(parser);
+            } else if (isW(parser, "r")) {
+                paragraph.runs.add(readRun(parser));
+            } else if (isW(parser, "hyperlink") || isW(parser, "fldSimple") || isW(parser, "ins")
+                    || isW(parser, "del") || isW(parser, "smartTag") || isW(parser, "customXml")) {
+                // POI bu kapsayıcılardaki run'ları da paragrafın run listesine dahil eder
+                readParagraphContent(parser, paragraph);
+            } else if (isW(parser, "sdt")) {
+                appendParagraphText(parser, paragraph.otherText);
+            } else {
+                skipElement(parser);
+            }
+        }
+    }
+
+    private String readAlignment(XmlPullParser parser) throws IOException, XmlPullParserException {
+        String alignment = null;
+        int depth = parser.getDepth();
+        while (nextChildStart(parser, depth)) {
+            if (isW(parser, "jc")) {
+                alignment = wAttr(parser, "val");
+            }
+            skipElement(parser);
+        }
+        return alignment;
+    }
+
+    private RunInfo readRun(XmlPullParser parser) throws IOException, XmlPullParserException {
+        RunInfo run = new RunInfo();
+        int depth = parser.getDepth();
+        while (nextChildStart(parser, depth)) {
+            if (isW(parser, "rPr")) {
+                readRunProperties(parser, run);
+            } else if (isW(parser, "t")) {
+                String text = parser.nextText();
+                // XWPFRun.getText(0) gibi yalnızca ilk w:t alınır
+                if (run.text == null) {
+                    run.text = text;
+                }
+            } else if (isW(parser, "drawing") || isW(parser, "pict")) {
+                collectPictureRelationIds(parser, run.pictureRelationIds);
+            } else {
+                skipElement(parser);
+            }
+        }
+        return run;
+    }
+
+    private void readRunProperties(XmlPullParser parser, RunInfo run) throws IOException, XmlPullParserException {
+        int depth = parser.getDepth();
+        while (nextChildStart(parser, depth)) {
+            if (isW(parser, "b")) {
+                run.bold = isOn(wAttr(parser, "val"));
+            } else if (isW(parser, "i")) {
+                run.italic = isOn(wAttr(parser, "val"));
+            } else if (isW(parser, "u")) {
+                String val = wAttr(parser, "val");
+                run.underline = val != null && !"none".equals(val);
+            } else if (isW(parser, "rFonts")) {
+                run.fontFamily = wAttr(parser, "ascii");
+            } else if (isW(parser, "sz")) {
+                run.fontSize = parseHalfPoints(wAttr(parser, "val"));
+            } else if (isW(parser, "color")) {
+                run.color = wAttr(parser, "val");
+            }
+            skipElement(parser);
+        }
+    }
+
+    private void collectPictureRelationIds(XmlPullParser parser, List<String> relationIds)
+            throws IOException, XmlPullParserException {
+        int depth = parser.getDepth();
+        boolean inPicture = false;
+        int pictureDepth = -1;
+        while (parser.next() != XmlPullParser.END_DOCUMENT) {
+            int type = parser.getEventType();
+            if (type == XmlPullParser.END_TAG) {
+                if (parser.getDepth() == depth) {
+                    return;
+                }
+                if (inPicture && parser.getDepth() == pictureDepth) {
+                    inPicture = false;
+                }
+            } else if (type == XmlPullParser.START_TAG) {
+                if (PIC_NS.equals(parser.getNamespace()) && "pic".equals(parser.getName())) {
+                    inPicture = true;
+                    pictureDepth = parser.getDepth();
+                    relationIds.add(null);
+                } else if (inPicture && A_NS.equals(parser.getNamespace()) && "blip".equals(parser.getName())) {
+                    relationIds.set(relationIds.size() - 1, parser.getAttributeValue(R_NS, "embed"));
+                }
+            }
+        }
+    }
+
+    private void writeParagraph(ParagraphInfo paragraph, int blockIndex, Appendable out) throws IOException {
+        boolean noRuns = paragraph.runs.isEmpty();
+        if (DocumentConverter.isEmptyParagraph(noRuns, paragraph.otherText.toString())) {
+            out.append("<p");
+            DocumentConverter.appendBlockId(out, blockIndex);
+            out.append("><br></p>");
+            return;
+        }
+        out.append("<p");
+        DocumentConverter.appendBlockId(out, blockIndex);
+        DocumentConverter.appendAlignmentStyle(out, toParagraphAlignment(paragraph.alignment));
+        out.append(">");
+        if (noRuns) {
+            DocumentUtils.escapeHtml(paragraph.otherText.toString(), out);
+        }
+        for (RunInfo run : paragraph.runs) {
+            if (!run.pictureRelationIds.isEmpty()) {
+                for (String relationId : run.pictureRelationIds) {
+                    writePicture(relationId, out);
+                }
+            } else if (run.text != null && !run.text.isEmpty()) {
+                DocumentConverter.appendRunHtml(out, run.text, run.bold, run.italic, run.underline,
+                        run.fontFamily, run.fontSize, run.color);
+            }
+        }
+        out.append("</p>");
+    }
+
+    private void writePicture(String relationId, Appendable out) throws IOException {
+        byte[] imageBytes = null;
+        String mimeType = null;
+        String partName = relationId != null ? imageTargets.get(relationId) : null;
+        if (partName != null) {
+            ZipEntry entry = zipFile.getEntry(partName);
+            if (entry != null) {
+                try (InputStream in = zipFile.getInputStream(entry)) {
+                    imageBytes = IOUtils.toByteArray(in);
+                }
+                mimeType = contentTypeOf(partName);
+            }
+        }
+
+        if (imageBytes != null && imageBytes.length > 0) {
+            DocumentConverter.appendImageHtml(out, imageBytes, mimeType);
+        } else {
+            Log.w(TAG, "Resim parçası bulunamadı: " + relationId);
+            out.append("<p>[Resim yüklenemedi]</p>");
+        }
+    }
+
+    static ParagraphAlignment toParagraphAlignment(String jc) {
+        // XWPFParagraph.getAlignment() jc yoksa LEFT döner; center/right/both dışındakiler sola yaslanır
+        if ("center".equals(jc)) {
+            return ParagraphAlignment.CENTER;
+        } else if ("right".equals(jc)) {
+            return ParagraphAlignment.RIGHT;
+        } else if ("both".equals(jc)) {
+            return ParagraphAlignment.BOTH;
+        }
+        return ParagraphAlignment.LEFT;
+    }
+
+    // ========== TABLO ==========
+
+    private List<List<List<String>>> readTable(XmlPullParser parser) throws IOException, XmlPullParserException {
+        List<List<List<String>>> rows = new ArrayList<>();
+        int depth = parser.getDepth();
+        while (nextChildStart(parser, depth)) {
+            if (isW(parser, "tr")) {
+                List<List<String>> cells = new ArrayList<>();
+                int rowDepth = parser.getDepth();
+                while (nextChildStart(parser, rowDepth)) {
+                    if (isW(parser, "tc")) {
+                        cells.add(readCellParagraphTexts(parser));
+                    } else {
+                        skipElement(parser);
+                    }
+                }
+                rows.add(cells);
+            } else {
+                skipElement(parser);
+            }
+        }
+        return rows;
+    }
+
+    private List<String> readCellParagraphTexts(XmlPullParser parser) throws IOException, XmlPullParserException {
+        List<String> texts = new ArrayList<>();
+        int depth = parser.getDepth();
+        while (nextChildStart(parser, depth)) {
+            if (isW(parser, "p")) {
+                StringBuilder text = new StringBuilder();
+                appendParagraphText(parser, text);
+                texts.add(text.toString());
+            } else {
+                // İç içe tablolar XWPFTableCell.getParagraphs() içinde yer almaz
+                skipElement(parser);
+            }
+        }
+        return texts;
+    }
+
+    // XWPFParagraph.getText() karşılığı: w:t metinleri, sekme ve satır sonları
+    static void appendParagraphText(XmlPullParser parser, StringBuilder text)
+            throws IOException, XmlPullParserException {
+        int depth = parser.getDepth();
+        while (parser.next() != XmlPullParser.END_DOCUMENT) {
+            int type = parser.getEventType();
+            if (type == XmlPullParser.END_TAG && parser.getDepth() == depth) {
+                return;
+            }
+            if (type != XmlPullParser.START_TAG || !W_NS.equals(parser.getNamespace())) {
+                continue;
+            }
+            String name = parser.getName();
+            if ("t".equals(name)) {
+                text.append(parser.nextText());
+            } else if ("tab".equals(name)) {
+                text.append('\t');
+            } else if ("br".equals(name) || "cr".equals(name)) {
+                text.append('\n');
+            } else if ("pPr".equals(name) || "rPr".equals(name) || "drawing".equals(name) || "pict".equals(name)) {
+                // w:pPr/w:tabs/w:tab sekme durağıdır; çizim içi metin kutuları da paragraf metnine girmez
+                skipElement(parser);
+            }
+        }
+    }
+
+    private void writeTable(List<List<List<String>>> rows, int blockIndex, Appendable out) throws IOException {
+        DocumentConverter.appendTableOpenTag(out, blockIndex);
+        for (List<List<String>> row : rows) {
+            out.append("<tr>");
+            for (List<String> cell : row) {
+                DocumentConverter.appendTableCellHtml(out, cell);
+            }
+            out.append("</tr>");
+        }
+        out.append("</table>");
+    }
+
+    // ========== PAKET PARÇALARI ==========
+
+    private void readDocumentRelationships() throws IOException, XmlPullParserException {
+        ZipEntry entry = zipFile.getEntry(DOCUMENT_RELS_PART);
+        if (entry == null) {
+            return;
+        }
+        try (InputStream in = zipFile.getInputStream(entry)) {
+            XmlPullParser parser = newParser(in);
+            while (parser.next() != XmlPullParser.END_DOCUMENT) {
+                if (parser.getEventType() == XmlPullParser.START_TAG
+                        && PKG_RELS_NS.equals(parser.getNamespace())
+                        && "Relationship".equals(parser.getName())) {
+                    String type = parser.getAttributeValue(null, "Type");
+                    String mode = parser.getAttributeValue(null, "TargetMode");
+                    if (type != null && type.endsWith("/image") && !"External".equals(mode)) {
+                        imageTargets.put(parser.getAttributeValue(null, "Id"),
+                                resolvePartName(parser.getAttributeValue(null, "Target")));
+                    }
+                }
+            }
+        }
+    }
+
+    private void readContentTypes() throws IOException, XmlPullParserException {
+        ZipEntry entry = zipFile.getEntry(CONTENT_TYPES_PART);
+        if (entry == null) {
+            return;
+        }
+        try (InputStream in = zipFile.getInputStream(entry)) {
+            XmlPullParser parser = newParser(in);
+            while (parser.next() != XmlPullParser.END_DOCUMENT) {
+                if (parser.getEventType() != XmlPullParser.START_TAG
+                        || !CONTENT_TYPES_NS.equals(parser.getNamespace())) {
+                    continue;
+                }
+                String contentType = parser.getAttributeValue(null, "ContentType");
+                if ("Default".equals(parser.getName())) {
+                    String extension = parser.getAttributeValue(null, "Extension");
+                    if (extension != null) {
+                        defaultContentTypes.put(extension.toLowerCase(Locale.ROOT), contentType);
+                    }
+                } else if ("Override".equals(parser.getName())) {
+                    String partName = parser.getAttributeValue(null, "PartName");
+                    if (partName != null) {
+                        overrideContentTypes.put(resolvePartName(partName), contentType);
+                    }
+                }
+            }
+        }
+    }
+
+    private String contentTypeOf(String partName) {
+        String contentType = overrideContentTypes.get(partName);
+        if (contentType == null) {
+            String extension = DocumentUtils.getFileExtension(partName);
+            contentType = defaultContentTypes.get(extension);
+        }
+        return contentType != null ? contentType : "image/" + DocumentUtils.getFileExtension(partName);
+    }
+
+    // "media/image1.png", "../word/media/x.png" veya "/word/media/x.png" → "word/media/..."
+    static String resolvePartName(String target) {
+        if (target == null) {
+            return null;
+        }
+        if (target.startsWith("/")) {
+            return target.substring(1);
+        }
+        List<String> segments = new ArrayList<>();
+        segments.add("word");
+        for (String segment : target.split("/")) {
+            if (segment.equals("..")) {
+                if (!segments.isEmpty()) {
+                    segments.remove(segments.size() - 1);
+                }
+            } else if (!segment.isEmpty() && !segment.equals(".")) {
+                segments.add(segment);
+            }
+        }
+        return String.join("/", segments);
+    }
+
+    // ========== PARSER YARDIMCILARI ==========
+
+    public static XmlPullParser newParser(InputStream in) throws XmlPullParserException {
+        XmlPullParser parser = Xml.newPullParser();
+        parser.setFeature(XmlPullParser.FEATURE_PROCESS_NAMESPACES, true);
+        parser.setInput(in, null);
+        return parser;
+    }
+
+    static boolean skipTo(XmlPullParser parser, String namespace, String name)
+            throws IOException, XmlPullParserException {
+        while (parser.next() != XmlPullParser.END_DOCUMENT) {
+            if (parser.getEventType() == XmlPullParser.START_TAG
+                    && namespace.equals(parser.getNamespace()) && name.equals(parser.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // depth seviyesindeki elemanın bir sonraki doğrudan alt elemanına ilerler; eleman bittiyse false döner
+    static boolean nextChildStart(XmlPullParser parser, int depth) throws IOException, XmlPullParserException {
+        while (true) {
+            int type = parser.next();
+            if (type == XmlPullParser.END_DOCUMENT) {
+                return false;
+            }
+            if (type == XmlPullParser.END_TAG && parser.getDepth() == depth) {
+                return false;
+            }
+            if (type == XmlPullParser.START_TAG && parser.getDepth() == depth + 1) {
+                return true;
+            }
+        }
+    }
+
+    // START_TAG üzerindeyken elemanın sonuna kadar atlar
+    static void skipElement(XmlPullParser parser) throws IOException, XmlPullParserException {
+        if (parser.getEventType() != XmlPullParser.START_TAG) {
+            return;
+        }
+        int depth = parser.getDepth();
+        while (true) {
+            int type = parser.next();
+            if (type == XmlPullParser.END_DOCUMENT
+                    || (type == XmlPullParser.END_TAG && parser.getDepth() == depth)) {
+                return;
+            }
+        }
+    }
+
+    static boolean isW(XmlPullParser parser, String name) {
+        return W_NS.equals(parser.getNamespace()) && name.equals(parser.getName());
+    }
+
+    static String wAttr(XmlPullParser parser, String name) {
+        return parser.getAttributeValue(W_NS, name);
+    }
+
+    // w:b, w:i gibi açık/kapalı özellikler: val yoksa açık kabul edilir
+    static boolean isOn(String val) {
+        return val == null || !(val.equals("0") || val.equals("false") || val.equals("off"));
+    }
+
+    // w:sz yarım punto cinsindendir; XWPFRun.getFontSize() gibi tam sayıya kırpılır
+    static int parseHalfPoints(String val) {
+        if (val == null) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(val.trim()) / 2;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -5,6 +5,8 @@ import android.text.SpannableString;
 
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 
+import java.io.IOException;
+
 public class WordDocumentHelper {
 
     public static class WordContent {
@@ -52,11 +54,33 @@ public class WordDocumentHelper {
         return WordDocumentReader.isValidWordDocument(filePath);
     }
 
+    // Editör açılırken DOCX dönüşümünü arka planda başlatır; editör sonucu DocxHandoffCache'ten alır
+    public static void prefetchForEditor(String filePath) {
+        if (filePath != null && filePath.toLowerCase().endsWith(".docx")) {
+            DocxHandoffCache.prefetch(filePath);
+        }
+    }
+
 
     public static boolean saveHtmlToDocx(String filePath, String htmlContent) {
         return WordDocumentWriter.saveHtmlToDocx(filePath, htmlContent);
     }
 
+    public static void saveHtmlToDocx(String filePath, String htmlContent, SaveProgress progress) throws IOException {
+        WordDocumentWriter.writeHtmlToDocx(filePath, htmlContent, progress);
+    }
+
+    public static int[] saveBlockChangesToDocx(String sourcePath, String targetPath,
+                                               IncrementalDocxSaver.BlockChanges changes) throws IOException {
+        return IncrementalDocxSaver.save(sourcePath, targetPath, changes);
+    }
+
+    public static int[] saveBlockChangesToDocx(String sourcePath, String targetPath,
+                                               IncrementalDocxSaver.BlockChanges changes,
+                                               String expectedSourceKey, SaveProgress progress) throws IOException {
+        return IncrementalDocxSaver.save(sourcePath, targetPath, changes, expectedSourceKey, progress);
+    }
+
     public static boolean createWordDocument(String filePath, String content) {
         return WordDocumentWriter.createWordDocument(filePath, content);
     }
@@ -2,17 +2,51 @@ package com.documentmaster.app.utils.word;
 
 import android.util.Log;
 
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
 import org.apache.poi.xwpf.usermodel.*;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
 import java.io.*;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.List;
 import java.util.Locale;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 public class WordDocumentReader {
 
     private static final String TAG = "WordDocumentReader";
 
+    // DOCX → HTML dönüşümünde kullanılacak okuyucu. İki yol aynı HTML'i üretir, süreleri loglanır.
+    public enum Engine {
+        POI,
+        STREAMING
+    }
+
+    private static volatile Engine engine = Engine.POI;
+
+    public static void setEngine(Engine newEngine) {
+        engine = newEngine != null ? newEngine : Engine.POI;
+    }
+
+    public static Engine getEngine() {
+        return engine;
+    }
+
+    // Açıksa resimler okuyucu iş parçacığını bekletmeden havuzda kodlanır; çıktı aynıdır
+    private static volatile boolean parallelImages = true;
+
+    public static void setParallelImages(boolean enabled) {
+        parallelImages = enabled;
+    }
+
+    public static boolean isParallelImages() {
+        return parallelImages;
+    }
+
     public static WordDocumentHelper.WordContent readWordDocument(String filePath) {
         try {
             File file = new File(filePath);
@@ -34,24 +68,15 @@ public class WordDocumentReader {
     }
 
     public static WordDocumentHelper.WordContent readDocxDocumentAsHtml(String filePath) {
-        try (FileInputStream fis = new FileInputStream(filePath);
-             XWPFDocument document = new XWPFDocument(fis)) {
+        try {
+            long startTime = System.currentTimeMillis();
             StringBuilder htmlContent = new StringBuilder();
             htmlContent.append("<div>");
-            List<IBodyElement> bodyElements = document.getBodyElements();
-
-            for (IBodyElement element : bodyElements) {
-                if (element instanceof XWPFParagraph) {
-                    XWPFParagraph paragraph = (XWPFParagraph) element;
-                    htmlContent.append(DocumentConverter.convertParagraphToHtmlWithImages(paragraph));
-                } else if (element instanceof XWPFTable) {
-                    XWPFTable table = (XWPFTable) element;
-                    htmlContent.append(DocumentConverter.convertTableToHtml(table));
-                }
-            }
+            writeDocxBodyForEditor(filePath, htmlContent, null);
             htmlContent.append("</div>");
-            String finalHtml = htmlContent.toString();
-            return new WordDocumentHelper.WordContent(finalHtml, true, null);
+            Log.d(TAG, "DOCX → HTML (" + engine + "): " + (System.currentTimeMillis() - startTime)
+                    + " ms, " + htmlContent.length() + " karakter");
+            return new WordDocumentHelper.WordContent(htmlContent.toString(), true, null);
 
         } catch (Exception e) {
             Log.e(TAG, "DOCX → HTML dönüştürme hatası: " + e.getMessage());
@@ -59,6 +84,119 @@ public class WordDocumentReader {
         }
     }
 
+    // Her gövde elemanı (paragraf/tablo) hedefe yazıldıktan sonra çağrılır
+    public interface BlockListener {
+        void onBlockWritten(int blockCount) throws IOException;
+    }
+
+    // Gövde elemanlarını tek tek doğrudan hedefe yazar; paragraf başına ara String üretilmez.
+    public static void writeDocxDocumentAsHtml(String filePath, Appendable out) throws IOException {
+        out.append("<div>");
+        writeDocxBodyAsHtml(filePath, out, null);
+        out.append("</div>");
+    }
+
+    // Sarmalayıcı <div> olmadan yalnızca gövde elemanlarını yazar; parça parça yükleme için kullanılır
+    public static void writeDocxBodyAsHtml(String filePath, Appendable out, BlockListener listener) throws IOException {
+        if (!parallelImages) {
+            writeDocxBody(filePath, out, listener);
+            return;
+        }
+        ParallelHtmlWriter writer = new ParallelHtmlWriter(out, listener);
+        boolean finished = false;
+        try {
+            writeDocxBody(filePath, writer, writer);
+            writer.finish();
+            finished = true;
+        } finally {
+            if (!finished) {
+                writer.cancel();
+            }
+        }
+    }
+
+    private static void writeDocxBody(String filePath, Appendable out, BlockListener listener) throws IOException {
+        if (engine == Engine.STREAMING) {
+            StreamingDocxReader.writeBodyAsHtml(filePath, out, listener);
+        } else {
+            writeDocxBodyAsHtmlWithPoi(filePath, out, listener);
+        }
+    }
+
+    // Editör için gövde: önce açılışta hazırlanan sonuç, sonra bellek ve disk önbellekleri denenir.
+    // Hiçbiri yoksa dönüştürülürken çıktı hem hedefe akıtılır hem kaydedilir; yeniden açılışta dönüşüm atlanır.
+    // Yazılan HTML'in ait olduğu dosya sürümünün anahtarını döndürür (ConversionCache.keyOf).
+    public static String writeDocxBodyForEditor(String filePath, Appendable out, BlockListener listener)
+            throws IOException {
+        String key = ConversionCache.keyOf(filePath);
+        ConvertedDocument converted = DocxHandoffCache.take(key);
+        if (converted == null) {
+            converted = ConversionCache.getHtml(key);
+        }
+        if (converted != null) {
+            converted.replay(out, listener);
+            return key;
+        }
+        convertDocxBody(filePath, key, out, listener);
+        return key;
+    }
+
+    // Disk önbelleğinde varsa oradan okur, yoksa dönüştürür; sonuç (varsa) out'a da yazılır ve
+    // iki önbelleğe birden konur
+    static ConvertedDocument convertDocxBody(String filePath, String key, Appendable out, BlockListener listener)
+            throws IOException {
+        HtmlDiskCache diskCache = HtmlDiskCache.getInstance();
+        ConvertedDocument converted = diskCache != null ? diskCache.get(filePath, key) : null;
+        if (converted != null) {
+            ConversionCache.putHtml(key, converted);
+            if (out != null) {
+                converted.replay(out, listener);
+            }
+            return converted;
+        }
+
+        converted = new ConvertedDocument(out, listener);
+        writeDocxBodyAsHtml(filePath, converted, converted);
+        converted.finish();
+        ConversionCache.putHtml(key, converted);
+        if (diskCache != null) {
+            diskCache.put(filePath, key, converted);
+        }
+        return converted;
+    }
+
+    private static void writeDocxBodyAsHtmlWithPoi(String filePath, Appendable out, BlockListener listener)
+            throws IOException {
+        // Paket salt-okunur açılır, ZIP girdileri bellekte toplanmaz
+        OPCPackage pkg = openReadOnly(filePath);
+        try {
+            XWPFDocument document = new XWPFDocument(pkg);
+            int blockCount = 0;
+            for (IBodyElement element : document.getBodyElements()) {
+                // Blok kimlikleri yalnızca paragraf ve tabloları sayar (STREAMING ile aynı numaralandırma)
+                if (!(element instanceof XWPFParagraph) && !(element instanceof XWPFTable)) {
+                    continue;
+                }
+                DocumentConverter.writeBodyElementHtml(element, blockCount, out);
+                blockCount++;
+                if (listener != null) {
+                    listener.onBlockWritten(blockCount);
+                }
+            }
+        } finally {
+            // Salt-okunur pakette close() yerine revert() kullanılır
+            pkg.revert();
+        }
+    }
+
+    static OPCPackage openReadOnly(String filePath) throws IOException {
+        try {
+            return OPCPackage.open(new File(filePath), PackageAccess.READ);
+        } catch (InvalidFormatException e) {
+            throw new IOException("Geçersiz DOCX paketi: " + e.getMessage(), e);
+        }
+    }
+
     public static WordDocumentHelper.WordContent readTextDocument(String filePath) {
         try {
             StringBuilder content = new StringBuilder();
@@ -95,49 +233,39 @@ public class WordDocumentReader {
             properties.append("📅 Son Değişiklik: ").append(dateFormat.format(new Date(file.lastModified()))).append("\n");
 
             if (filePath.toLowerCase().endsWith(".docx")) {
-                try (FileInputStream fis = new FileInputStream(file);
-                     XWPFDocument document = new XWPFDocument(fis)) {
-
-                    properties.append("🏷️ Dosya Türü: Microsoft Word Belgesi (.docx)\n");
+                properties.append("🏷️ Dosya Türü: Microsoft Word Belgesi (.docx)\n");
 
-                    // İçerik analizi
-                    int paragraphCount = document.getParagraphs().size();
-                    int tableCount = document.getTables().size();
-
-                    StringBuilder text = new StringBuilder();
-                    for (XWPFParagraph paragraph : document.getParagraphs()) {
-                        text.append(paragraph.getText()).append(" ");
-                    }
-
-                    String[] words = text.toString().trim().split("\\s+");
-                    int wordCount = text.toString().trim().isEmpty() ? 0 : words.length;
-                    int charCount = text.toString().length();
-                    int charCountNoSpaces = text.toString().replaceAll("\\s", "").length();
+                // İçerik analizi: tek geçişli akış okuması, yol + tarih + boyuta göre önbellekli
+                try {
+                    DocumentStatistics statistics = DocumentStatistics.get(filePath);
+                    int wordCount = statistics.getWords();
 
                     properties.append("\n📊 İçerik Analizi:\n");
-                    properties.append("📝 Paragraf Sayısı: ").append(paragraphCount).append("\n");
-                    properties.append("📋 Tablo Sayısı: ").append(tableCount).append("\n");
+                    properties.append("📝 Paragraf Sayısı: ").append(statistics.getParagraphs()).append("\n");
+                    properties.append("📋 Tablo Sayısı: ").append(statistics.getTables()).append("\n");
+                    properties.append("🖼️ Resim Sayısı: ").append(statistics.getImages()).append("\n");
                     properties.append("📖 Kelime Sayısı: ").append(wordCount).append("\n");
-                    properties.append("🔤 Karakter Sayısı: ").append(charCount).append("\n");
-                    properties.append("🔠 Boşluksuz Karakter: ").append(charCountNoSpaces).append("\n");
+                    properties.append("🔤 Karakter Sayısı: ").append(statistics.getCharacters()).append("\n");
+                    properties.append("🔠 Boşluksuz Karakter: ").append(statistics.getCharactersNoSpaces()).append("\n");
 
                     // Ortalama kelime uzunluğu
                     if (wordCount > 0) {
-                        double avgWordLength = (double) charCountNoSpaces / wordCount;
+                        double avgWordLength = (double) statistics.getCharactersNoSpaces() / wordCount;
                         properties.append("📐 Ortalama Kelime Uzunluğu: ").append(String.format("%.1f", avgWordLength)).append(" karakter\n");
                     }
 
                     // Okuma süresi tahmini
                     if (wordCount > 0) {
-                        double readingTimeMinutes = (double) wordCount / 200;
+                        double readingTimeMinutes = statistics.getReadingTimeMinutes();
                         if (readingTimeMinutes < 1) {
                             properties.append("⏱️ Tahmini Okuma Süresi: 1 dakikadan az\n");
                         } else {
                             properties.append("⏱️ Tahmini Okuma Süresi: ").append(String.format("%.1f", readingTimeMinutes)).append(" dakika\n");
                         }
                     }
-
-                    document.close();
+                } catch (IOException e) {
+                    Log.e(TAG, "İçerik analizi hatası: " + e.getMessage());
+                    properties.append("\n⚠️ İçerik analizi yapılamadı\n");
                 }
             } else {
                 properties.append("🏷️ Dosya Türü: ").append(DocumentUtils.getFileTypeDescription(DocumentUtils.getFileExtension(file.getName()))).append("\n");
@@ -157,6 +285,39 @@ public class WordDocumentReader {
     }
 
 
+    // Yalnızca paket yapısı denetlenir: ZIP merkez dizini, [Content_Types].xml içindeki ana belge
+    // tanımı ve word/document.xml. Belge ayrıştırılmaz; asıl okuma editörde bir kez yapılır.
+    static boolean hasWordContainer(File file) {
+        try (ZipFile zipFile = new ZipFile(file)) {
+            if (zipFile.getEntry(StreamingDocxReader.DOCUMENT_PART) == null) {
+                Log.w(TAG, "DOCX geçerlilik hatası: word/document.xml yok");
+                return false;
+            }
+            ZipEntry contentTypes = zipFile.getEntry(StreamingDocxReader.CONTENT_TYPES_PART);
+            if (contentTypes == null) {
+                Log.w(TAG, "DOCX geçerlilik hatası: [Content_Types].xml yok");
+                return false;
+            }
+            try (InputStream in = zipFile.getInputStream(contentTypes)) {
+                XmlPullParser parser = StreamingDocxReader.newParser(in);
+                while (parser.next() != XmlPullParser.END_DOCUMENT) {
+                    if (parser.getEventType() == XmlPullParser.START_TAG
+                            && StreamingDocxReader.CONTENT_TYPES_NS.equals(parser.getNamespace())
+                            && "Override".equals(parser.getName())
+                            && ("/" + StreamingDocxReader.DOCUMENT_PART).equals(parser.getAttributeValue(null, "PartName"))) {
+                        String contentType = parser.getAttributeValue(null, "ContentType");
+                        return contentType != null && contentType.contains("wordprocessingml");
+                    }
+                }
+            }
+            Log.w(TAG, "DOCX geçerlilik hatası: ana belge türü tanımlı değil");
+            return false;
+        } catch (IOException | XmlPullParserException e) {
+            Log.e(TAG, "DOCX geçerlilik hatası: " + e.getMessage());
+            return false;
+        }
+    }
+
     public static boolean isValidWordDocument(String filePath) {
         try {
             File file = new File(filePath);
@@ -166,14 +327,7 @@ public class WordDocumentReader {
 
             String fileName = file.getName().toLowerCase();
             if (fileName.endsWith(".docx")) {
-                try (FileInputStream fis = new FileInputStream(file);
-                     XWPFDocument document = new XWPFDocument(fis)) {
-                    document.close();
-                    return true;
-                } catch (Exception e) {
-                    Log.e(TAG, "DOCX geçerlilik hatası: " + e.getMessage());
-                    return false;
-                }
+                return hasWordContainer(file);
             } else {
                 return fileName.endsWith(".html") || fileName.endsWith(".htm") || fileName.endsWith(".txt");
             }
@@ -6,26 +6,35 @@ import android.util.Log;
 
 import org.apache.poi.xwpf.usermodel.*;
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 
 public class WordDocumentWriter {
 
     private static final String TAG = "WordDocumentWriter";
+    // POI zip girdilerini küçük parçalar halinde yazar; her biri ayrı write çağrısı olmasın
+    private static final int WRITE_BUFFER_SIZE = 256 * 1024;
+    private static final String BACKUP_SUFFIX = ".bak";
+
+    // Açıksa kaydetmeden önce önceki sürüm "belge.docx.bak" olarak saklanır
+    private static volatile boolean keepBackup = false;
+
+    public static void setKeepBackup(boolean enabled) {
+        keepBackup = enabled;
+    }
+
+    public static boolean isKeepBackup() {
+        return keepBackup;
+    }
 
     public static boolean saveHtmlToDocx(String filePath, String htmlContent) {
         try {
-            XWPFDocument document = new XWPFDocument();
-            Log.d("deneme",htmlContent);
-            DocumentConverter.parseHtmlToDocxAdvanced(document, htmlContent);
-            boolean success = saveDocument(document, filePath);
-            Log.d("deneme",document.getDocument().toString());
-            if (success) {
-                Log.d(TAG, "✅ HTML→DOCX kaydetme başarılı");
-            } else {
-                Log.e(TAG, "❌ HTML→DOCX kaydetme başarısız");
-            }
-
-            return success;
+            writeHtmlToDocx(filePath, htmlContent, null);
+            Log.d(TAG, "✅ HTML→DOCX kaydetme başarılı");
+            return true;
 
         } catch (Exception e) {
             Log.e(TAG, "❌ HTML→DOCX kaydetme hatası: " + e.getMessage(), e);
@@ -33,6 +42,13 @@ public class WordDocumentWriter {
         }
     }
 
+    // Aşamalar progress'e bildirilir; iptal edilirse InterruptedIOException fırlatılır
+    public static void writeHtmlToDocx(String filePath, String htmlContent, SaveProgress progress) throws IOException {
+        XWPFDocument document = new XWPFDocument();
+        DocumentConverter.parseHtmlToDocxAdvanced(document, htmlContent, progress);
+        writeDocument(document, filePath, progress);
+    }
+
     public static boolean createWordDocument(String filePath, String content) {
         try {
             XWPFDocument document = new XWPFDocument();
@@ -66,23 +82,80 @@ public class WordDocumentWriter {
 
     public static boolean saveDocument(XWPFDocument document, String filePath) {
         try {
-            File file = new File(filePath);
-            File parentDir = file.getParentFile();
-            if (parentDir != null && !parentDir.exists()) {
-                parentDir.mkdirs();
-            }
+            writeDocument(document, filePath, null);
+            return true;
+        } catch (Exception e) {
+            Log.e(TAG, "Belge kaydetme hatası: " + e.getMessage());
+            return false;
+        }
+    }
 
-            try (FileOutputStream fos = new FileOutputStream(file)) {
-                document.write(fos);
+    public static void writeDocument(XWPFDocument document, String filePath, SaveProgress progress) throws IOException {
+        long startTime = System.currentTimeMillis();
+        File file = new File(filePath);
+        File parentDir = file.getAbsoluteFile().getParentFile();
+        if (parentDir != null && !parentDir.exists()) {
+            parentDir.mkdirs();
+        }
+
+        // Önce aynı klasördeki geçici dosyaya yazılır; yarıda kalan kaydetme asıl dosyayı bozmaz
+        File temp = File.createTempFile("." + file.getName() + ".", ".tmp", parentDir);
+        try {
+            try (FileOutputStream fos = new FileOutputStream(temp);
+                 BufferedOutputStream out = new BufferedOutputStream(fos, WRITE_BUFFER_SIZE)) {
+                SaveProgress.report(progress, SaveProgress.Stage.ZIP);
+                document.write(out);
+                SaveProgress.report(progress, SaveProgress.Stage.FLUSH);
+                out.flush();
+                fos.getFD().sync();
+            } finally {
                 document.close();
             }
+            replaceWith(temp, file);
+        } catch (IOException | RuntimeException e) {
+            temp.delete();
+            throw e;
+        }
 
-            Log.d(TAG, "Belge başarıyla kaydedildi: " + filePath);
-            return true;
+        Log.d(TAG, "Belge başarıyla kaydedildi: " + filePath + " ("
+                + (System.currentTimeMillis() - startTime) + " ms)");
+    }
 
-        } catch (Exception e) {
-            Log.e(TAG, "Belge kaydetme hatası: " + e.getMessage());
-            return false;
+    // Geçici dosya hedefin yerine tek rename ile geçer. Yedek açıksa önceki sürüm ".bak" olarak kalır.
+    private static void replaceWith(File temp, File target) throws IOException {
+        if (keepBackup && target.exists()) {
+            backUp(target, new File(target.getPath() + BACKUP_SUFFIX));
+        }
+        if (!temp.renameTo(target)) {
+            throw new IOException("Geçici dosya yerine taşınamadı: " + target.getName());
+        }
+        syncDirectory(target.getAbsoluteFile().getParentFile());
+    }
+
+    // Yedek, hedef taşınmadan hard link ile (desteklenmiyorsa kopyalanarak) alınır; böylece
+    // kullanıcının yolunda hiçbir an dosyasız kalınmaz. Yedek alınamazsa kaydetme yine sürer.
+    private static void backUp(File target, File backup) {
+        try {
+            Files.deleteIfExists(backup.toPath());
+            try {
+                Files.createLink(backup.toPath(), target.toPath());
+            } catch (IOException | UnsupportedOperationException e) {
+                Files.copy(target.toPath(), backup.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Yedek oluşturulamadı: " + e.getMessage());
+        }
+    }
+
+    // Rename'in kalıcı olması için klasör kaydı da diske yazılır; desteklenmiyorsa atlanır
+    private static void syncDirectory(File directory) {
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            Log.w(TAG, "Klasör senkronize edilemedi: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,117 @@
+package com.documentmaster.app.web;
+
+import android.content.Context;
+import android.util.Log;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+// Editörün blok listesinin Android tarafındaki kopyası. Editör yalnızca son bildirimden
+// beri değişen blokları {start, deleteCount, blocks} olarak gönderir; kopya güncellenip
+// yüklemedeki içerikle karşılaştırma UI thread dışında yapılır.
+public class EditorChangeTracker {
+
+    private static final String TAG = "EditorChangeTracker";
+
+    private final Context context;
+    private final ChangeCallback callback;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    // Yalnızca takip thread'inde kullanılır
+    private final List<String> blocks = new ArrayList<>();
+    private List<String> baseline;
+    private boolean dirty;
+
+    public interface ChangeCallback {
+        // UI thread'de, yalnızca durum değiştiğinde çağrılır
+        void onDirtyStateChanged(boolean isDirty);
+
+        // Takip thread'inde, içerik yüklemedekinden farklıyken her değişiklikte çağrılır
+        void onDirtyContent(String html);
+    }
+
+    public EditorChangeTracker(Context context, ChangeCallback callback) {
+        this.context = context;
+        this.callback = callback;
+    }
+
+    // JS köprü thread'inden çağrılabilir
+    public void applyDelta(String deltaJson) {
+        try {
+            executor.execute(() -> applyDeltaNow(deltaJson));
+        } catch (RejectedExecutionException e) {
+            // Ekran kapanırken gelen geç bildirim
+            Log.d(TAG, "Takip kapatıldı, değişiklik bildirimi atlandı");
+        }
+    }
+
+    private void applyDeltaNow(String deltaJson) {
+        try {
+            JSONObject delta = new JSONObject(deltaJson);
+            JSONArray inserted = delta.getJSONArray("blocks");
+            List<String> newBlocks = new ArrayList<>(inserted.length());
+            for (int i = 0; i < inserted.length(); i++) {
+                newBlocks.add(inserted.getString(i));
+            }
+
+            if (delta.optBoolean("reset", false)) {
+                blocks.clear();
+                blocks.addAll(newBlocks);
+                baseline = new ArrayList<>(blocks);
+                dirty = false;
+                postDirtyState(false);
+                return;
+            }
+
+            int start = delta.getInt("start");
+            int deleteCount = delta.getInt("deleteCount");
+            if (start < 0 || deleteCount < 0 || start + deleteCount > blocks.size()) {
+                Log.w(TAG, "⚠️ Geçersiz değişiklik aralığı: " + start + "+" + deleteCount + " / " + blocks.size());
+                return;
+            }
+            blocks.subList(start, start + deleteCount).clear();
+            blocks.addAll(start, newBlocks);
+            updateDirtyState();
+        } catch (JSONException e) {
+            Log.e(TAG, "❌ Değişiklik bildirimi çözümlenemedi: " + e.getMessage());
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void updateDirtyState() {
+        if (baseline == null) {
+            // Belge henüz yüklenmedi
+            return;
+        }
+        boolean isDirty = !blocks.equals(baseline);
+        if (isDirty != dirty) {
+            dirty = isDirty;
+            postDirtyState(isDirty);
+        }
+        if (isDirty) {
+            int length = 0;
+            for (String block : blocks) {
+                length += block.length();
+            }
+            StringBuilder html = new StringBuilder(length);
+            for (String block : blocks) {
+                html.append(block);
+            }
+            callback.onDirtyContent(html.toString());
+        }
+    }
+
+    private void postDirtyState(boolean isDirty) {
+        ((android.app.Activity) context).runOnUiThread(() -> callback.onDirtyStateChanged(isDirty));
+    }
+}
@@ -0,0 +1,250 @@
+package com.documentmaster.app.web;
+
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.webkit.WebView;
+
+import androidx.webkit.WebMessageCompat;
+import androidx.webkit.WebMessagePortCompat;
+import androidx.webkit.WebViewCompat;
+import androidx.webkit.WebViewFeature;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Editörle WebMessagePort üzerinden konuşur. HTML iki yönde de JS kaynak koduna gömülmeden ve
+// JSON'a kaçırılmadan, sınırlı boyutta ham metin parçaları halinde taşınır.
+public class EditorMessageChannel {
+
+    private static final String TAG = "EditorMessageChannel";
+    private static final String PORT_HANDSHAKE = "docmaster-port";
+    private static final String HTML_CHUNK_PREFIX = "html:";
+    private static final String APPLIED_PREFIX = "applied:";
+    private static final String APPLY_ERROR_SUFFIX = ":error";
+    // Editöre gönderilen içerik parçalarının en fazla karakter sayısı
+    private static final int CONTENT_CHUNK_CHARS = 256 * 1024;
+    // Bu sürede yanıt gelmezse istek evaluateJavascript yoluna bırakılır
+    private static final long REQUEST_TIMEOUT_MS = 15_000;
+
+    private final WebView webView;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Map<Integer, HtmlTransfer> pendingTransfers = new HashMap<>();
+    private final Map<Integer, DeliveryCallback> pendingDeliveries = new HashMap<>();
+    private WebMessagePortCompat port;
+    private int nextRequestId = 1;
+
+    private static class HtmlTransfer {
+        final WebViewBridge.HtmlCallback callback;
+        StringBuilder buffer;
+        int nextChunk;
+
+        HtmlTransfer(WebViewBridge.HtmlCallback callback) {
+            this.callback = callback;
+        }
+    }
+
+    public interface DeliveryCallback {
+        // UI thread'de; applied false ise içerik editöre ulaşmadı
+        void onDelivered(boolean applied);
+    }
+
+    public EditorMessageChannel(WebView webView) {
+        this.webView = webView;
+    }
+
+    public static boolean isSupported() {
+        return WebViewFeature.isFeatureSupported(WebViewFeature.CREATE_WEB_MESSAGE_CHANNEL)
+                && WebViewFeature.isFeatureSupported(WebViewFeature.POST_WEB_MESSAGE)
+                && WebViewFeature.isFeatureSupported(WebViewFeature.WEB_MESSAGE_PORT_POST_MESSAGE)
+                && WebViewFeature.isFeatureSupported(WebViewFeature.WEB_MESSAGE_PORT_SET_MESSAGE_CALLBACK);
+    }
+
+    // Sayfa yüklendikten sonra çağrılır; port editör sayfasına devredilir
+    public boolean open() {
+        close();
+        if (!isSupported()) {
+            Log.w(TAG, "⚠️ WebMessagePort desteklenmiyor, evaluateJavascript kullanılacak");
+            return false;
+        }
+        try {
+            WebMessagePortCompat[] ports = WebViewCompat.createWebMessageChannel(webView);
+            ports[0].setWebMessageCallback(new WebMessagePortCompat.WebMessageCallbackCompat() {
+                @Override
+                public void onMessage(WebMessagePortCompat messagePort, WebMessageCompat message) {
+                    handleMessage(message.getData());
+                }
+            });
+            WebViewCompat.postWebMessage(webView,
+                    new WebMessageCompat(PORT_HANDSHAKE, new WebMessagePortCompat[]{ports[1]}),
+                    Uri.parse("*"));
+            port = ports[0];
+            Log.d(TAG, "🔌 Editör mesaj kanalı açıldı");
+            return true;
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Mesaj kanalı açılamadı: " + e.getMessage());
+            port = null;
+            return false;
+        }
+    }
+
+    public boolean isOpen() {
+        return port != null;
+    }
+
+    // Callback UI thread'de çağrılır; kanal kapanırsa veya zaman aşımında null ile
+    public void requestHtml(WebViewBridge.HtmlCallback callback) {
+        if (port == null) {
+            callback.onHtmlReady(null);
+            return;
+        }
+        int requestId = nextRequestId++;
+        pendingTransfers.put(requestId, new HtmlTransfer(callback));
+        port.postMessage(new WebMessageCompat("getHtml:" + requestId));
+        mainHandler.postDelayed(() -> {
+            HtmlTransfer transfer = pendingTransfers.remove(requestId);
+            if (transfer != null) {
+                Log.w(TAG, "⚠️ HTML aktarımı zaman aşımına uğradı: " + requestId);
+                transfer.callback.onHtmlReady(null);
+            }
+        }, REQUEST_TIMEOUT_MS);
+    }
+
+    // İçeriği JS kaynak koduna gömmeden editöre verir. Parça biçimi:
+    // "content:<istek>:<set|append>:<parça no>:<parça sayısı>:<ham HTML>"; editör uygulayınca "applied:<istek>",
+    // uygulama hata verirse "applied:<istek>:error" döner. Zaman aşımında callback false ile çağrılır.
+    public void sendContent(String mode, String html, DeliveryCallback callback) {
+        if (port == null) {
+            callback.onDelivered(false);
+            return;
+        }
+        int requestId = nextRequestId++;
+        pendingDeliveries.put(requestId, callback);
+
+        int chunkCount = 0;
+        for (int start = 0; start < html.length() || chunkCount == 0; start = chunkEnd(html, start)) {
+            chunkCount++;
+        }
+        String prefix = "content:" + requestId + ":" + mode + ":";
+        int index = 0;
+        int start = 0;
+        do {
+            int end = chunkEnd(html, start);
+            port.postMessage(new WebMessageCompat(prefix + index + ":" + chunkCount + ":" + html.substring(start, end)));
+            index++;
+            start = end;
+        } while (start < html.length());
+
+        mainHandler.postDelayed(() -> {
+            DeliveryCallback pending = pendingDeliveries.remove(requestId);
+            if (pending != null) {
+                Log.w(TAG, "⚠️ İçerik aktarımı zaman aşımına uğradı: " + requestId);
+                // Editör henüz birleştirmediği parçaları atar; içerik yedek yolla verilir
+                if (port != null) {
+                    port.postMessage(new WebMessageCompat("cancelContent:" + requestId));
+                }
+                pending.onDelivered(false);
+            }
+        }, REQUEST_TIMEOUT_MS);
+    }
+
+    // Vekil çiftleri (emoji vb.) iki parçaya bölünmez
+    private static int chunkEnd(String html, int start) {
+        int end = Math.min(html.length(), start + CONTENT_CHUNK_CHARS);
+        if (end < html.length() && Character.isHighSurrogate(html.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    // Parça biçimi: "html:<istek>:<parça no>:<parça sayısı>:<ham HTML>"
+    private void handleMessage(String data) {
+        if (data != null && data.startsWith(APPLIED_PREFIX)) {
+            boolean failed = data.endsWith(APPLY_ERROR_SUFFIX);
+            String id = data.substring(APPLIED_PREFIX.length(),
+                    failed ? data.length() - APPLY_ERROR_SUFFIX.length() : data.length());
+            try {
+                DeliveryCallback callback = pendingDeliveries.remove(Integer.parseInt(id));
+                if (callback != null) {
+                    if (failed) {
+                        Log.w(TAG, "⚠️ Editör içeriği uygulayamadı: " + id);
+                    }
+                    callback.onDelivered(!failed);
+                }
+            } catch (NumberFormatException e) {
+                Log.w(TAG, "⚠️ Geçersiz içerik onayı: " + data);
+            }
+            return;
+        }
+        if (data == null || !data.startsWith(HTML_CHUNK_PREFIX)) {
+            return;
+        }
+        int idEnd = data.indexOf(':', HTML_CHUNK_PREFIX.length());
+        int indexEnd = idEnd < 0 ? -1 : data.indexOf(':', idEnd + 1);
+        int countEnd = indexEnd < 0 ? -1 : data.indexOf(':', indexEnd + 1);
+        if (countEnd < 0) {
+            Log.w(TAG, "⚠️ Geçersiz HTML parçası");
+            return;
+        }
+
+        int requestId;
+        int chunkIndex;
+        int chunkCount;
+        try {
+            requestId = Integer.parseInt(data.substring(HTML_CHUNK_PREFIX.length(), idEnd));
+            chunkIndex = Integer.parseInt(data.substring(idEnd + 1, indexEnd));
+            chunkCount = Integer.parseInt(data.substring(indexEnd + 1, countEnd));
+        } catch (NumberFormatException e) {
+            Log.w(TAG, "⚠️ Geçersiz HTML parça başlığı");
+            return;
+        }
+
+        HtmlTransfer transfer = pendingTransfers.get(requestId);
+        if (transfer == null) {
+            // Zaman aşımına uğramış istek
+            return;
+        }
+        if (chunkIndex != transfer.nextChunk) {
+            Log.e(TAG, "❌ HTML parçaları sırasız geldi: " + chunkIndex + " / " + transfer.nextChunk);
+            pendingTransfers.remove(requestId);
+            transfer.callback.onHtmlReady(null);
+            return;
+        }
+
+        int chunkLength = data.length() - countEnd - 1;
+        if (chunkCount == 1) {
+            pendingTransfers.remove(requestId);
+            transfer.callback.onHtmlReady(data.substring(countEnd + 1));
+            return;
+        }
+        if (transfer.buffer == null) {
+            transfer.buffer = new StringBuilder(chunkLength * chunkCount);
+        }
+        transfer.buffer.append(data, countEnd + 1, data.length());
+        transfer.nextChunk++;
+        if (transfer.nextChunk == chunkCount) {
+            pendingTransfers.remove(requestId);
+            transfer.callback.onHtmlReady(transfer.buffer.toString());
+        }
+    }
+
+    public void close() {
+        if (port != null) {
+            try {
+                port.close();
+            } catch (Exception e) {
+                Log.w(TAG, "⚠️ Mesaj kanalı kapatılamadı: " + e.getMessage());
+            }
+            port = null;
+        }
+        for (HtmlTransfer transfer : pendingTransfers.values()) {
+            transfer.callback.onHtmlReady(null);
+        }
+        pendingTransfers.clear();
+        for (DeliveryCallback callback : pendingDeliveries.values()) {
+            callback.onDelivered(false);
+        }
+        pendingDeliveries.clear();
+    }
+}
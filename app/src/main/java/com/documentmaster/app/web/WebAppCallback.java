@@ -1,5 +1,6 @@
 package com.documentmaster.app.web;
 
 public interface WebAppCallback {
-    void onHtmlChanged(String newHtml);
+    // JS köprü thread'inde çağrılır
+    void onContentDelta(String deltaJson);
 }
\ No newline at end of file
@@ -1,25 +1,21 @@
 package com.documentmaster.app.web;
 
 import android.webkit.JavascriptInterface;
-import android.os.Handler;
-import android.os.Looper;
 
 public class WebAppInterface {
 
     private final WebAppCallback callback;
-    private final Handler mainHandler = new Handler(Looper.getMainLooper());
 
     public WebAppInterface(WebAppCallback callback) {
         this.callback = callback;
     }
 
+    // Değişiklik birleştirme ve karşılaştırma UI thread'i meşgul etmesin diye doğrudan iletilir
     @JavascriptInterface
-    public void onTextChanged(String html) {
-        mainHandler.post(() -> {
-            if (callback != null) {
-                callback.onHtmlChanged(html);
-            }
-        });
+    public void onContentDelta(String deltaJson) {
+        if (callback != null) {
+            callback.onContentDelta(deltaJson);
+        }
     }
 
 
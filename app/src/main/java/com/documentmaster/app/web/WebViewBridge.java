@@ -4,6 +4,11 @@ import android.util.Log;
 import android.webkit.ValueCallback;
 import android.webkit.WebView;
 
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.Arrays;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -14,9 +19,16 @@ public class WebViewBridge {
         this.editorLoaded = loaded;
     }
     private final WebView webView;
+    private final EditorMessageChannel messageChannel;
 
     public WebViewBridge(WebView webView) {
         this.webView = webView;
+        this.messageChannel = new EditorMessageChannel(webView);
+    }
+
+    // Editör sayfası her yüklendiğinde çağrılır
+    public void openMessageChannel() {
+        messageChannel.open();
     }
 
     public void execute(String jsCode) {
@@ -25,12 +37,110 @@ public class WebViewBridge {
         }
     }
 
+    // Callback'e kaçış karakterleri çözülmüş ham HTML verilir
     public void getHtml(HtmlCallback callback) {
-        webView.evaluateJavascript("getHtml()", result -> {
-            if (result != null) {
-                callback.onHtmlReady(result);
+        if (messageChannel.isOpen()) {
+            messageChannel.requestHtml(html -> {
+                if (html != null) {
+                    callback.onHtmlReady(html);
+                } else {
+                    getHtmlByEvaluate(callback);
+                }
+            });
+            return;
+        }
+        getHtmlByEvaluate(callback);
+    }
+
+    // İçeriği editöre JS kaynak koduna gömmeden verir; onApplied editör içeriği uyguladıktan sonra çalışır
+    public void setEditorHtml(String html, Runnable onApplied) {
+        deliverHtml("set", html, onApplied);
+    }
+
+    public void appendEditorHtml(String html, Runnable onApplied) {
+        deliverHtml("append", html, onApplied);
+    }
+
+    private void deliverHtml(String mode, String html, Runnable onApplied) {
+        long startTime = System.currentTimeMillis();
+        if (messageChannel.isOpen()) {
+            messageChannel.sendContent(mode, html, applied -> {
+                if (applied) {
+                    Log.d("WebViewBridge", "📦 İçerik port ile aktarıldı: " + html.length() + " karakter, "
+                            + (System.currentTimeMillis() - startTime) + " ms");
+                    if (onApplied != null) onApplied.run();
+                } else {
+                    deliverHtmlByEvaluate(mode, html, onApplied, startTime);
+                }
+            });
+            return;
+        }
+        deliverHtmlByEvaluate(mode, html, onApplied, startTime);
+    }
+
+    // Yedek yol: içerik JS dizgesi olarak kaçırılıp kaynak koda gömülür
+    private void deliverHtmlByEvaluate(String mode, String html, Runnable onApplied, long startTime) {
+        String function = "append".equals(mode) ? "appendHtml(" : "setHtml(";
+        executeJS(function + JSONObject.quote(html) + ")", result -> {
+            Log.d("WebViewBridge", "📦 İçerik evaluateJavascript ile aktarıldı: " + html.length() + " karakter, "
+                    + (System.currentTimeMillis() - startTime) + " ms");
+            if (onApplied != null) onApplied.run();
+        });
+    }
+
+    // Yedek yol: sonuç JSON dizgesi olarak döner ve tek geçişte çözülür
+    private void getHtmlByEvaluate(HtmlCallback callback) {
+        webView.evaluateJavascript("getHtml()", result -> callback.onHtmlReady(decodeJsonString(result)));
+    }
+
+    private static String decodeJsonString(String result) {
+        if (result == null || "null".equals(result)) {
+            return "";
+        }
+        try {
+            return new JSONArray("[" + result + "]").getString(0);
+        } catch (JSONException e) {
+            Log.e("WebViewBridge", "❌ getHtml sonucu çözülemedi: " + e.getMessage());
+            return "";
+        }
+    }
+    // Yüklemeden beri değişmeyen blokların kimlikleri ve değişen blokların HTML'i (JSON)
+    public void getBlockChanges(HtmlCallback callback) {
+        webView.evaluateJavascript("getBlockChanges()", result -> {
+            callback.onHtmlReady(result != null ? result : "null");
+        });
+    }
+
+    public void applySavedBlockIds(int token, int[] blockCounts) {
+        execute("applySavedBlockIds(" + token + ", " + Arrays.toString(blockCounts) + ")");
+    }
+
+    public void resetChangeBaseline() {
+        executeJS("resetChangeBaseline()");
+    }
+
+    public void notifyContentChange() {
+        executeJS("notifyContentChange()");
+    }
+
+    public void discardBlockSnapshot() {
+        execute("discardBlockSnapshot()");
+    }
+
+    public void clearBlockIds() {
+        execute("clearBlockIds()");
+    }
+
+    public void insertImageUrl(String imageUrl, String imageName, Runnable onSuccess, Runnable onError) {
+        String jsCommand = "insertImageUrlFromAndroid(" + JSONObject.quote(imageUrl) + ", "
+                + JSONObject.quote(imageName) + ")";
+
+        webView.evaluateJavascript(jsCommand, result -> {
+            Log.d("WebViewBridge", "🖼️ insertImageUrl result: " + result);
+            if ("true".equals(result)) {
+                if (onSuccess != null) onSuccess.run();
             } else {
-                callback.onHtmlReady("");
+                if (onError != null) onError.run();
             }
         });
     }
@@ -101,11 +211,22 @@ public class WebViewBridge {
             Log.w("WebViewBridge", "⚠️ WebView hazır değil, JS çalıştırılamadı: " + jsCommand);
         }
     }
+    public void executeJS(String jsCommand, ValueCallback<String> resultCallback) {
+        if (editorLoaded && webView != null) {
+            webView.evaluateJavascript(jsCommand, resultCallback);
+        } else {
+            Log.w("WebViewBridge", "⚠️ WebView hazır değil, JS çalıştırılamadı (" + jsCommand.length() + " karakter)");
+            if (resultCallback != null) {
+                resultCallback.onReceiveValue(null);
+            }
+        }
+    }
     public interface HtmlCallback {
         void onHtmlReady(String html);
     }
 
     public void destroyWebView() {
+        messageChannel.close();
         if (webView != null) {
             try {
                 webView.loadUrl("about:blank");
@@ -2,13 +2,17 @@ package com.documentmaster.app.web;
 import android.content.Context;
 import android.text.TextUtils;
 import android.util.Log;
+import android.webkit.WebResourceRequest;
+import android.webkit.WebResourceResponse;
 import android.webkit.WebSettings;
 import android.webkit.WebView;
 import android.webkit.WebViewClient;
 import android.widget.Toast;
 
 import com.documentmaster.app.R;
+import com.documentmaster.app.image.ImageStore;
 
+import java.io.File;
 import java.io.InputStream;
 
 public class WebViewManager {
@@ -46,6 +50,27 @@ public class WebViewManager {
             public boolean shouldOverrideUrlLoading(WebView view, String url) {
                 return false;
             }
+
+            // docmaster-img:// adresli resimler önbellekten doğrudan okunur
+            @Override
+            public WebResourceResponse shouldInterceptRequest(WebView view, WebResourceRequest request) {
+                String url = request.getUrl().toString();
+                if (!ImageStore.isStoreUrl(url)) {
+                    return super.shouldInterceptRequest(view, request);
+                }
+                ImageStore store = ImageStore.getInstance();
+                File file = store != null ? store.getFile(url) : null;
+                if (file == null) {
+                    Log.w("WebViewManager", "⚠️ Resim önbellekte bulunamadı: " + url);
+                    return new WebResourceResponse("text/plain", "UTF-8", 404, "Not Found", null, null);
+                }
+                try {
+                    return new WebResourceResponse(store.getMimeType(file), null, store.open(url));
+                } catch (Exception e) {
+                    Log.e("WebViewManager", "Resim okuma hatası: " + e.getMessage());
+                    return new WebResourceResponse("text/plain", "UTF-8", 404, "Not Found", null, null);
+                }
+            }
         });
 
         loadLocalHtml();
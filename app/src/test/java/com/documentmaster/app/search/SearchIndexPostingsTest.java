@@ -0,0 +1,82 @@
+package com.documentmaster.app.search;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class SearchIndexPostingsTest {
+
+    private static DataInputStream input(ByteArrayOutputStream bytes) {
+        return new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+
+    @Test
+    public void varIntRoundTrip() throws IOException {
+        int[] values = {0, 1, 127, 128, 300, 16383, 16384, 2_097_151, 2_097_152, Integer.MAX_VALUE, -1};
+        int[] sizes = {1, 1, 1, 2, 2, 2, 3, 3, 4, 5, 5};
+        for (int i = 0; i < values.length; i++) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            SearchIndex.writeVarInt(new DataOutputStream(bytes), values[i]);
+            assertEquals("boyut: " + values[i], sizes[i], bytes.size());
+            assertEquals(values[i], SearchIndex.readVarInt(input(bytes)));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void overlongVarIntIsRejected() throws IOException {
+        byte[] bytes = {(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x01};
+        SearchIndex.readVarInt(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    @Test
+    public void postingsRoundTrip() throws IOException {
+        SearchIndex.Postings list = new SearchIndex.Postings();
+        int[] ids = {0, 3, 4, 200, 70_000, 70_001};
+        int[] frequencies = {1, 5, 128, 1, 3, 40_000};
+        for (int i = 0; i < ids.length; i++) {
+            list.add(ids[i], frequencies[i]);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        list.writeTo(out);
+        out.writeInt(0x5EED);
+        DataInputStream in = input(bytes);
+        SearchIndex.Postings read = SearchIndex.Postings.readFrom(in);
+
+        assertEquals(ids.length, read.size);
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(ids[i], read.documentIds[i]);
+            assertEquals(frequencies[i], read.frequencies[i]);
+        }
+        // Liste tam olarak kendi baytlarını tüketir
+        assertEquals(0x5EED, in.readInt());
+    }
+
+    @Test
+    public void emptyPostingsRoundTrip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new SearchIndex.Postings().writeTo(new DataOutputStream(bytes));
+        assertEquals(1, bytes.size());
+        assertEquals(0, SearchIndex.Postings.readFrom(input(bytes)).size);
+    }
+
+    @Test(expected = EOFException.class)
+    public void truncatedPostingsFail() throws IOException {
+        SearchIndex.Postings list = new SearchIndex.Postings();
+        list.add(5, 2);
+        list.add(900, 1);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        list.writeTo(new DataOutputStream(bytes));
+        byte[] cut = Arrays.copyOf(bytes.toByteArray(), bytes.size() - 1);
+        SearchIndex.Postings.readFrom(new DataInputStream(new ByteArrayInputStream(cut)));
+    }
+}
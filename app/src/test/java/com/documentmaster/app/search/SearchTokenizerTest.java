@@ -0,0 +1,69 @@
+package com.documentmaster.app.search;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+public class SearchTokenizerTest {
+
+    @Test
+    public void foldsTurkishDottedAndDotlessI() {
+        assertEquals('ı', SearchTokenizer.fold('I'));
+        assertEquals('i', SearchTokenizer.fold('İ'));
+        assertEquals('ı', SearchTokenizer.fold('ı'));
+        assertEquals('i', SearchTokenizer.fold('i'));
+        assertEquals("ıspanak istanbul", SearchTokenizer.fold("ISPANAK İSTANBUL"));
+        assertEquals("çğöşü", SearchTokenizer.fold("ÇĞÖŞÜ"));
+    }
+
+    @Test
+    public void foldKeepsLength() {
+        String text = "İİ Iİ ŞEHİR";
+        assertEquals(text.length(), SearchTokenizer.fold(text).length());
+    }
+
+    @Test
+    public void tokenizesLettersAndDigits() {
+        assertEquals(Arrays.asList("ılık", "su", "2024", "raporu"),
+                SearchTokenizer.tokenize("ILIK su, 2024-raporu!"));
+        assertTrue(SearchTokenizer.tokenize(" .,;- ").isEmpty());
+    }
+
+    @Test
+    public void combiningDotFromNonTurkishLowercaseIsDropped() {
+        // "İ".toLowerCase(Locale.ROOT) = "i" + U+0307; aynı kelime olarak bulunmalı
+        String decomposed = "İstanbul".toLowerCase(Locale.ROOT);
+        assertEquals(9, decomposed.length());
+        assertEquals(Arrays.asList("istanbul"), SearchTokenizer.tokenize(decomposed));
+        assertEquals(SearchTokenizer.tokenize("İSTANBUL"), SearchTokenizer.tokenize(decomposed));
+    }
+
+    @Test
+    public void reportsStartInOriginalText() {
+        List<Integer> starts = new ArrayList<>();
+        List<String> tokens = new ArrayList<>();
+        SearchTokenizer.tokenize("  Işık  ve\tGÖLGE", (token, start) -> {
+            tokens.add(token);
+            starts.add(start);
+        });
+        assertEquals(Arrays.asList("ışık", "ve", "gölge"), tokens);
+        assertEquals(Arrays.asList(2, 8, 11), starts);
+    }
+
+    @Test
+    public void longTokensAreTruncated() {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < SearchTokenizer.MAX_TOKEN_LENGTH + 10; i++) {
+            word.append('A');
+        }
+        List<String> tokens = SearchTokenizer.tokenize(word + " b");
+        assertEquals(2, tokens.size());
+        assertEquals(SearchTokenizer.MAX_TOKEN_LENGTH, tokens.get(0).length());
+        assertEquals("b", tokens.get(1));
+    }
+}
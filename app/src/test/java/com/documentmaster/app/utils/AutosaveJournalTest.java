@@ -0,0 +1,167 @@
+package com.documentmaster.app.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class AutosaveJournalTest {
+
+    private File directory;
+    private File base;
+    private File journal;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("autosave").toFile();
+        base = new File(directory, "belge.base");
+        journal = new File(directory, "belge.journal");
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    private AutosaveJournal writeBase(long generation, String html) throws IOException {
+        AutosaveJournal.writeBase(base, new File(directory, "belge.base.tmp"), generation, 100, 1000, html);
+        return AutosaveJournal.create(journal, generation);
+    }
+
+    @Test
+    public void appliesEntriesInOrder() throws IOException {
+        AutosaveJournal writer = writeBase(7, "<p>merhaba</p>");
+        writer.append(3, 7, "dünya", 100, 1000);
+        writer.append(0, 0, "<h1>başlık</h1>", 100, 1000);
+        writer.close();
+
+        AutosaveJournal.Recovered recovered = AutosaveJournal.read(base, journal);
+        assertEquals("<h1>başlık</h1><p>dünya</p>", recovered.html);
+        assertEquals(2, recovered.applied);
+        assertEquals(2, writer.getEntryCount());
+    }
+
+    private void writeThreeEntries() throws IOException {
+        AutosaveJournal writer = writeBase(7, "abc");
+        writer.append(3, 0, "d", 100, 1000);
+        writer.append(4, 0, "e", 100, 1000);
+        writer.append(5, 0, "şşş", 100, 1000);
+        writer.close();
+    }
+
+    @Test
+    public void truncatedTrailingEntryIsSkipped() throws IOException {
+        writeThreeEntries();
+        assertEquals("abcdeşşş", AutosaveJournal.read(base, journal).html);
+
+        // Son kaydın yazılması CRC'de, metinde ya da uzunluk alanında yarıda kalmış gibi
+        for (long cut : new long[]{1, 8, 20, 40}) {
+            writeThreeEntries();
+            try (RandomAccessFile file = new RandomAccessFile(journal, "rw")) {
+                file.setLength(file.length() - cut);
+            }
+            AutosaveJournal.Recovered recovered = AutosaveJournal.read(base, journal);
+            assertEquals("abcde", recovered.html);
+            assertEquals(2, recovered.applied);
+        }
+    }
+
+    @Test
+    public void corruptedEntryStopsReplay() throws IOException {
+        AutosaveJournal writer = writeBase(7, "abc");
+        writer.append(0, 1, "A", 100, 1000);
+        long firstEnd = journal.length();
+        writer.append(1, 1, "B", 100, 1000);
+        writer.append(2, 1, "C", 100, 1000);
+        writer.close();
+
+        // İkinci kaydın eklenen metni bozulur; CRC tutmaz ve sonrası uygulanmaz
+        try (RandomAccessFile file = new RandomAccessFile(journal, "rw")) {
+            file.seek(firstEnd + 4 + 12);
+            file.write('X');
+        }
+        AutosaveJournal.Recovered recovered = AutosaveJournal.read(base, journal);
+        assertEquals("Abc", recovered.html);
+        assertEquals(1, recovered.applied);
+    }
+
+    @Test
+    public void journalFromAnotherGenerationIsIgnored() throws IOException {
+        AutosaveJournal writer = writeBase(7, "eski");
+        writer.append(0, 4, "yeni", 200, 2000);
+        writer.close();
+        // Sıkıştırma tabanı yazdı ama günlüğü yenilemeden kesildi
+        AutosaveJournal.writeBase(base, new File(directory, "belge.base.tmp"), 8, 100, 1000, "taban");
+
+        AutosaveJournal.Recovered recovered = AutosaveJournal.read(base, journal);
+        assertEquals("taban", recovered.html);
+        assertEquals(0, recovered.applied);
+        assertEquals(100, recovered.documentLength);
+        assertEquals(1000, recovered.documentModified);
+    }
+
+    @Test
+    public void documentVersionComesFromLastAppliedEntry() throws IOException {
+        AutosaveJournal writer = writeBase(7, "a");
+        writer.append(1, 0, "b", 100, 1000);
+        // Belge kaydedildikten sonra yapılan değişiklik
+        writer.append(2, 0, "c", 150, 5000);
+        writer.close();
+
+        AutosaveJournal.Recovered recovered = AutosaveJournal.read(base, journal);
+        assertEquals("abc", recovered.html);
+        assertEquals(150, recovered.documentLength);
+        assertEquals(5000, recovered.documentModified);
+    }
+
+    @Test
+    public void entryOutsideContentStopsReplay() throws IOException {
+        AutosaveJournal writer = writeBase(7, "abc");
+        writer.append(2, Integer.MAX_VALUE, "x", 100, 1000);
+        writer.close();
+
+        AutosaveJournal.Recovered recovered = AutosaveJournal.read(base, journal);
+        assertEquals("abc", recovered.html);
+        assertEquals(0, recovered.applied);
+    }
+
+    @Test
+    public void emojiEditsKeepSurrogatePairsWhole() throws IOException {
+        // 😀 → 😁 yalnızca düşük vekilde farklıdır; 😀 → 🍀 yalnızca yüksek vekilde
+        String[] versions = {"<p>a😀b</p>", "<p>a😁b</p>", "<p>a🍀b</p>", "<p>a🍀😁b</p>", "<p>ab</p>"};
+        AutosaveJournal writer = writeBase(7, versions[0]);
+        for (int i = 1; i < versions.length; i++) {
+            writer.appendChange(versions[i - 1], versions[i], 100, 1000);
+        }
+        writer.close();
+
+        AutosaveJournal.Recovered recovered = AutosaveJournal.read(base, journal);
+        assertEquals(versions[versions.length - 1], recovered.html);
+        assertEquals(versions.length - 1, recovered.applied);
+
+        for (int i = 1; i < versions.length; i++) {
+            writer = writeBase(7, versions[0]);
+            writer.appendChange(versions[0], versions[i], 100, 1000);
+            writer.close();
+            assertEquals(versions[i], AutosaveJournal.read(base, journal).html);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void shortBaseIsRejected() throws IOException {
+        Files.write(base.toPath(), new byte[]{1, 2, 3});
+        AutosaveJournal.read(base, journal);
+    }
+}
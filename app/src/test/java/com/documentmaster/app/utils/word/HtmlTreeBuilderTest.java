@@ -0,0 +1,101 @@
+package com.documentmaster.app.utils.word;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class HtmlTreeBuilderTest {
+
+    @Test
+    public void parsesNestedElementsAndAttributes() {
+        HtmlNode root = HtmlTreeBuilder.parse(
+                "<div><p data-block-id=\"b0\" style='text-align: center;'>Merhaba <b>dünya</b></p></div>");
+
+        HtmlNode p = root.findFirst("p");
+        assertNotNull(p);
+        assertEquals("div", p.parent.tag);
+        assertEquals("b0", p.attr("data-block-id"));
+        assertEquals("center", p.styleValue("text-align"));
+        assertEquals("Merhaba dünya", p.textContent());
+        assertEquals("b", p.children().get(1).tag);
+    }
+
+    @Test
+    public void decodesEntitiesInTextAndAttributes() {
+        HtmlNode root = HtmlTreeBuilder.parse("<p title=\"a &amp; b\">&lt;x&gt; &#252;&#x131;&nbsp;&unknown; &</p>");
+
+        HtmlNode p = root.findFirst("p");
+        assertEquals("a & b", p.attr("title"));
+        assertEquals("<x> üı &unknown; &", p.textContent());
+    }
+
+    @Test
+    public void mergesAdjacentTextAroundComments() {
+        HtmlNode root = HtmlTreeBuilder.parse("<p>bir<!-- yorum -->iki</p>");
+
+        List<HtmlNode> children = root.findFirst("p").children();
+        assertEquals(1, children.size());
+        assertTrue(children.get(0).isText());
+        assertEquals("biriki", children.get(0).text);
+    }
+
+    @Test
+    public void voidAndSelfClosingElementsHaveNoChildren() {
+        HtmlNode root = HtmlTreeBuilder.parse("<p>a<br>b<img src=\"docmaster-img://x.png\"/>c</p>");
+
+        HtmlNode p = root.findFirst("p");
+        assertEquals(5, p.children().size());
+        assertEquals("br", p.children().get(1).tag);
+        assertEquals("img", p.children().get(3).tag);
+        assertEquals("docmaster-img://x.png", p.children().get(3).attr("src"));
+        assertEquals("abc", p.textContent());
+    }
+
+    @Test
+    public void blockElementClosesOpenParagraph() {
+        HtmlNode root = HtmlTreeBuilder.parse("<p>bir<div>iki</div>");
+
+        assertEquals(2, root.children().size());
+        assertEquals("p", root.children().get(0).tag);
+        assertEquals("div", root.children().get(1).tag);
+        assertEquals("bir", root.children().get(0).textContent());
+    }
+
+    @Test
+    public void impliedTableCellAndRowEnds() {
+        HtmlNode root = HtmlTreeBuilder.parse("<table><tr><td>a<td>b<tr><td>c</table><p>sonra</p>");
+
+        HtmlNode table = root.findFirst("table");
+        List<HtmlNode> rows = table.children();
+        assertEquals(2, rows.size());
+        assertEquals(2, rows.get(0).children().size());
+        assertEquals("b", rows.get(0).children().get(1).textContent());
+        assertEquals("c", rows.get(1).textContent());
+        assertEquals("#root", root.findFirst("p").parent.tag);
+    }
+
+    @Test
+    public void strayEndTagDoesNotLeaveTableCell() {
+        HtmlNode root = HtmlTreeBuilder.parse("<p><table><tr><td>a</p>b</td></tr></table>");
+
+        HtmlNode td = root.findFirst("td");
+        assertEquals("ab", td.textContent());
+    }
+
+    @Test
+    public void scriptAndStyleContentIsDropped() {
+        HtmlNode root = HtmlTreeBuilder.parse("<style>p { color: red; }</style><p>metin</p><script>x<y</script>");
+
+        assertEquals("metin", root.textContent());
+    }
+
+    @Test
+    public void unterminatedInputDoesNotThrow() {
+        assertEquals("x>a", HtmlTreeBuilder.parse("<p class=\"x>a").findFirst("p").attr("class"));
+        assertEquals("", HtmlTreeBuilder.parse("<!-- yarım").textContent());
+        assertEquals("x", HtmlTreeBuilder.parse("<p>x</").textContent());
+        assertTrue(HtmlTreeBuilder.parse(null).children().isEmpty());
+    }
+}
@@ -0,0 +1,107 @@
+package com.documentmaster.app.utils.word;
+
+import org.junit.Test;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class RunStyleTest {
+
+    private static RunStyle styleOf(String html) {
+        HtmlNode node = HtmlTreeBuilder.parse(html).findFirst("span");
+        RunStyle style = RunStyle.DEFAULT;
+        for (HtmlNode element : ancestorsFromRoot(node)) {
+            style = style.derive(element);
+        }
+        return style;
+    }
+
+    private static List<HtmlNode> ancestorsFromRoot(HtmlNode node) {
+        LinkedList<HtmlNode> chain = new LinkedList<>();
+        for (HtmlNode n = node; n != null && n.parent != null; n = n.parent) {
+            chain.addFirst(n);
+        }
+        return chain;
+    }
+
+    @Test
+    public void plainElementKeepsSameInstance() {
+        HtmlNode span = HtmlTreeBuilder.parse("<span>x</span>").findFirst("span");
+        assertSame(RunStyle.DEFAULT, RunStyle.DEFAULT.derive(span));
+    }
+
+    @Test
+    public void tagsAreInherited() {
+        RunStyle style = styleOf("<b><i><u><span>x</span></u></i></b>");
+        assertTrue(style.bold);
+        assertTrue(style.italic);
+        assertTrue(style.underline);
+        assertEquals("Calibri", style.fontFamily);
+        assertEquals(11, style.fontSize);
+    }
+
+    @Test
+    public void inlineStyleOverridesInheritedValues() {
+        RunStyle style = styleOf("<b><span style=\"font-weight: normal; font-style: oblique\">x</span></b>");
+        assertFalse(style.bold);
+        assertTrue(style.italic);
+
+        assertTrue(styleOf("<span style=\"font-weight:700\">x</span>").bold);
+        assertFalse(styleOf("<span style=\"font-weight:400\">x</span>").bold);
+        assertTrue(styleOf("<span style=\"text-decoration-line: underline\">x</span>").underline);
+    }
+
+    @Test
+    public void parsesFontFamilySizeAndColor() {
+        RunStyle style = styleOf(
+                "<span style=\"font-family: 'Times New Roman', serif; font-size: 24px; color: rgb(255, 0, 16)\">x</span>");
+        assertEquals("Times New Roman", style.fontFamily);
+        assertEquals(18, style.fontSize);
+        assertEquals("FF0010", style.color);
+
+        assertEquals(14, styleOf("<span style=\"font-size: 14pt\">x</span>").fontSize);
+        assertEquals("00ff00", styleOf("<span style=\"color: #00ff00\">x</span>").color);
+    }
+
+    @Test
+    public void fontElementAttributes() {
+        RunStyle style = styleOf("<font face=\"Arial\" size=\"5\" color=\"#123456\"><span>x</span></font>");
+        assertEquals("Arial", style.fontFamily);
+        assertEquals(18, style.fontSize);
+        assertEquals("123456", style.color);
+    }
+
+    @Test
+    public void invalidValuesFallBackToParent() {
+        RunStyle style = styleOf("<font size=\"9\" color=\"auto\"><span style=\"font-size: large; color: rgb(1,2)\">x</span></font>");
+        assertEquals(11, style.fontSize);
+        assertNull(style.color);
+        assertEquals(RunStyle.DEFAULT, style);
+    }
+
+    @Test
+    public void colorsAreNormalizedToSixHexDigits() {
+        assertEquals("333333", RunStyle.parseColor("#333"));
+        assertEquals("aabbcc", RunStyle.parseColor(" #abc "));
+        assertEquals("FF0000", RunStyle.parseColor("red"));
+        assertEquals("808080", RunStyle.parseColor("Grey"));
+        assertEquals("00FF00", styleOf("<font color=\"lime\"><span>x</span></font>").color);
+        assertEquals("112233", styleOf("<span style=\"color: #123\">x</span>").color);
+    }
+
+    @Test
+    public void unsupportedColorsAreDropped() {
+        assertNull(RunStyle.parseColor("var(--metin-rengi)"));
+        assertNull(RunStyle.parseColor("hsl(120, 100%, 50%)"));
+        assertNull(RunStyle.parseColor("rebeccapurple"));
+        assertNull(RunStyle.parseColor("#12345"));
+        assertNull(RunStyle.parseColor("#1234567"));
+        assertNull(RunStyle.parseColor("#ggg"));
+        assertNull(RunStyle.parseColor("add"));
+        assertNull(RunStyle.parseColor("rgb(300, 0, 0)"));
+        assertNull(RunStyle.parseColor("transparent"));
+        assertNull(styleOf("<span style=\"color: var(--x)\">x</span>").color);
+    }
+}